@@ -0,0 +1,50 @@
+package com.paymentprocessor.common.util;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+// mvn -pl common -Pbenchmark test-compile exec:java -Dexec.args="TransactionIdGeneratorBenchmark -prof gc"
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class TransactionIdGeneratorBenchmark {
+
+    private final TransactionIdGenerator generator = new TransactionIdGenerator(1, System::currentTimeMillis);
+
+    @Benchmark
+    public String timeOrdered() {
+        return generator.generateTransactionId();
+    }
+
+    @Benchmark
+    @Threads(8)
+    public String timeOrderedContended() {
+        return generator.generateTransactionId();
+    }
+
+    // The previous implementation, kept here as the baseline
+    @Benchmark
+    public String randomUuid() {
+        return "TX-" + UUID.randomUUID();
+    }
+
+    @Benchmark
+    @Threads(8)
+    public String randomUuidContended() {
+        return "TX-" + UUID.randomUUID();
+    }
+}
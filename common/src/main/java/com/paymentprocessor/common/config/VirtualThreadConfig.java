@@ -0,0 +1,35 @@
+package com.paymentprocessor.common.config;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnThreading;
+import org.springframework.boot.autoconfigure.thread.Threading;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.task.SimpleAsyncTaskExecutor;
+import org.springframework.kafka.config.AbstractKafkaListenerContainerFactory;
+
+// Opt-in with spring.threads.virtual.enabled=true on Java 21+. Spring Boot then moves Tomcat,
+// @Async and @Scheduled onto virtual threads; this covers the listener container factories the
+// services declare themselves, which Boot's auto-configuration never sees.
+@Slf4j
+@Configuration
+@ConditionalOnThreading(Threading.VIRTUAL)
+public class VirtualThreadConfig {
+
+    @Bean
+    public static BeanPostProcessor virtualThreadKafkaListenerCustomizer() {
+        return new BeanPostProcessor() {
+            @Override
+            public Object postProcessAfterInitialization(Object bean, String beanName) {
+                if (bean instanceof AbstractKafkaListenerContainerFactory<?, ?, ?> factory) {
+                    var executor = new SimpleAsyncTaskExecutor(beanName + "-");
+                    executor.setVirtualThreads(true);
+                    factory.getContainerProperties().setListenerTaskExecutor(executor);
+                    log.info("Kafka listener containers from {} will run on virtual threads", beanName);
+                }
+                return bean;
+            }
+        };
+    }
+}
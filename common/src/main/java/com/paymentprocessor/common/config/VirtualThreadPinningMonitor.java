@@ -0,0 +1,79 @@
+package com.paymentprocessor.common.config;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordedFrame;
+import jdk.jfr.consumer.RecordingStream;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnThreading;
+import org.springframework.boot.autoconfigure.thread.Threading;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.stream.Collectors;
+
+// Logs every virtual thread that stays pinned to its carrier longer than the threshold, usually by
+// blocking inside a synchronized block or a native frame, with the frames that held it there
+@Slf4j
+@Component
+@ConditionalOnThreading(Threading.VIRTUAL)
+@ConditionalOnProperty(name = "diagnostics.virtual-threads.pinning.enabled", havingValue = "true", matchIfMissing = true)
+public class VirtualThreadPinningMonitor implements SmartLifecycle {
+
+    private static final String PINNED_EVENT = "jdk.VirtualThreadPinned";
+    private static final int LOGGED_FRAMES = 8;
+
+    private final Duration threshold;
+    private final Counter pinnedCounter;
+    private volatile RecordingStream stream;
+
+    public VirtualThreadPinningMonitor(MeterRegistry meterRegistry,
+                                       @Value("${diagnostics.virtual-threads.pinning.threshold:20ms}") Duration threshold) {
+        this.threshold = threshold;
+        this.pinnedCounter = Counter.builder("jvm.threads.virtual.pinned")
+                .description("Number of times a virtual thread blocked while pinned to its carrier")
+                .register(meterRegistry);
+    }
+
+    @Override
+    public void start() {
+        var recording = new RecordingStream();
+        recording.enable(PINNED_EVENT).withThreshold(threshold).withStackTrace();
+        recording.onEvent(PINNED_EVENT, this::onPinned);
+        recording.startAsync();
+        stream = recording;
+        log.info("Monitoring virtual thread pinning above {}", threshold);
+    }
+
+    @Override
+    public void stop() {
+        var recording = stream;
+        stream = null;
+        if (recording != null) {
+            recording.close();
+        }
+    }
+
+    @Override
+    public boolean isRunning() {
+        return stream != null;
+    }
+
+    private void onPinned(RecordedEvent event) {
+        pinnedCounter.increment();
+        var frames = event.getStackTrace() == null ? "<no stack trace>" : event.getStackTrace().getFrames().stream()
+                .limit(LOGGED_FRAMES)
+                .map(VirtualThreadPinningMonitor::describe)
+                .collect(Collectors.joining("\n\tat "));
+        log.warn("Virtual thread pinned for {} ms\n\tat {}", event.getDuration().toMillis(), frames);
+    }
+
+    private static String describe(RecordedFrame frame) {
+        var method = frame.getMethod();
+        return method.getType().getName() + "." + method.getName() + ":" + frame.getLineNumber();
+    }
+}
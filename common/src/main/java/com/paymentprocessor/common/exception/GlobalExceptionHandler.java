@@ -5,6 +5,7 @@ import jakarta.validation.ConstraintViolation;
 import jakarta.validation.ConstraintViolationException;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.validation.FieldError;
@@ -14,6 +15,7 @@ import org.springframework.web.bind.annotation.RestControllerAdvice;
 import org.springframework.web.context.request.WebRequest;
 
 import java.time.LocalDateTime;
+import java.util.HashMap;
 import java.util.Map;
 import java.util.Set;
 import java.util.stream.Collectors;
@@ -78,11 +80,12 @@ public class GlobalExceptionHandler {
     public ResponseEntity<ErrorResponse> handleRateLimitExceeded(
             RateLimitExceededException ex, WebRequest request) {
         log.warn("Rate limit exceeded: {}", ex.getMessage());
-        Map<String, Object> additionalInfo = Map.of(
-                "clientId", ex.getClientId(),
-                "currentRate", ex.getCurrentRate(),
-                "maxRate", ex.getMaxRate()
-        );
+        Map<String, Object> additionalInfo = new HashMap<>();
+        additionalInfo.put("clientId", ex.getClientId());
+        if (ex.getCurrentRate() != null) {
+            additionalInfo.put("currentRate", ex.getCurrentRate());
+            additionalInfo.put("maxRate", ex.getMaxRate());
+        }
 
         ErrorResponse errorResponse = ErrorResponse.builder()
                 .timestamp(LocalDateTime.now())
@@ -93,6 +96,11 @@ public class GlobalExceptionHandler {
                 .path(getPath(request))
                 .additionalInfo(additionalInfo)
                 .build();
+        if (ex.getRetryAfterSeconds() > 0) {
+            return ResponseEntity.status(HttpStatus.TOO_MANY_REQUESTS)
+                    .header(HttpHeaders.RETRY_AFTER, Long.toString(ex.getRetryAfterSeconds()))
+                    .body(errorResponse);
+        }
         return new ResponseEntity<>(errorResponse, HttpStatus.TOO_MANY_REQUESTS);
     }
 
@@ -129,6 +137,25 @@ public class GlobalExceptionHandler {
         return new ResponseEntity<>(errorResponse, HttpStatus.SERVICE_UNAVAILABLE);
     }
 
+    @ExceptionHandler(ServiceOverloadedException.class)
+    public ResponseEntity<ErrorResponse> handleServiceOverloaded(
+            ServiceOverloadedException ex, WebRequest request) {
+        log.warn("Service overloaded: {}", ex.getMessage());
+
+        var errorResponse = ErrorResponse.builder()
+                .timestamp(LocalDateTime.now())
+                .status(HttpStatus.SERVICE_UNAVAILABLE.value())
+                .error(HttpStatus.SERVICE_UNAVAILABLE.getReasonPhrase())
+                .errorCode(ex.getErrorCode())
+                .message(ex.getUserMessage())
+                .path(getPath(request))
+                .build();
+
+        return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                .header(HttpHeaders.RETRY_AFTER, Long.toString(ex.getRetryAfterSeconds()))
+                .body(errorResponse);
+    }
+
     @ExceptionHandler(OptimisticLockingFailureException.class)
     public ResponseEntity<ErrorResponse> handleOptimisticLocking(
             OptimisticLockingFailureException ex, WebRequest request) {
@@ -146,6 +173,25 @@ public class GlobalExceptionHandler {
         return ResponseEntity.status(HttpStatus.CONFLICT).body(errorResponse);
     }
 
+    @ExceptionHandler(IdempotencyConflictException.class)
+    public ResponseEntity<ErrorResponse> handleIdempotencyConflict(
+            IdempotencyConflictException ex, WebRequest request) {
+        log.warn("Idempotency conflict: {}", ex.getMessage());
+
+        var errorResponse = ErrorResponse.builder()
+                .timestamp(LocalDateTime.now())
+                .status(HttpStatus.CONFLICT.value())
+                .error(HttpStatus.CONFLICT.getReasonPhrase())
+                .errorCode(ex.getErrorCode())
+                .message(ex.getUserMessage())
+                .path(getPath(request))
+                .build();
+
+        return ResponseEntity.status(HttpStatus.CONFLICT)
+                .header(HttpHeaders.RETRY_AFTER, "1")
+                .body(errorResponse);
+    }
+
     @ExceptionHandler(MethodArgumentNotValidException.class)
     public ResponseEntity<ErrorResponse> handleValidationErros(
             MethodArgumentNotValidException ex, WebRequest request) {
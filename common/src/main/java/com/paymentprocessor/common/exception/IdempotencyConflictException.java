@@ -0,0 +1,16 @@
+package com.paymentprocessor.common.exception;
+
+public class IdempotencyConflictException extends PaymentProcessingException {
+    private final String idempotencyKey;
+
+    public IdempotencyConflictException(String idempotencyKey) {
+        super("IDEMPOTENCY_CONFLICT",
+                "Request with idempotency key " + idempotencyKey + " is still being processed",
+                "A request with this Idempotency-Key is already in progress. Please retry shortly");
+        this.idempotencyKey = idempotencyKey;
+    }
+
+    public String getIdempotencyKey() {
+        return idempotencyKey;
+    }
+}
@@ -2,11 +2,28 @@ package com.paymentprocessor.common.exception;
 
 public class RateLimitExceededException extends PaymentProcessingException {
     private final String clientId;
-    private final int currentRate;
-    private final int maxRate;
+    // Null when the limiter does not track them
+    private final Integer currentRate;
+    private final Integer maxRate;
+    private final long retryAfterSeconds;
 
 
     public RateLimitExceededException(String clientId, int currentRate, int maxRate) {
+        this(clientId, currentRate, maxRate, 0);
+    }
+
+    // For limiters that only know a request was refused, not how many requests the client has made
+    public RateLimitExceededException(String clientId, long retryAfterSeconds) {
+        super("RATE_LIMIT_EXCEEDED",
+                String.format("Rate limit exceeded for client %s", clientId),
+                "Too many requests. Please try again later");
+        this.clientId = clientId;
+        this.currentRate = null;
+        this.maxRate = null;
+        this.retryAfterSeconds = retryAfterSeconds;
+    }
+
+    public RateLimitExceededException(String clientId, int currentRate, int maxRate, long retryAfterSeconds) {
         super("RATE_LIMIT_EXCEEDED",
                 String.format("Rate limit exceeded for client %s: %d/%d requests",
                         clientId, currentRate, maxRate),
@@ -14,19 +31,24 @@ public class RateLimitExceededException extends PaymentProcessingException {
         this.clientId = clientId;
         this.currentRate = currentRate;
         this.maxRate = maxRate;
+        this.retryAfterSeconds = retryAfterSeconds;
     }
 
     public String getClientId() {
         return clientId;
     }
 
-    public int getCurrentRate() {
+    public Integer getCurrentRate() {
         return currentRate;
     }
 
-    public int getMaxRate() {
+    public Integer getMaxRate() {
         return maxRate;
     }
 
+    public long getRetryAfterSeconds() {
+        return retryAfterSeconds;
+    }
+
 
 }
@@ -0,0 +1,16 @@
+package com.paymentprocessor.common.exception;
+
+public class ServiceOverloadedException extends PaymentProcessingException {
+    private final long retryAfterSeconds;
+
+    public ServiceOverloadedException(String reason, long retryAfterSeconds) {
+        super("SERVICE_OVERLOADED",
+                "Request shed: " + reason,
+                "The service is temporarily over capacity. Please retry later");
+        this.retryAfterSeconds = retryAfterSeconds;
+    }
+
+    public long getRetryAfterSeconds() {
+        return retryAfterSeconds;
+    }
+}
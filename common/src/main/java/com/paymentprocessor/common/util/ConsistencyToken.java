@@ -0,0 +1,33 @@
+package com.paymentprocessor.common.util;
+
+import com.paymentprocessor.common.exception.InvalidTransactionException;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+
+// Handed out by the command side: the read model is consistent with the caller's write once the
+// transaction's projected version reaches minVersion. Opaque to clients.
+public record ConsistencyToken(String transactionId, long minVersion) {
+
+    public static final String HEADER = "X-Consistency-Token";
+
+    private static final char SEPARATOR = ':';
+
+    public String encode() {
+        var raw = transactionId + SEPARATOR + minVersion;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    public static ConsistencyToken decode(String token) {
+        try {
+            var raw = new String(Base64.getUrlDecoder().decode(token), StandardCharsets.UTF_8);
+            int separator = raw.lastIndexOf(SEPARATOR);
+            if (separator <= 0) {
+                throw new InvalidTransactionException("malformed consistency token");
+            }
+            return new ConsistencyToken(raw.substring(0, separator), Long.parseLong(raw.substring(separator + 1)));
+        } catch (IllegalArgumentException e) {
+            throw new InvalidTransactionException("malformed consistency token", e);
+        }
+    }
+}
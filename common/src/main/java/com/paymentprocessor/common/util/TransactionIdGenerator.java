@@ -1,18 +1,113 @@
 package com.paymentprocessor.common.util;
 
-import java.util.UUID;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Lazy;
+import org.springframework.stereotype.Component;
 
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.LongSupplier;
+
+// IDs are 63 bits: 41 bits of milliseconds since EPOCH_MILLIS, a 10-bit node ID and a 12-bit
+// sequence. They are rendered as fixed-width Crockford base32, so string order matches creation
+// order and new rows land at the right-hand edge of the primary key indexes.
+//
+// Two instances sharing a node ID can issue the same ID, so it has to be assigned per instance
+// (e.g. from the StatefulSet pod ordinal) and there is no fallback. Lazy so that services which
+// scan this package but never generate IDs do not need one configured.
+@Lazy
+@Component
 public class TransactionIdGenerator {
 
-    private static final String PREFIX = "TX";
+    private static final String PREFIX = "TX-";
+    private static final long EPOCH_MILLIS = 1_704_067_200_000L; // 2024-01-01T00:00:00Z
+    private static final int NODE_BITS = 10;
+    private static final int SEQUENCE_BITS = 12;
+    private static final long MAX_NODE_ID = (1L << NODE_BITS) - 1;
+    private static final long SEQUENCE_MASK = (1L << SEQUENCE_BITS) - 1;
+    private static final int ENCODED_LENGTH = 13;
+    private static final int ID_LENGTH = PREFIX.length() + ENCODED_LENGTH;
+    private static final char[] ALPHABET = "0123456789ABCDEFGHJKMNPQRSTVWXYZ".toCharArray();
+
+    private final long nodeId;
+    private final LongSupplier clock;
+    // Last issued (timestamp << SEQUENCE_BITS | sequence); only ever moves forward
+    private final AtomicLong lastState = new AtomicLong();
+
+    @Autowired
+    public TransactionIdGenerator(@Value("${transaction.id.node-id:#{null}}") Long nodeId) {
+        this(requireNodeId(nodeId), System::currentTimeMillis);
+    }
+
+    TransactionIdGenerator(long nodeId, LongSupplier clock) {
+        if (nodeId < 0 || nodeId > MAX_NODE_ID) {
+            throw new IllegalArgumentException("Node ID must be between 0 and " + MAX_NODE_ID);
+        }
+        this.nodeId = nodeId;
+        this.clock = clock;
+    }
 
     public String generateTransactionId() {
-        return PREFIX + "-" + UUID.randomUUID().toString().replace("_", "");
+        long state = nextState();
+        long timestamp = state >>> SEQUENCE_BITS;
+        long id = (timestamp << (NODE_BITS + SEQUENCE_BITS)) | (nodeId << SEQUENCE_BITS) | (state & SEQUENCE_MASK);
+
+        var chars = new char[ID_LENGTH];
+        PREFIX.getChars(0, PREFIX.length(), chars, 0);
+        for (int i = ID_LENGTH - 1; i >= PREFIX.length(); i--) {
+            chars[i] = ALPHABET[(int) (id & 31)];
+            id >>>= 5;
+        }
+        return new String(chars);
     }
 
     public boolean isValidTransactionId(String transactionId) {
-        return transactionId != null &&
-                transactionId.startsWith(PREFIX + "-") &&
-                transactionId.length() == 35; // TX- + 32 CHARS
+        if (transactionId == null || transactionId.length() != ID_LENGTH || !transactionId.startsWith(PREFIX)) {
+            return false;
+        }
+        // 63 bits in 13 base32 digits leaves the top two bits of the first digit unused
+        if (decodeDigit(transactionId.charAt(PREFIX.length())) > 7) {
+            return false;
+        }
+        for (int i = PREFIX.length() + 1; i < ID_LENGTH; i++) {
+            if (decodeDigit(transactionId.charAt(i)) < 0) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    // Lock-free: when the sequence for the current millisecond runs out, or the clock steps back,
+    // the counter keeps going past the wall clock instead of blocking until it catches up
+    private long nextState() {
+        while (true) {
+            long last = lastState.get();
+            long now = (clock.getAsLong() - EPOCH_MILLIS) << SEQUENCE_BITS;
+            long next = now > last ? now : last + 1;
+            if (lastState.compareAndSet(last, next)) {
+                return next;
+            }
+        }
+    }
+
+    private static int decodeDigit(char c) {
+        if (c >= '0' && c <= '9') {
+            return c - '0';
+        }
+        for (int i = 10; i < ALPHABET.length; i++) {
+            if (ALPHABET[i] == c) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    private static long requireNodeId(Long nodeId) {
+        if (nodeId == null) {
+            throw new IllegalStateException(
+                    "transaction.id.node-id must be set to a value between 0 and " + MAX_NODE_ID
+                            + " that is unique to this instance");
+        }
+        return nodeId;
     }
 }
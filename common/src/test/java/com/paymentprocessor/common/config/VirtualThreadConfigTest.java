@@ -0,0 +1,44 @@
+package com.paymentprocessor.common.config;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.test.context.runner.ApplicationContextRunner;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.task.SimpleAsyncTaskExecutor;
+import org.springframework.kafka.config.ConcurrentKafkaListenerContainerFactory;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class VirtualThreadConfigTest {
+
+    private final ApplicationContextRunner contextRunner = new ApplicationContextRunner()
+            .withUserConfiguration(VirtualThreadConfig.class, ListenerConfig.class);
+
+    @Test
+    void shouldRunCustomListenerContainersOnVirtualThreadsWhenEnabled() {
+        contextRunner.withPropertyValues("spring.threads.virtual.enabled=true").run(context -> {
+            var factory = context.getBean(ConcurrentKafkaListenerContainerFactory.class);
+            var executor = factory.getContainerProperties().getListenerTaskExecutor();
+
+            assertThat(executor).isInstanceOf(SimpleAsyncTaskExecutor.class);
+            var ranOnVirtualThread = ((SimpleAsyncTaskExecutor) executor)
+                    .submit(() -> Thread.currentThread().isVirtual());
+            assertThat(ranOnVirtualThread.get()).isTrue();
+        });
+    }
+
+    @Test
+    void shouldLeaveListenerContainersAloneByDefault() {
+        contextRunner.run(context -> assertThat(context.getBean(ConcurrentKafkaListenerContainerFactory.class)
+                .getContainerProperties().getListenerTaskExecutor()).isNull());
+    }
+
+    @Configuration
+    static class ListenerConfig {
+
+        @Bean
+        ConcurrentKafkaListenerContainerFactory<String, Object> listenerContainerFactory() {
+            return new ConcurrentKafkaListenerContainerFactory<>();
+        }
+    }
+}
@@ -0,0 +1,87 @@
+package com.paymentprocessor.common.util;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class TransactionIdGeneratorTest {
+
+    @Test
+    void shouldGenerateIdsThatSortInCreationOrder() {
+        var clock = new AtomicLong(1_720_000_000_000L);
+        var generator = new TransactionIdGenerator(7, clock::get);
+
+        var ids = new ArrayList<String>();
+        for (int i = 0; i < 10_000; i++) {
+            if (i % 1000 == 0) {
+                clock.addAndGet(3);
+            }
+            ids.add(generator.generateTransactionId());
+        }
+
+        assertThat(ids).isSorted().doesNotHaveDuplicates()
+                .allSatisfy(id -> assertThat(generator.isValidTransactionId(id)).isTrue());
+    }
+
+    @Test
+    void shouldStayMonotonicWhenClockStepsBackOrSequenceRunsOut() {
+        var clock = new AtomicLong(1_720_000_000_000L);
+        var generator = new TransactionIdGenerator(7, clock::get);
+
+        var before = generator.generateTransactionId();
+        clock.addAndGet(-5_000);
+        var ids = IntStream.range(0, 10_000).mapToObj(i -> generator.generateTransactionId()).toList();
+
+        assertThat(ids).isSorted().doesNotHaveDuplicates();
+        assertThat(ids.get(0)).isGreaterThan(before);
+    }
+
+    @Test
+    void shouldGenerateUniqueIdsAcrossThreads() throws InterruptedException {
+        var generator = new TransactionIdGenerator(3, System::currentTimeMillis);
+        var ids = new ConcurrentLinkedQueue<String>();
+        List<Thread> threads = IntStream.range(0, 8)
+                .mapToObj(t -> new Thread(() -> {
+                    for (int i = 0; i < 5_000; i++) {
+                        ids.add(generator.generateTransactionId());
+                    }
+                }))
+                .toList();
+
+        threads.forEach(Thread::start);
+        for (var thread : threads) {
+            thread.join();
+        }
+
+        assertThat(new HashSet<>(ids)).hasSize(40_000);
+    }
+
+    @Test
+    void shouldFailFastWithoutConfiguredNodeId() {
+        assertThatThrownBy(() -> new TransactionIdGenerator((Long) null))
+                .isInstanceOf(IllegalStateException.class)
+                .hasMessageContaining("transaction.id.node-id");
+        assertThatThrownBy(() -> new TransactionIdGenerator(1024L))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+
+    @Test
+    void shouldRejectMalformedIds() {
+        var generator = new TransactionIdGenerator(0, System::currentTimeMillis);
+
+        assertThat(generator.isValidTransactionId(null)).isFalse();
+        assertThat(generator.isValidTransactionId("TX-" + UUID.randomUUID())).isFalse();
+        assertThat(generator.isValidTransactionId("TX-0000000000OOU")).isFalse();
+        assertThat(generator.isValidTransactionId("TX-Z000000000000")).isFalse();
+        assertThat(generator.isValidTransactionId("TX-0123456789ABC")).isTrue();
+    }
+}
@@ -1,7 +1,10 @@
 package com.paymentprocessor.notification.config;
 
+import org.springframework.boot.autoconfigure.condition.ConditionalOnThreading;
+import org.springframework.boot.autoconfigure.thread.Threading;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.core.task.SimpleAsyncTaskExecutor;
 import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
 
 import java.util.concurrent.Executor;
@@ -9,6 +12,7 @@ import java.util.concurrent.Executor;
 @Configuration
 public class AsyncConfig {
     @Bean(name = "NotificationExecutor")
+    @ConditionalOnThreading(Threading.PLATFORM)
     public Executor notificationExecutor() {
         ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
         executor.setCorePoolSize(5);
@@ -18,4 +22,13 @@ public class AsyncConfig {
         executor.initialize();
         return executor;
     }
+
+    // Senders mostly wait on SMTP and webhook I/O, so a virtual thread per notification replaces the pool
+    @Bean(name = "NotificationExecutor")
+    @ConditionalOnThreading(Threading.VIRTUAL)
+    public Executor virtualNotificationExecutor() {
+        SimpleAsyncTaskExecutor executor = new SimpleAsyncTaskExecutor("Notification-");
+        executor.setVirtualThreads(true);
+        return executor;
+    }
 }
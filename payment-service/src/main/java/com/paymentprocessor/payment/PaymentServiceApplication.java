@@ -3,6 +3,7 @@ package com.paymentprocessor.payment;
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
 import org.springframework.kafka.annotation.EnableKafka;
+import org.springframework.scheduling.annotation.EnableScheduling;
 import org.springframework.transaction.annotation.EnableTransactionManagement;
 
 @SpringBootApplication(scanBasePackages = {
@@ -10,6 +11,7 @@ import org.springframework.transaction.annotation.EnableTransactionManagement;
         "com.paymentprocessor.common"
 })
 @EnableKafka
+@EnableScheduling
 @EnableTransactionManagement
 public class PaymentServiceApplication {
     public static void main(String[] args) {
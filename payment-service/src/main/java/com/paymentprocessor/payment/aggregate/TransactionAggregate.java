@@ -2,10 +2,10 @@ package com.paymentprocessor.payment.aggregate;
 
 import com.paymentprocessor.common.event.*;
 import com.paymentprocessor.common.exception.InvalidTransactionException;
-import com.paymentprocessor.common.exception.PaymentProcessingFailedException;
 import com.paymentprocessor.common.model.Currency;
 import com.paymentprocessor.common.model.PaymentMethod;
 import com.paymentprocessor.common.model.TransactionStatus;
+import com.paymentprocessor.payment.command.CompletePaymentCommand;
 import com.paymentprocessor.payment.command.CreateTransactionCommand;
 import com.paymentprocessor.payment.command.ProcessFraudCheckCommand;
 import com.paymentprocessor.payment.command.ProcessPaymentCommand;
@@ -17,7 +17,6 @@ import java.time.LocalDateTime;
 import java.util.ArrayList;
 import java.util.Collections;
 import java.util.List;
-import java.util.concurrent.ThreadLocalRandom;
 
 @Getter
 @Slf4j
@@ -112,27 +111,33 @@ public class TransactionAggregate {
                 command.paymentGateway()
         );
         apply(startedEvent);
+    }
+
+    public void handle(CompletePaymentCommand command) {
+        log.info("Handling CompletePaymentCommand for transaction: {}",
+                command.transactionId());
 
-        try{
-            var gatewayTransactionId = processWithPaymentGateway(command);
+        validateTransactionExists();
+        validateTransactionStatus(TransactionStatus.PAYMENT_PROCESSING);
 
+        if (command.successful()) {
             var processedEvent = new PaymentProcessedEvent(
                     command.transactionId(),
                     command.amount(),
-                    gatewayTransactionId,
+                    command.paymentGatewayTransactionId(),
                     command.paymentGateway()
             );
             apply(processedEvent);
 
             log.info("Payment processed successfully for transaction: {}",
                     command.transactionId());
-        } catch (Exception e) {
-            log.error("Payment processing failed for transaction: {}",
-                    command.transactionId(), e);
+        } else {
+            log.warn("Payment processing failed for transaction: {} - {}",
+                    command.transactionId(), command.failureReason());
 
             var failedEvent = new PaymentFailedEvent(
                     command.transactionId(),
-                    e.getMessage(),
+                    command.failureReason(),
                     "PAYMENT_GATEWAY_ERROR",
                     true // retryable
             );
@@ -225,24 +230,6 @@ public class TransactionAggregate {
         }
     }
 
-    private String processWithPaymentGateway(ProcessPaymentCommand command) {
-        // Simulate Payment Gateway
-        try {
-            Thread.sleep(100); // Simulate network call
-
-            // Simulate random failure for testing resilience
-            if (ThreadLocalRandom.current().nextDouble() < 0.1) { // 10% failure rate
-                throw new PaymentProcessingFailedException("Payment gateway timeout");
-            }
-
-            return "GW-" + System.currentTimeMillis();
-
-        } catch (InterruptedException e) {
-            Thread.currentThread().interrupt();
-            throw new PaymentProcessingFailedException("Payment processing interrupted", e);
-        }
-    }
-
     public List<BaseEvent> getUncommittedEvents() {
         return Collections.unmodifiableList(uncommittedEvents);
     }
@@ -251,6 +238,41 @@ public class TransactionAggregate {
         uncommittedEvents.clear();
     }
 
+    public TransactionSnapshot toSnapshot() {
+        return new TransactionSnapshot(
+                transactionId,
+                userId,
+                amount,
+                currency,
+                paymentMethod,
+                description,
+                status,
+                createdAt,
+                completedAt,
+                riskScore,
+                fraudReason,
+                paymentGatewayTransactionId,
+                version
+        );
+    }
+
+    public static TransactionAggregate fromSnapshot(TransactionSnapshot snapshot) {
+        var aggregate = new TransactionAggregate(snapshot.transactionId());
+        aggregate.userId = snapshot.userId();
+        aggregate.amount = snapshot.amount();
+        aggregate.currency = snapshot.currency();
+        aggregate.paymentMethod = snapshot.paymentMethod();
+        aggregate.description = snapshot.description();
+        aggregate.status = snapshot.status();
+        aggregate.createdAt = snapshot.createdAt();
+        aggregate.completedAt = snapshot.completedAt();
+        aggregate.riskScore = snapshot.riskScore();
+        aggregate.fraudReason = snapshot.fraudReason();
+        aggregate.paymentGatewayTransactionId = snapshot.paymentGatewayTransactionId();
+        aggregate.version = snapshot.version();
+        return aggregate;
+    }
+
     public void loadFromHistory(List<BaseEvent> history) {
         history.forEach(this::applyEvent);
         uncommittedEvents.clear();
@@ -0,0 +1,34 @@
+package com.paymentprocessor.payment.aggregate;
+
+import com.paymentprocessor.common.model.Currency;
+import com.paymentprocessor.common.model.PaymentMethod;
+import com.paymentprocessor.common.model.TransactionStatus;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+public record TransactionSnapshot(
+        String transactionId,
+        String userId,
+        BigDecimal amount,
+        Currency currency,
+        PaymentMethod paymentMethod,
+        String description,
+        TransactionStatus status,
+        LocalDateTime createdAt,
+        LocalDateTime completedAt,
+        double riskScore,
+        String fraudReason,
+        String paymentGatewayTransactionId,
+        long version
+) {
+
+    public TransactionSnapshot {
+        if (transactionId == null || transactionId.isBlank()) {
+            throw new IllegalArgumentException("Transaction ID cannot be null or blank");
+        }
+        if (version <= 0) {
+            throw new IllegalArgumentException("Snapshot version must be positive");
+        }
+    }
+}
@@ -3,7 +3,8 @@ package com.paymentprocessor.payment.command;
 public sealed interface BaseCommand permits
         CreateTransactionCommand,
         ProcessFraudCheckCommand,
-        ProcessPaymentCommand
+        ProcessPaymentCommand,
+        CompletePaymentCommand
 {
     String transactionId();
 }
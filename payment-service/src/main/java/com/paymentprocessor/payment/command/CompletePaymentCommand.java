@@ -0,0 +1,41 @@
+package com.paymentprocessor.payment.command;
+
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Positive;
+
+import java.math.BigDecimal;
+
+public record CompletePaymentCommand(
+        @NotNull String transactionId,
+        @NotNull @Positive BigDecimal amount,
+        @NotNull String paymentGateway,
+        boolean successful,
+        String paymentGatewayTransactionId,
+        String failureReason
+) implements BaseCommand {
+
+    public CompletePaymentCommand {
+        if (transactionId == null || transactionId.isBlank()) {
+            throw new IllegalArgumentException("Transaction ID cannot be null or blank");
+        }
+        if (amount == null || amount.compareTo(BigDecimal.ZERO) <= 0) {
+            throw new IllegalArgumentException("Amount must be positive");
+        }
+        if (paymentGateway == null || paymentGateway.isBlank()) {
+            throw new IllegalArgumentException("Payment gateway cannot be null or blank");
+        }
+        if (successful && (paymentGatewayTransactionId == null || paymentGatewayTransactionId.isBlank())) {
+            throw new IllegalArgumentException("Gateway transaction ID is required for a successful payment");
+        }
+    }
+
+    public static CompletePaymentCommand succeeded(ProcessPaymentCommand command, String gatewayTransactionId) {
+        return new CompletePaymentCommand(command.transactionId(), command.amount(), command.paymentGateway(),
+                true, gatewayTransactionId, null);
+    }
+
+    public static CompletePaymentCommand failed(ProcessPaymentCommand command, String reason) {
+        return new CompletePaymentCommand(command.transactionId(), command.amount(), command.paymentGateway(),
+                false, null, reason);
+    }
+}
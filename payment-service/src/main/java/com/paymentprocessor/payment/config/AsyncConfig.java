@@ -0,0 +1,78 @@
+package com.paymentprocessor.payment.config;
+
+import org.springframework.boot.autoconfigure.condition.ConditionalOnThreading;
+import org.springframework.boot.autoconfigure.thread.Threading;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.task.SimpleAsyncTaskExecutor;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+
+import java.util.concurrent.Executor;
+
+@Configuration
+public class AsyncConfig {
+
+    // Resumes requests parked on a consistency token, keeping the notification listener thread free
+    @Bean(name = "queryContinuationExecutor")
+    @ConditionalOnThreading(Threading.PLATFORM)
+    public Executor queryContinuationExecutor() {
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(4);
+        executor.setMaxPoolSize(4);
+        executor.setQueueCapacity(10_000);
+        executor.setThreadNamePrefix("QueryContinuation-");
+        executor.initialize();
+        return executor;
+    }
+
+    // Writes SSE status events; a stalled client socket only ever blocks one of these threads
+    @Bean(name = "statusStreamExecutor")
+    @ConditionalOnThreading(Threading.PLATFORM)
+    public Executor statusStreamExecutor() {
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(8);
+        executor.setMaxPoolSize(8);
+        executor.setQueueCapacity(50_000);
+        executor.setThreadNamePrefix("StatusStream-");
+        executor.initialize();
+        return executor;
+    }
+
+    // Records gateway outcomes; each task waits for room on its command lane. Unbounded because every
+    // queued task is a payment the gateway has already settled and must not be rejected.
+    @Bean(name = "paymentOutcomeExecutor")
+    @ConditionalOnThreading(Threading.PLATFORM)
+    public Executor paymentOutcomeExecutor() {
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(8);
+        executor.setMaxPoolSize(8);
+        executor.setThreadNamePrefix("PaymentOutcome-");
+        executor.initialize();
+        return executor;
+    }
+
+    @Bean(name = "queryContinuationExecutor")
+    @ConditionalOnThreading(Threading.VIRTUAL)
+    public Executor virtualQueryContinuationExecutor() {
+        return virtualThreadExecutor("QueryContinuation-");
+    }
+
+    // A thread per write, so one stalled client socket never holds up another subscriber
+    @Bean(name = "statusStreamExecutor")
+    @ConditionalOnThreading(Threading.VIRTUAL)
+    public Executor virtualStatusStreamExecutor() {
+        return virtualThreadExecutor("StatusStream-");
+    }
+
+    @Bean(name = "paymentOutcomeExecutor")
+    @ConditionalOnThreading(Threading.VIRTUAL)
+    public Executor virtualPaymentOutcomeExecutor() {
+        return virtualThreadExecutor("PaymentOutcome-");
+    }
+
+    private static Executor virtualThreadExecutor(String threadNamePrefix) {
+        SimpleAsyncTaskExecutor executor = new SimpleAsyncTaskExecutor(threadNamePrefix);
+        executor.setVirtualThreads(true);
+        return executor;
+    }
+}
@@ -21,6 +21,12 @@ public class KafkaConfig {
     @Value("${spring.kafka.bootstrap-servers:localhost:9092}")
     private String bootstrapServers;
 
+    @Value("${payment.projection.batch.max-poll-records:1000}")
+    private int projectionMaxPollRecords;
+
+    @Value("${payment.projection.batch.fetch-max-wait:50}")
+    private int projectionFetchMaxWaitMs;
+
     // Producer Configuration
     @Bean
     public ProducerFactory<String, Object> producerFactory() {
@@ -33,6 +39,10 @@ public class KafkaConfig {
         configProps.put(ProducerConfig.ENABLE_IDEMPOTENCE_CONFIG, true);
         configProps.put(ProducerConfig.MAX_IN_FLIGHT_REQUESTS_PER_CONNECTION, 5);
         configProps.put(ProducerConfig.RETRY_BACKOFF_MS_CONFIG, 100);
+        // Let the outbox relay's bursts coalesce into large, compressed record batches
+        configProps.put(ProducerConfig.LINGER_MS_CONFIG, 5);
+        configProps.put(ProducerConfig.BATCH_SIZE_CONFIG, 64 * 1024);
+        configProps.put(ProducerConfig.COMPRESSION_TYPE_CONFIG, "lz4");
 
         return new DefaultKafkaProducerFactory<>(configProps);
     }
@@ -45,6 +55,10 @@ public class KafkaConfig {
     // Consumer Configuration
     @Bean
     public ConsumerFactory<String, Object> consumerFactory() {
+        return new DefaultKafkaConsumerFactory<>(consumerProps());
+    }
+
+    private Map<String, Object> consumerProps() {
         Map<String, Object> props = new HashMap<>();
         props.put(ConsumerConfig.BOOTSTRAP_SERVERS_CONFIG, bootstrapServers);
         props.put(ConsumerConfig.GROUP_ID_CONFIG, "payment-service");
@@ -55,8 +69,7 @@ public class KafkaConfig {
         props.put(ConsumerConfig.ENABLE_AUTO_COMMIT_CONFIG, false);
         props.put(ConsumerConfig.SESSION_TIMEOUT_MS_CONFIG, 30000);
         props.put(ConsumerConfig.HEARTBEAT_INTERVAL_MS_CONFIG, 10000);
-
-        return new DefaultKafkaConsumerFactory<>(props);
+        return props;
     }
 
     @Bean
@@ -67,4 +80,19 @@ public class KafkaConfig {
         factory.getContainerProperties().setAckMode(org.springframework.kafka.listener.ContainerProperties.AckMode.RECORD);
         return factory;
     }
-}
\ No newline at end of file
+
+    // Read model projection: large polls handed over as one list, acknowledged once per batch
+    @Bean
+    public ConcurrentKafkaListenerContainerFactory<String, Object> projectionListenerContainerFactory() {
+        var props = consumerProps();
+        props.put(ConsumerConfig.MAX_POLL_RECORDS_CONFIG, projectionMaxPollRecords);
+        props.put(ConsumerConfig.FETCH_MAX_WAIT_MS_CONFIG, projectionFetchMaxWaitMs);
+
+        ConcurrentKafkaListenerContainerFactory<String, Object> factory = new ConcurrentKafkaListenerContainerFactory<>();
+        factory.setConsumerFactory(new DefaultKafkaConsumerFactory<>(props));
+        factory.setConcurrency(3);
+        factory.setBatchListener(true);
+        factory.getContainerProperties().setAckMode(org.springframework.kafka.listener.ContainerProperties.AckMode.BATCH);
+        return factory;
+    }
+}
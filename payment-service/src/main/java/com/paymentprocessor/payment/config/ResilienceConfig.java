@@ -33,9 +33,12 @@ public class ResilienceConfig {
 
     @Bean
     public Retry commandProcessingRetry(RetryRegistry retryRegistry) {
+        // Commands for one aggregate are serialized by CommandDispatcher, so a conflict here means another
+        // instance wrote first. The retry runs on a command lane and stalls every aggregate behind it,
+        // so it only waits long enough to reload.
         var config = RetryConfig.custom()
                 .maxAttempts(3)
-                .intervalFunction(IntervalFunction.ofExponentialBackoff(Duration.ofMillis(500), 1.5))
+                .intervalFunction(IntervalFunction.ofExponentialBackoff(Duration.ofMillis(20), 2.0))
                 .retryOnException(throwable -> throwable instanceof org.springframework.dao.OptimisticLockingFailureException)
                 .build();
 
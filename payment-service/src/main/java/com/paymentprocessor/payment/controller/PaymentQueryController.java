@@ -1,9 +1,17 @@
 package com.paymentprocessor.payment.controller;
 
+import com.paymentprocessor.common.exception.InvalidTransactionException;
 import com.paymentprocessor.common.exception.TransactionNotFoundException;
+import com.paymentprocessor.common.util.ConsistencyToken;
+import com.paymentprocessor.payment.dto.CursorPageDto;
+import com.paymentprocessor.payment.dto.ExportFormat;
 import com.paymentprocessor.payment.dto.TransactionDetailsDto;
 import com.paymentprocessor.payment.dto.TransactionSummaryDto;
+import com.paymentprocessor.payment.projection.ProjectionWaitRegistry;
+import com.paymentprocessor.payment.query.TransactionCursor;
+import com.paymentprocessor.payment.service.TransactionExportService;
 import com.paymentprocessor.payment.service.TransactionQueryService;
+import com.paymentprocessor.payment.service.TransactionStatusStreamService;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.Parameter;
 import io.swagger.v3.oas.annotations.responses.ApiResponse;
@@ -13,11 +21,17 @@ import lombok.extern.slf4j.Slf4j;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.ContentDisposition;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
 import java.time.LocalDateTime;
 import java.util.List;
+import java.util.concurrent.CompletableFuture;
 
 @Slf4j
 @RestController
@@ -25,27 +39,68 @@ import java.util.List;
 @Tag(name = "Payment Query API", description = "Query payment transaction information")
 public class PaymentQueryController {
 
-    private final TransactionQueryService queryService;
+    private static final int MAX_CURSOR_PAGE_SIZE = 500;
 
-    public PaymentQueryController(TransactionQueryService queryService) {
+    private final TransactionQueryService queryService;
+    private final TransactionExportService exportService;
+    private final ProjectionWaitRegistry waitRegistry;
+    private final TransactionStatusStreamService statusStreamService;
+
+    public PaymentQueryController(TransactionQueryService queryService,
+                                  TransactionExportService exportService,
+                                  ProjectionWaitRegistry waitRegistry,
+                                  TransactionStatusStreamService statusStreamService) {
         this.queryService = queryService;
+        this.exportService = exportService;
+        this.waitRegistry = waitRegistry;
+        this.statusStreamService = statusStreamService;
     }
 
     @GetMapping("/{transactionId}")
     @Operation(summary = "Get transaction details", description = "Retrieve details of a specific transaction")
     @ApiResponses(value = {
             @ApiResponse(responseCode = "200", description = "Transaction found"),
+            @ApiResponse(responseCode = "400", description = "Consistency token does not match the transaction"),
             @ApiResponse(responseCode = "404", description = "Transaction not found")
     })
-    public ResponseEntity<TransactionDetailsDto> getTransaction(
-            @Parameter(description = "Transaction ID") @PathVariable String transactionId) {
+    public CompletableFuture<ResponseEntity<TransactionDetailsDto>> getTransaction(
+            @Parameter(description = "Transaction ID") @PathVariable String transactionId,
+            @Parameter(description = "Token returned when the transaction was submitted")
+            @RequestHeader(name = ConsistencyToken.HEADER, required = false) String consistencyToken) {
 
         log.info("Retrieving transaction details for: {}", transactionId);
 
-        return queryService.findByTransactionId(transactionId)
+        if (consistencyToken == null) {
+            return CompletableFuture.completedFuture(queryService.findDetailsByTransactionId(transactionId)
+                    .map(ResponseEntity::ok)
+                    .orElseThrow(() -> new TransactionNotFoundException(transactionId)));
+        }
+
+        var token = ConsistencyToken.decode(consistencyToken);
+        if (!token.transactionId().equals(transactionId)) {
+            throw new InvalidTransactionException("Consistency token was issued for a different transaction");
+        }
+        // Read past the cache: its invalidation may not have run yet when the waiter is released
+        return awaitProjection(token).thenApply(caughtUp -> queryService.findByTransactionId(transactionId)
                 .map(TransactionDetailsDto::from)
                 .map(ResponseEntity::ok)
-                .orElseThrow(() -> new TransactionNotFoundException(transactionId));
+                .orElseThrow(() -> new TransactionNotFoundException(transactionId)));
+    }
+
+    @GetMapping(value = "/{transactionId}/events", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    @Operation(summary = "Stream transaction status",
+            description = "Server-sent events for each status transition; closes once the transaction is final")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Stream opened"),
+            @ApiResponse(responseCode = "404", description = "Transaction not found"),
+            @ApiResponse(responseCode = "429", description = "Too many open streams")
+    })
+    public SseEmitter streamTransactionStatus(
+            @Parameter(description = "Transaction ID") @PathVariable String transactionId) {
+
+        log.info("Opening status stream for transaction: {}", transactionId);
+
+        return statusStreamService.subscribe(transactionId);
     }
 
     @GetMapping("/user/{userId}")
@@ -77,19 +132,48 @@ public class PaymentQueryController {
         return ResponseEntity.ok(transactions);
     }
 
+    @GetMapping("/user/{userId}/cursor")
+    @Operation(summary = "Get user transactions (cursor)", description = "Retrieve a user's transactions newest first, continuing from an opaque cursor")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Page of transactions"),
+            @ApiResponse(responseCode = "400", description = "Malformed cursor")
+    })
+    public ResponseEntity<CursorPageDto<TransactionDetailsDto>> getUserTransactionsByCursor(
+            @Parameter(description = "User ID") @PathVariable String userId,
+            @Parameter(description = "Cursor returned by the previous page") @RequestParam(required = false) String cursor,
+            @Parameter(description = "Page size") @RequestParam(defaultValue = "50") int size) {
+
+        log.info("Retrieving transactions for user: {} after cursor: {}", userId, cursor);
+
+        var pageSize = Math.clamp(size, 1, MAX_CURSOR_PAGE_SIZE);
+        var slice = queryService.findByUserIdAfterCursor(userId,
+                cursor != null && !cursor.isBlank() ? TransactionCursor.decode(cursor) : null, pageSize);
+
+        var items = slice.getContent();
+        var nextCursor = slice.hasNext() ? TransactionCursor.of(items.get(items.size() - 1)).encode() : null;
+        return ResponseEntity.ok(new CursorPageDto<>(
+                items.stream().map(TransactionDetailsDto::from).toList(), nextCursor, slice.hasNext()));
+    }
+
     @GetMapping("/user/{userId}/active")
     @Operation(summary = "Get active user transactions", description = "Retrieve active transactions for a user")
-    public ResponseEntity<List<TransactionDetailsDto>> getActiveUserTransactions(
-            @Parameter(description = "User ID") @PathVariable String userId) {
+    public CompletableFuture<ResponseEntity<List<TransactionDetailsDto>>> getActiveUserTransactions(
+            @Parameter(description = "User ID") @PathVariable String userId,
+            @Parameter(description = "Token returned when a transaction was submitted")
+            @RequestHeader(name = ConsistencyToken.HEADER, required = false) String consistencyToken) {
 
         log.info("Retrieving active transactions for user: {}", userId);
 
-        var transactions = queryService.findActiveTransactionsByUser(userId)
-                .stream()
-                .map(TransactionDetailsDto::from)
-                .toList();
+        if (consistencyToken == null) {
+            return CompletableFuture.completedFuture(
+                    ResponseEntity.ok(queryService.findActiveTransactionDetailsByUser(userId)));
+        }
 
-        return ResponseEntity.ok(transactions);
+        return awaitProjection(ConsistencyToken.decode(consistencyToken))
+                .thenApply(caughtUp -> ResponseEntity.ok(queryService.findActiveTransactionsByUser(userId)
+                        .stream()
+                        .map(TransactionDetailsDto::from)
+                        .toList()));
     }
 
     @GetMapping("/date-range")
@@ -110,6 +194,30 @@ public class PaymentQueryController {
         return ResponseEntity.ok(transactions);
     }
 
+    @GetMapping("/export")
+    @Operation(summary = "Export transactions by date range", description = "Stream transactions within a date range as NDJSON or CSV")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Export stream"),
+            @ApiResponse(responseCode = "400", description = "Unsupported format")
+    })
+    public ResponseEntity<StreamingResponseBody> exportTransactions(
+            @Parameter(description = "Start date")
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime startDate,
+            @Parameter(description = "End date")
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime endDate,
+            @Parameter(description = "ndjson or csv") @RequestParam(defaultValue = "ndjson") String format) {
+
+        log.info("Exporting transactions from {} to {} as {}", startDate, endDate, format);
+
+        var exportFormat = ExportFormat.from(format);
+        StreamingResponseBody body = out -> exportService.export(startDate, endDate, exportFormat, out);
+        return ResponseEntity.ok()
+                .contentType(MediaType.parseMediaType(exportFormat.contentType()))
+                .header(HttpHeaders.CONTENT_DISPOSITION, ContentDisposition.attachment()
+                        .filename("transactions." + exportFormat.fileExtension()).build().toString())
+                .body(body);
+    }
+
     @GetMapping("/summary")
     @Operation(summary = "Get transaction summary", description = "Retrieve transaction statistics summary")
     public ResponseEntity<TransactionSummaryDto> getTransactionSummary() {
@@ -119,6 +227,18 @@ public class PaymentQueryController {
         return ResponseEntity.ok(summary);
     }
 
+    // On timeout the current, possibly stale, read model is served rather than an error
+    private CompletableFuture<Boolean> awaitProjection(ConsistencyToken token) {
+        return waitRegistry.awaitVersion(token.transactionId(), token.minVersion(),
+                        () -> queryService.findProjectedVersion(token.transactionId()))
+                .whenComplete((caughtUp, failure) -> {
+                    if (Boolean.FALSE.equals(caughtUp)) {
+                        log.warn("Projection did not reach version {} of transaction {} in time",
+                                token.minVersion(), token.transactionId());
+                    }
+                });
+    }
+
     @GetMapping("/health")
     @Operation(summary = "Health check", description = "Check payment service health")
     public ResponseEntity<String> healthCheck() {
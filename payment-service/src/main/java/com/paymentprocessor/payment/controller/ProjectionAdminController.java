@@ -0,0 +1,45 @@
+package com.paymentprocessor.payment.controller;
+
+import com.paymentprocessor.payment.projection.ProjectionRebuildStatus;
+import com.paymentprocessor.payment.projection.TransactionProjectionRebuilder;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
+import io.swagger.v3.oas.annotations.responses.ApiResponses;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+@Slf4j
+@RestController
+@RequestMapping("/api/v1/admin/projections")
+@Tag(name = "Projection Admin API", description = "Maintain the payment read models")
+public class ProjectionAdminController {
+
+    private final TransactionProjectionRebuilder rebuilder;
+
+    public ProjectionAdminController(TransactionProjectionRebuilder rebuilder) {
+        this.rebuilder = rebuilder;
+    }
+
+    @PostMapping("/transactions/rebuild")
+    @Operation(summary = "Rebuild transaction read model", description = "Replay the event store into a fresh transaction read model")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "202", description = "Rebuild started"),
+            @ApiResponse(responseCode = "409", description = "A rebuild is already running")
+    })
+    public ResponseEntity<ProjectionRebuildStatus> rebuildTransactions() {
+        log.info("Projection rebuild requested for transaction read model");
+
+        var started = rebuilder.startRebuild();
+        return ResponseEntity.status(started ? HttpStatus.ACCEPTED : HttpStatus.CONFLICT)
+                .body(rebuilder.getStatus());
+    }
+
+    @GetMapping("/transactions/rebuild")
+    @Operation(summary = "Get rebuild status", description = "Progress and outcome of the latest read model rebuild")
+    public ResponseEntity<ProjectionRebuildStatus> getRebuildStatus() {
+        return ResponseEntity.ok(rebuilder.getStatus());
+    }
+}
@@ -0,0 +1,55 @@
+package com.paymentprocessor.payment.controller;
+
+import com.paymentprocessor.common.model.Currency;
+import com.paymentprocessor.common.model.PaymentMethod;
+import com.paymentprocessor.common.model.TransactionStatus;
+import com.paymentprocessor.payment.dto.TransactionRollupDto;
+import com.paymentprocessor.payment.query.RollupGranularity;
+import com.paymentprocessor.payment.service.TransactionQueryService;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.Parameter;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+@Slf4j
+@RestController
+@RequestMapping("/api/v1/payments/analytics")
+@Tag(name = "Payment Analytics API", description = "Pre-aggregated transaction volume and amounts")
+public class TransactionAnalyticsController {
+
+    private final TransactionQueryService queryService;
+
+    public TransactionAnalyticsController(TransactionQueryService queryService) {
+        this.queryService = queryService;
+    }
+
+    @GetMapping("/{granularity}")
+    @Operation(summary = "Get transaction rollups",
+            description = "Transaction count and amount per hourly or daily bucket, status, currency and payment method")
+    public ResponseEntity<List<TransactionRollupDto>> getRollups(
+            @Parameter(description = "hourly or daily") @PathVariable String granularity,
+            @Parameter(description = "Start of the first bucket (inclusive)")
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime startDate,
+            @Parameter(description = "End of the range (exclusive)")
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime endDate,
+            @Parameter(description = "Status filter") @RequestParam(required = false) TransactionStatus status,
+            @Parameter(description = "Currency filter") @RequestParam(required = false) Currency currency,
+            @Parameter(description = "Payment method filter") @RequestParam(required = false) PaymentMethod paymentMethod) {
+
+        log.info("Retrieving {} rollups from {} to {}", granularity, startDate, endDate);
+
+        var rollups = queryService.findRollups(RollupGranularity.from(granularity), startDate, endDate,
+                        status, currency, paymentMethod)
+                .stream()
+                .map(TransactionRollupDto::from)
+                .toList();
+
+        return ResponseEntity.ok(rollups);
+    }
+}
@@ -0,0 +1,11 @@
+package com.paymentprocessor.payment.dto;
+
+import com.fasterxml.jackson.annotation.JsonProperty;
+
+import java.util.List;
+
+public record CursorPageDto<T>(
+        @JsonProperty("items") List<T> items,
+        @JsonProperty("nextCursor") String nextCursor,
+        @JsonProperty("hasNext") boolean hasNext
+) {}
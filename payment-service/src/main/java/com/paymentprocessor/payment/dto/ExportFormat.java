@@ -0,0 +1,33 @@
+package com.paymentprocessor.payment.dto;
+
+import com.paymentprocessor.common.exception.InvalidTransactionException;
+
+public enum ExportFormat {
+    NDJSON("application/x-ndjson", "ndjson"),
+    CSV("text/csv", "csv");
+
+    private final String contentType;
+    private final String fileExtension;
+
+    ExportFormat(String contentType, String fileExtension) {
+        this.contentType = contentType;
+        this.fileExtension = fileExtension;
+    }
+
+    public String contentType() {
+        return contentType;
+    }
+
+    public String fileExtension() {
+        return fileExtension;
+    }
+
+    public static ExportFormat from(String value) {
+        for (var format : values()) {
+            if (format.fileExtension.equalsIgnoreCase(value)) {
+                return format;
+            }
+        }
+        throw new InvalidTransactionException("unsupported export format: " + value);
+    }
+}
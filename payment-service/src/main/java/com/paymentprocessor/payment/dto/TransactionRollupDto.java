@@ -0,0 +1,30 @@
+package com.paymentprocessor.payment.dto;
+
+import com.fasterxml.jackson.annotation.JsonProperty;
+import com.paymentprocessor.common.model.Currency;
+import com.paymentprocessor.common.model.PaymentMethod;
+import com.paymentprocessor.common.model.TransactionStatus;
+import com.paymentprocessor.payment.query.TransactionRollup;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+public record TransactionRollupDto(
+        @JsonProperty("bucketStart") LocalDateTime bucketStart,
+        @JsonProperty("status") TransactionStatus status,
+        @JsonProperty("currency") Currency currency,
+        @JsonProperty("paymentMethod") PaymentMethod paymentMethod,
+        @JsonProperty("transactionCount") long transactionCount,
+        @JsonProperty("totalAmount") BigDecimal totalAmount
+) {
+    public static TransactionRollupDto from(TransactionRollup rollup) {
+        return new TransactionRollupDto(
+                rollup.bucketStart(),
+                rollup.status(),
+                rollup.currency(),
+                rollup.paymentMethod(),
+                rollup.transactionCount(),
+                rollup.totalAmount()
+        );
+    }
+}
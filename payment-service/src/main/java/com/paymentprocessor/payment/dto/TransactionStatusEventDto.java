@@ -0,0 +1,31 @@
+package com.paymentprocessor.payment.dto;
+
+import com.fasterxml.jackson.annotation.JsonProperty;
+import com.paymentprocessor.common.model.TransactionStatus;
+import com.paymentprocessor.payment.projection.ProjectionUpdate;
+import com.paymentprocessor.payment.query.TransactionReadModel;
+
+public record TransactionStatusEventDto(
+        @JsonProperty("transactionId") String transactionId,
+        @JsonProperty("previousStatus") TransactionStatus previousStatus,
+        @JsonProperty("status") TransactionStatus status,
+        @JsonProperty("version") long version
+) {
+    public static TransactionStatusEventDto from(ProjectionUpdate update) {
+        return new TransactionStatusEventDto(
+                update.transactionId(),
+                update.previousStatus(),
+                update.status(),
+                update.version()
+        );
+    }
+
+    public static TransactionStatusEventDto from(TransactionReadModel readModel) {
+        return new TransactionStatusEventDto(
+                readModel.getTransactionId(),
+                null,
+                readModel.getStatus(),
+                readModel.getVersion()
+        );
+    }
+}
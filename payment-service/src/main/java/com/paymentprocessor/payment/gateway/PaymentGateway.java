@@ -0,0 +1,11 @@
+package com.paymentprocessor.payment.gateway;
+
+import java.util.concurrent.CompletableFuture;
+
+public interface PaymentGateway {
+
+    // Completes with the gateway's transaction ID, or exceptionally when the payment is declined or fails.
+    // Idempotent per transaction ID: authorizing a transaction again returns its original outcome and
+    // never charges twice, which is what lets an unanswered payment be safely resumed.
+    CompletableFuture<String> authorize(PaymentGatewayRequest request);
+}
@@ -0,0 +1,15 @@
+package com.paymentprocessor.payment.gateway;
+
+import com.paymentprocessor.payment.command.ProcessPaymentCommand;
+
+import java.math.BigDecimal;
+
+public record PaymentGatewayRequest(
+        String transactionId,
+        BigDecimal amount,
+        String paymentGateway
+) {
+    public static PaymentGatewayRequest from(ProcessPaymentCommand command) {
+        return new PaymentGatewayRequest(command.transactionId(), command.amount(), command.paymentGateway());
+    }
+}
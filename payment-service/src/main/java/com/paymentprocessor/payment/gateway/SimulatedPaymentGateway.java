@@ -0,0 +1,113 @@
+package com.paymentprocessor.payment.gateway;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.paymentprocessor.common.exception.PaymentProcessingFailedException;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+// In-process gateway for local runs and load tests. Latency is simulated by scheduling the
+// completion instead of sleeping, so thousands of in-flight payments share a couple of threads.
+@Slf4j
+@Component
+@ConditionalOnProperty(name = "payment.gateway.mode", havingValue = "simulated", matchIfMissing = true)
+public class SimulatedPaymentGateway implements PaymentGateway {
+
+    // Like a real gateway's idempotency keys, outcomes are remembered for a while, not forever
+    private static final int MAX_REMEMBERED_AUTHORIZATIONS = 100_000;
+    private static final Duration AUTHORIZATION_RETENTION = Duration.ofHours(24);
+
+    private final ScheduledThreadPoolExecutor scheduler;
+    private final long minLatencyMicros;
+    private final long maxLatencyMicros;
+    private final double slowCallRate;
+    private final long slowCallLatencyMicros;
+    private final double failureRate;
+    private final double hangRate;
+    private final Cache<String, CompletableFuture<String>> authorizations = Caffeine.newBuilder()
+            .maximumSize(MAX_REMEMBERED_AUTHORIZATIONS)
+            .expireAfterWrite(AUTHORIZATION_RETENTION)
+            .build();
+
+    public SimulatedPaymentGateway(
+            @Value("${payment.gateway.simulator.min-latency:50ms}") Duration minLatency,
+            @Value("${payment.gateway.simulator.max-latency:150ms}") Duration maxLatency,
+            @Value("${payment.gateway.simulator.slow-call-rate:0.01}") double slowCallRate,
+            @Value("${payment.gateway.simulator.slow-call-latency:2s}") Duration slowCallLatency,
+            @Value("${payment.gateway.simulator.failure-rate:0.1}") double failureRate,
+            @Value("${payment.gateway.simulator.hang-rate:0.0}") double hangRate,
+            @Value("${payment.gateway.simulator.scheduler-threads:2}") int schedulerThreads) {
+        if (maxLatency.compareTo(minLatency) < 0) {
+            throw new IllegalArgumentException("Maximum gateway latency must not be below the minimum");
+        }
+        this.minLatencyMicros = toMicros(minLatency);
+        this.maxLatencyMicros = toMicros(maxLatency);
+        this.slowCallRate = slowCallRate;
+        this.slowCallLatencyMicros = toMicros(slowCallLatency);
+        this.failureRate = failureRate;
+        this.hangRate = hangRate;
+
+        this.scheduler = new ScheduledThreadPoolExecutor(schedulerThreads,
+                new CustomizableThreadFactory("GatewaySimulator-"));
+        this.scheduler.setRemoveOnCancelPolicy(true);
+    }
+
+    @Override
+    public CompletableFuture<String> authorize(PaymentGatewayRequest request) {
+        var result = new CompletableFuture<String>();
+        var existing = authorizations.asMap().putIfAbsent(request.transactionId(), result);
+        if (existing != null) {
+            // Same transaction again: answer with the original outcome instead of charging twice
+            return existing;
+        }
+        var random = ThreadLocalRandom.current();
+
+        if (random.nextDouble() < hangRate) {
+            // Never answered; the caller's timeout is expected to fire. Forgotten so that a later
+            // attempt, like a reconciliation, gets a real answer.
+            log.debug("Simulating unresponsive gateway for transaction: {}", request.transactionId());
+            authorizations.asMap().remove(request.transactionId(), result);
+            return result;
+        }
+
+        boolean fail = random.nextDouble() < failureRate;
+        scheduler.schedule(() -> {
+            if (fail) {
+                result.completeExceptionally(new PaymentProcessingFailedException("Payment gateway declined the payment"));
+            } else {
+                result.complete("GW-" + System.currentTimeMillis());
+            }
+        }, nextLatencyMicros(random), TimeUnit.MICROSECONDS);
+
+        return result;
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        scheduler.shutdownNow();
+    }
+
+    private long nextLatencyMicros(ThreadLocalRandom random) {
+        long latency = minLatencyMicros == maxLatencyMicros
+                ? minLatencyMicros
+                : random.nextLong(minLatencyMicros, maxLatencyMicros + 1);
+        if (random.nextDouble() < slowCallRate) {
+            latency += slowCallLatencyMicros;
+        }
+        return latency;
+    }
+
+    private static long toMicros(Duration duration) {
+        return TimeUnit.NANOSECONDS.toMicros(duration.toNanos());
+    }
+}
@@ -2,7 +2,7 @@ package com.paymentprocessor.payment.listener;
 
 import com.paymentprocessor.common.event.TransactionCreatedEvent;
 import com.paymentprocessor.payment.command.CreateTransactionCommand;
-import com.paymentprocessor.payment.service.TransactionCommandService;
+import com.paymentprocessor.payment.service.CommandDispatcher;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.kafka.annotation.KafkaListener;
 import org.springframework.stereotype.Component;
@@ -11,10 +11,10 @@ import org.springframework.stereotype.Component;
 @Component
 public class TransactionEventListener {
 
-    private final TransactionCommandService commandService;
+    private final CommandDispatcher commandDispatcher;
 
-    public TransactionEventListener(TransactionCommandService commandService) {
-        this.commandService = commandService;
+    public TransactionEventListener(CommandDispatcher commandDispatcher) {
+        this.commandDispatcher = commandDispatcher;
     }
 
     @KafkaListener(topics = "transaction-created", groupId = "payment-service")
@@ -29,7 +29,7 @@ public class TransactionEventListener {
                     event.paymentMethod(),
                     event.description()
             );
-            commandService.handle(command);
+            commandDispatcher.execute(command);
 
             log.info("Successfully processed TransactionCreatedEvent for transaction: {}",
                     event.transactionId());
@@ -0,0 +1,100 @@
+package com.paymentprocessor.payment.outbox;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.paymentprocessor.common.event.BaseEvent;
+import com.paymentprocessor.common.exception.PaymentProcessingFailedException;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+@Slf4j
+@Repository
+public class JdbcOutboxRepository {
+
+    private static final String INSERT_MESSAGE_SQL = """
+            INSERT INTO outbox (topic, message_key, event_type, payload, sequence_number, created_at)
+            VALUES (?, ?, ?, ?::jsonb, ?, ?)
+            """;
+
+    // Held until the relay's transaction ends. Only one instance may drain at a time: concurrent
+    // relays would send different id ranges in parallel, and two events for one transaction could
+    // then reach Kafka out of order, which consumers drop as already applied.
+    private static final String TRY_LOCK_RELAY_SQL = """
+            SELECT pg_try_advisory_xact_lock(?)
+            """;
+
+    private static final String SELECT_NEXT_BATCH_SQL = """
+            SELECT id, topic, message_key, payload, sequence_number
+            FROM outbox
+            ORDER BY id ASC
+            LIMIT ?
+            """;
+
+    private static final String DELETE_MESSAGES_SQL = """
+            DELETE FROM outbox
+            WHERE id = ANY(?)
+            """;
+
+    private static final long RELAY_LOCK_ID = 0x6f7574626f78L; // "outbox"
+
+    private final JdbcTemplate jdbcTemplate;
+    private final ObjectMapper objectMapper;
+
+    public JdbcOutboxRepository(JdbcTemplate jdbcTemplate, ObjectMapper objectMapper) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.objectMapper = objectMapper;
+    }
+
+    public void append(List<OutboxMessage> messages) {
+        if (messages.isEmpty()) {
+            return;
+        }
+
+        var batchArgs = new ArrayList<Object[]>(messages.size());
+        var now = LocalDateTime.now();
+        for (var message : messages) {
+            try {
+                batchArgs.add(new Object[]{message.topic(), message.messageKey(), message.event().eventType(),
+                        objectMapper.writeValueAsString(message.event()), message.sequenceNumber(), now});
+            } catch (JsonProcessingException e) {
+                log.error("Failed to serialize outbox message for transaction: {}", message.messageKey(), e);
+                throw new PaymentProcessingFailedException("Failed to serialize outbox message", e);
+            }
+        }
+        jdbcTemplate.batchUpdate(INSERT_MESSAGE_SQL, batchArgs);
+    }
+
+    // Must run inside a transaction; false when another relay is draining
+    public boolean tryLockRelay() {
+        return Boolean.TRUE.equals(jdbcTemplate.queryForObject(TRY_LOCK_RELAY_SQL, Boolean.class, RELAY_LOCK_ID));
+    }
+
+    // Only call while holding the relay lock
+    public List<OutboxMessage> nextBatch(int batchSize) {
+        return jdbcTemplate.query(SELECT_NEXT_BATCH_SQL, this::mapRowToMessage, batchSize);
+    }
+
+    public int delete(List<OutboxMessage> messages) {
+        var ids = messages.stream().map(OutboxMessage::id).toArray(Long[]::new);
+        return jdbcTemplate.update(DELETE_MESSAGES_SQL,
+                ps -> ps.setArray(1, ps.getConnection().createArrayOf("bigint", ids)));
+    }
+
+    private OutboxMessage mapRowToMessage(ResultSet rs, int rowNum) throws SQLException {
+        try {
+            var event = objectMapper.readValue(rs.getString("payload"), BaseEvent.class);
+            return new OutboxMessage(rs.getLong("id"), rs.getString("topic"), rs.getString("message_key"), event,
+                    rs.getLong("sequence_number"));
+        } catch (JsonProcessingException e) {
+            log.error("Failed to deserialize outbox message {}", rs.getLong("id"), e);
+            throw new PaymentProcessingFailedException("Failed to deserialize outbox message", e);
+        }
+    }
+}
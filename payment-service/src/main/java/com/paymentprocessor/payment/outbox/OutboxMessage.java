@@ -0,0 +1,16 @@
+package com.paymentprocessor.payment.outbox;
+
+import com.paymentprocessor.common.event.BaseEvent;
+
+public record OutboxMessage(
+        long id,
+        String topic,
+        String messageKey,
+        BaseEvent event,
+        // The event's domain_events.sequence_number; 0 for rows written before it was recorded
+        long sequenceNumber
+) {
+    public static OutboxMessage pending(String topic, BaseEvent event, long sequenceNumber) {
+        return new OutboxMessage(0L, topic, event.transactionId(), event, sequenceNumber);
+    }
+}
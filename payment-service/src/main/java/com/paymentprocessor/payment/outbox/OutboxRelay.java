@@ -0,0 +1,73 @@
+package com.paymentprocessor.payment.outbox;
+
+import com.paymentprocessor.payment.publisher.EventPublisher;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+@Slf4j
+@Component
+@ConditionalOnProperty(name = "payment.outbox.relay.enabled", havingValue = "true", matchIfMissing = true)
+public class OutboxRelay {
+
+    private final JdbcOutboxRepository outboxRepository;
+    private final EventPublisher eventPublisher;
+    private final TransactionTemplate transactionTemplate;
+    private final int batchSize;
+    private final long sendTimeoutMillis;
+
+    public OutboxRelay(JdbcOutboxRepository outboxRepository,
+                       EventPublisher eventPublisher,
+                       TransactionTemplate transactionTemplate,
+                       @Value("${payment.outbox.relay.batch-size:500}") int batchSize,
+                       @Value("${payment.outbox.relay.send-timeout:30000}") long sendTimeoutMillis) {
+        this.outboxRepository = outboxRepository;
+        this.eventPublisher = eventPublisher;
+        this.transactionTemplate = transactionTemplate;
+        this.batchSize = batchSize;
+        this.sendTimeoutMillis = sendTimeoutMillis;
+    }
+
+    @Scheduled(fixedDelayString = "${payment.outbox.relay.poll-interval:200}")
+    public void relayPendingMessages() {
+        try {
+            // Keep draining while batches come back full instead of waiting for the next poll
+            int relayed;
+            do {
+                relayed = transactionTemplate.execute(status -> relayNextBatch());
+            } while (relayed == batchSize);
+        } catch (Exception e) {
+            // Rows stay in the outbox and are retried on the next poll
+            log.error("Failed to relay outbox messages", e);
+        }
+    }
+
+    private int relayNextBatch() {
+        if (!outboxRepository.tryLockRelay()) {
+            // Another instance is draining; the outbox is picked up again on the next poll
+            return 0;
+        }
+        var messages = outboxRepository.nextBatch(batchSize);
+        if (messages.isEmpty()) {
+            return 0;
+        }
+
+        // Hand the whole batch to the producer before waiting, so it can fill its record batches
+        var sends = messages.stream()
+                .map(message -> eventPublisher.publishAsync(message.topic(), message.messageKey(),
+                        message.event(), message.sequenceNumber()))
+                .toArray(CompletableFuture[]::new);
+        eventPublisher.flush();
+        CompletableFuture.allOf(sends).orTimeout(sendTimeoutMillis, TimeUnit.MILLISECONDS).join();
+
+        outboxRepository.delete(messages);
+        log.debug("Relayed {} outbox messages", messages.size());
+        return messages.size();
+    }
+}
@@ -0,0 +1,86 @@
+package com.paymentprocessor.payment.projection;
+
+import org.apache.kafka.common.TopicPartition;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.Map;
+
+// Last Kafka offset applied to the read model per partition. Written in the same transaction as
+// the read model rows, so the two can never disagree the way a separate offset commit can.
+@Repository
+public class JdbcProjectionCheckpointStore {
+
+    public static final long NO_OFFSET = -1L;
+
+    private static final String INSERT_IF_MISSING_SQL = """
+            INSERT INTO projection_checkpoints (projection_name, topic, partition_id, last_offset, updated_at)
+            VALUES (?, ?, ?, -1, ?)
+            ON CONFLICT (projection_name, topic, partition_id) DO NOTHING
+            """;
+
+    private static final String LOCK_OFFSET_SQL = """
+            SELECT last_offset
+            FROM projection_checkpoints
+            WHERE projection_name = ? AND topic = ? AND partition_id = ?
+            FOR UPDATE
+            """;
+
+    private static final String FIND_OFFSET_SQL = """
+            SELECT last_offset
+            FROM projection_checkpoints
+            WHERE projection_name = ? AND topic = ? AND partition_id = ?
+            """;
+
+    private static final String SAVE_OFFSET_SQL = """
+            UPDATE projection_checkpoints
+            SET last_offset = ?, updated_at = ?
+            WHERE projection_name = ? AND topic = ? AND partition_id = ? AND last_offset < ?
+            """;
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public JdbcProjectionCheckpointStore(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    // Must run inside a transaction. The row locks make a consumer that lost the partition in a
+    // rebalance and its successor take turns, and the second one sees the first one's offsets.
+    public Map<TopicPartition, Long> lockOffsets(String projectionName, Collection<TopicPartition> partitions) {
+        var now = LocalDateTime.now();
+        var sorted = new ArrayList<>(partitions);
+        // Fixed lock order so two consumers can never deadlock on each other's partitions
+        sorted.sort(Comparator.comparing(TopicPartition::topic).thenComparingInt(TopicPartition::partition));
+
+        var offsets = new HashMap<TopicPartition, Long>(sorted.size());
+        for (var partition : sorted) {
+            jdbcTemplate.update(INSERT_IF_MISSING_SQL, projectionName, partition.topic(), partition.partition(), now);
+            offsets.put(partition, jdbcTemplate.queryForObject(LOCK_OFFSET_SQL, Long.class,
+                    projectionName, partition.topic(), partition.partition()));
+        }
+        return offsets;
+    }
+
+    public Map<TopicPartition, Long> findOffsets(String projectionName, Collection<TopicPartition> partitions) {
+        var offsets = new HashMap<TopicPartition, Long>(partitions.size());
+        for (var partition : partitions) {
+            var stored = jdbcTemplate.queryForList(FIND_OFFSET_SQL, Long.class,
+                    projectionName, partition.topic(), partition.partition());
+            offsets.put(partition, stored.isEmpty() ? NO_OFFSET : stored.get(0));
+        }
+        return offsets;
+    }
+
+    public void saveOffsets(String projectionName, Map<TopicPartition, Long> offsets) {
+        var now = LocalDateTime.now();
+        var batchArgs = new ArrayList<Object[]>(offsets.size());
+        offsets.forEach((partition, offset) -> batchArgs.add(new Object[]{
+                offset, now, projectionName, partition.topic(), partition.partition(), offset}));
+        jdbcTemplate.batchUpdate(SAVE_OFFSET_SQL, batchArgs);
+    }
+}
@@ -0,0 +1,130 @@
+package com.paymentprocessor.payment.projection;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.postgresql.PGConnection;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.List;
+
+// LISTENs for projection notifications on a dedicated connection and hands them to every
+// ProjectionUpdateListener on this instance. Whichever instance owns a Kafka partition, all
+// instances see the change.
+@Slf4j
+@Component
+@ConditionalOnProperty(name = "payment.projection.notifications.enabled", havingValue = "true", matchIfMissing = true)
+public class PostgresProjectionUpdateSubscriber {
+
+    private static final int POLL_TIMEOUT_MILLIS = 500;
+    private static final long RECONNECT_BACKOFF_MILLIS = 1000;
+
+    private final DataSource dataSource;
+    private final ProjectionUpdateNotifier notifier;
+    private final List<ProjectionUpdateListener> listeners;
+    private final Thread listenerThread;
+    private volatile boolean running = true;
+
+    public PostgresProjectionUpdateSubscriber(DataSource dataSource,
+                                              ProjectionUpdateNotifier notifier,
+                                              List<ProjectionUpdateListener> listeners,
+                                              @Value("${spring.application.name:payment-service}") String applicationName) {
+        this.dataSource = dataSource;
+        this.notifier = notifier;
+        this.listeners = listeners;
+        this.listenerThread = new Thread(this::run, applicationName + "-projection-notifications");
+        this.listenerThread.setDaemon(true);
+    }
+
+    @PostConstruct
+    public void start() {
+        listenerThread.start();
+    }
+
+    @PreDestroy
+    public void stop() throws InterruptedException {
+        running = false;
+        listenerThread.interrupt();
+        listenerThread.join(POLL_TIMEOUT_MILLIS * 2L);
+    }
+
+    private void run() {
+        while (running) {
+            try (var connection = dataSource.getConnection()) {
+                listen(connection);
+                // Anything committed while we were not listening is lost; make listeners start over
+                dispatchReset();
+                receive(connection.unwrap(PGConnection.class));
+            } catch (SQLException e) {
+                if (!running) {
+                    return;
+                }
+                log.warn("Projection notification connection failed, reconnecting", e);
+                sleepBeforeReconnect();
+            }
+        }
+    }
+
+    private void listen(Connection connection) throws SQLException {
+        connection.setAutoCommit(true);
+        try (var statement = connection.createStatement()) {
+            statement.execute("LISTEN " + ProjectionUpdateNotifier.UPDATES_CHANNEL);
+            statement.execute("LISTEN " + ProjectionUpdateNotifier.RESET_CHANNEL);
+        }
+        log.info("Listening for projection notifications");
+    }
+
+    private void receive(PGConnection connection) throws SQLException {
+        while (running) {
+            var notifications = connection.getNotifications(POLL_TIMEOUT_MILLIS);
+            if (notifications == null) {
+                continue;
+            }
+            for (var notification : notifications) {
+                if (ProjectionUpdateNotifier.RESET_CHANNEL.equals(notification.getName())) {
+                    dispatchReset();
+                    continue;
+                }
+                try {
+                    dispatch(notifier.decode(notification.getParameter()));
+                } catch (RuntimeException e) {
+                    log.error("Dropping unreadable projection notification", e);
+                }
+            }
+        }
+    }
+
+    private void dispatch(List<ProjectionUpdate> updates) {
+        for (var listener : listeners) {
+            try {
+                listener.onTransactionsProjected(updates);
+            } catch (Exception e) {
+                log.error("Projection update listener {} failed", listener.getClass().getSimpleName(), e);
+            }
+        }
+    }
+
+    private void dispatchReset() {
+        for (var listener : listeners) {
+            try {
+                listener.onReadModelReset();
+            } catch (Exception e) {
+                log.error("Projection update listener {} failed to reset", listener.getClass().getSimpleName(), e);
+            }
+        }
+    }
+
+    private void sleepBeforeReconnect() {
+        try {
+            Thread.sleep(RECONNECT_BACKOFF_MILLIS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            running = false;
+        }
+    }
+}
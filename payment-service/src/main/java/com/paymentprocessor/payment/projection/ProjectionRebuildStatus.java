@@ -0,0 +1,18 @@
+package com.paymentprocessor.payment.projection;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+
+public record ProjectionRebuildStatus(
+        boolean running,
+        LocalDateTime lastStartedAt,
+        LocalDateTime lastCompletedAt,
+        Long eventsReplayed,
+        Long transactionsWritten,
+        Duration lastDuration,
+        String lastError
+) {
+    public static ProjectionRebuildStatus idle() {
+        return new ProjectionRebuildStatus(false, null, null, null, null, null, null);
+    }
+}
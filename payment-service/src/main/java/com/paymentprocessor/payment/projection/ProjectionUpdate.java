@@ -0,0 +1,22 @@
+package com.paymentprocessor.payment.projection;
+
+import com.paymentprocessor.common.model.TransactionStatus;
+import com.paymentprocessor.payment.query.TransactionReadModel;
+
+// A committed change to one transaction_read_model row
+public record ProjectionUpdate(
+        String transactionId,
+        String userId,
+        TransactionStatus previousStatus,
+        TransactionStatus status,
+        long version
+) {
+    public static ProjectionUpdate of(TransactionStatus previousStatus, TransactionReadModel readModel) {
+        return new ProjectionUpdate(readModel.getTransactionId(), readModel.getUserId(),
+                previousStatus, readModel.getStatus(), readModel.getVersion());
+    }
+
+    public boolean statusChanged() {
+        return previousStatus != status;
+    }
+}
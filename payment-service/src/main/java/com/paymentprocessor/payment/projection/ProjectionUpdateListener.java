@@ -0,0 +1,14 @@
+package com.paymentprocessor.payment.projection;
+
+import java.util.List;
+
+// Told about read model changes on every instance, and only once they are committed. Called on
+// the notification thread, so implementations must not block.
+public interface ProjectionUpdateListener {
+
+    void onTransactionsProjected(List<ProjectionUpdate> updates);
+
+    // The whole read model was replaced, or notifications may have been missed
+    default void onReadModelReset() {
+    }
+}
@@ -0,0 +1,80 @@
+package com.paymentprocessor.payment.projection;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.paymentprocessor.common.exception.PaymentProcessingFailedException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+
+// Publishes read model changes with pg_notify from inside the projection transaction. PostgreSQL
+// delivers them to every listening instance when, and only if, that transaction commits, so a
+// listener can never see a change that is not yet readable.
+@Component
+public class ProjectionUpdateNotifier {
+
+    static final String UPDATES_CHANNEL = "transaction_read_model_updates";
+    static final String RESET_CHANNEL = "transaction_read_model_reset";
+
+    // NOTIFY payloads must stay under 8000 bytes
+    private static final int MAX_PAYLOAD_BYTES = 7000;
+
+    private static final String NOTIFY_SQL = "SELECT pg_notify(?, ?)";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final ObjectMapper objectMapper;
+
+    public ProjectionUpdateNotifier(JdbcTemplate jdbcTemplate, ObjectMapper objectMapper) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.objectMapper = objectMapper;
+    }
+
+    public void notifyUpdates(List<ProjectionUpdate> updates) {
+        for (var payload : encode(updates)) {
+            jdbcTemplate.query(NOTIFY_SQL, rs -> {}, UPDATES_CHANNEL, payload);
+        }
+    }
+
+    public void notifyReset() {
+        jdbcTemplate.query(NOTIFY_SQL, rs -> {}, RESET_CHANNEL, "");
+    }
+
+    List<String> encode(List<ProjectionUpdate> updates) {
+        var payloads = new ArrayList<String>();
+        var chunk = new ArrayList<ProjectionUpdate>();
+        int chunkBytes = 2;
+        for (var update : updates) {
+            int updateBytes = toJson(update).getBytes(StandardCharsets.UTF_8).length + 1;
+            if (!chunk.isEmpty() && chunkBytes + updateBytes > MAX_PAYLOAD_BYTES) {
+                payloads.add(toJson(chunk));
+                chunk = new ArrayList<>();
+                chunkBytes = 2;
+            }
+            chunk.add(update);
+            chunkBytes += updateBytes;
+        }
+        if (!chunk.isEmpty()) {
+            payloads.add(toJson(chunk));
+        }
+        return payloads;
+    }
+
+    List<ProjectionUpdate> decode(String payload) {
+        try {
+            return List.of(objectMapper.readValue(payload, ProjectionUpdate[].class));
+        } catch (JsonProcessingException e) {
+            throw new PaymentProcessingFailedException("Failed to deserialize projection update notification", e);
+        }
+    }
+
+    private String toJson(Object value) {
+        try {
+            return objectMapper.writeValueAsString(value);
+        } catch (JsonProcessingException e) {
+            throw new PaymentProcessingFailedException("Failed to serialize projection update notification", e);
+        }
+    }
+}
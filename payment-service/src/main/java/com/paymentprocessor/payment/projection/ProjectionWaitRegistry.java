@@ -0,0 +1,100 @@
+package com.paymentprocessor.payment.projection;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.Executor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.LongSupplier;
+
+// Lets a query wait for the projection to reach a given version of a transaction without
+// polling: the future is completed by the commit notification that carries that version.
+@Slf4j
+@Component
+public class ProjectionWaitRegistry implements ProjectionUpdateListener {
+
+    private record Waiter(long minVersion, CompletableFuture<Boolean> future) {}
+
+    private final Map<String, List<Waiter>> waiters = new ConcurrentHashMap<>();
+    private final AtomicInteger waiterCount = new AtomicInteger();
+    private final Executor continuationExecutor;
+    private final Duration timeout;
+    private final int maxWaiters;
+
+    public ProjectionWaitRegistry(@Qualifier("queryContinuationExecutor") Executor continuationExecutor,
+                                  @Value("${payment.query.consistency.wait-timeout:5s}") Duration timeout,
+                                  @Value("${payment.query.consistency.max-waiters:10000}") int maxWaiters) {
+        this.continuationExecutor = continuationExecutor;
+        this.timeout = timeout;
+        this.maxWaiters = maxWaiters;
+    }
+
+    // Completes with true once the projected version reaches minVersion, or false on timeout.
+    // Continuations run on the query executor, never on the notification thread.
+    public CompletableFuture<Boolean> awaitVersion(String transactionId, long minVersion, LongSupplier currentVersion) {
+        if (currentVersion.getAsLong() >= minVersion) {
+            return CompletableFuture.completedFuture(true);
+        }
+        if (waiterCount.incrementAndGet() > maxWaiters) {
+            waiterCount.decrementAndGet();
+            log.warn("Too many consistency waiters, not waiting for transaction: {}", transactionId);
+            return CompletableFuture.completedFuture(false);
+        }
+
+        var waiter = new Waiter(minVersion, new CompletableFuture<>());
+        waiters.compute(transactionId, (id, list) -> {
+            var updated = list != null ? list : new CopyOnWriteArrayList<Waiter>();
+            updated.add(waiter);
+            return updated;
+        });
+        waiter.future().whenComplete((satisfied, failure) -> remove(transactionId, waiter));
+
+        // The version may have been committed between the first read and the registration
+        if (currentVersion.getAsLong() >= minVersion) {
+            waiter.future().complete(true);
+        }
+        return waiter.future()
+                .completeOnTimeout(false, timeout.toMillis(), TimeUnit.MILLISECONDS)
+                .thenApplyAsync(satisfied -> satisfied, continuationExecutor);
+    }
+
+    @Override
+    public void onTransactionsProjected(List<ProjectionUpdate> updates) {
+        for (var update : updates) {
+            var pending = waiters.get(update.transactionId());
+            if (pending == null) {
+                continue;
+            }
+            pending.stream()
+                    .filter(waiter -> waiter.minVersion() <= update.version())
+                    .forEach(waiter -> waiter.future().complete(true));
+        }
+    }
+
+    // Waiters re-read the read model themselves, so waking everyone up is always safe
+    @Override
+    public void onReadModelReset() {
+        waiters.values().forEach(list -> list.forEach(waiter -> waiter.future().complete(true)));
+    }
+
+    int pendingWaiters() {
+        return waiterCount.get();
+    }
+
+    private void remove(String transactionId, Waiter waiter) {
+        waiters.computeIfPresent(transactionId, (id, list) -> {
+            list.remove(waiter);
+            return list.isEmpty() ? null : list;
+        });
+        waiterCount.decrementAndGet();
+    }
+}
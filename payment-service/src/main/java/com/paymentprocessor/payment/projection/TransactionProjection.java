@@ -0,0 +1,65 @@
+package com.paymentprocessor.payment.projection;
+
+import com.paymentprocessor.common.event.*;
+import com.paymentprocessor.payment.query.TransactionReadModel;
+import lombok.extern.slf4j.Slf4j;
+
+import java.util.Optional;
+
+// Pure event -> read model fold shared by the Kafka projection and the rebuild, so both
+// produce identical rows. It never touches the database.
+@Slf4j
+public final class TransactionProjection {
+
+    // For events that arrive without their aggregate sequence number
+    public static final long UNKNOWN_SEQUENCE = 0L;
+
+    private TransactionProjection() {
+    }
+
+    public static Optional<TransactionReadModel> apply(TransactionReadModel current, BaseEvent event) {
+        return apply(current, event, UNKNOWN_SEQUENCE);
+    }
+
+    // True when the row already reflects the event, e.g. a rebuild folded it in before the live
+    // projection reached it, or Kafka redelivered it
+    public static boolean isApplied(TransactionReadModel current, long sequenceNumber) {
+        return current != null && sequenceNumber != UNKNOWN_SEQUENCE && sequenceNumber <= current.getVersion();
+    }
+
+    // Empty when the event cannot be applied because the transaction has not been created yet
+    public static Optional<TransactionReadModel> apply(TransactionReadModel current, BaseEvent event,
+                                                       long sequenceNumber) {
+        if (isApplied(current, sequenceNumber)) {
+            return Optional.of(current);
+        }
+        if (event instanceof TransactionCreatedEvent e) {
+            // A redelivered creation must not reset a transaction that has already moved on
+            return Optional.of(current != null ? current : TransactionReadModel.fromTransactionCreated(
+                    e.transactionId(),
+                    e.userId(),
+                    e.amount(),
+                    e.currency(),
+                    e.paymentMethod(),
+                    e.description(),
+                    e.timestamp()
+            ));
+        }
+        if (current == null) {
+            return Optional.empty();
+        }
+
+        switch (event) {
+            case FraudCheckCompletedEvent e ->
+                    current.updateFraudCheckResult(e.passed(), e.riskScore(), e.reason(), e.timestamp());
+            case PaymentProcessingStartedEvent e -> current.updatePaymentProcessingStarted();
+            case PaymentProcessedEvent e ->
+                    current.updatePaymentCompleted(e.paymentGatewayTransactionId(), e.timestamp());
+            case PaymentFailedEvent e -> current.updatePaymentFailed(e.timestamp());
+            default -> log.debug("Event type {} does not affect the read model", event.getClass().getSimpleName());
+        }
+        // The row version tracks the aggregate version, so it doubles as the applied-event watermark
+        current.setVersion(sequenceNumber != UNKNOWN_SEQUENCE ? sequenceNumber : current.getVersion() + 1);
+        return Optional.of(current);
+    }
+}
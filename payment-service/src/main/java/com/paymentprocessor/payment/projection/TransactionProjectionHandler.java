@@ -1,108 +1,163 @@
 package com.paymentprocessor.payment.projection;
 
-import com.paymentprocessor.common.event.*;
+import com.paymentprocessor.common.event.BaseEvent;
+import com.paymentprocessor.payment.query.JdbcTransactionReadModelStore;
+import com.paymentprocessor.payment.query.JdbcTransactionRollupStore;
+import com.paymentprocessor.payment.query.JdbcTransactionSummaryStore;
 import com.paymentprocessor.payment.query.TransactionReadModel;
-import com.paymentprocessor.payment.query.TransactionReadModelRepository;
+import com.paymentprocessor.payment.query.TransactionRollupDeltas;
+import com.paymentprocessor.payment.query.TransactionSummaryDeltas;
+import com.paymentprocessor.payment.publisher.EventPublisher;
 import lombok.extern.slf4j.Slf4j;
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+import org.apache.kafka.common.TopicPartition;
 import org.springframework.kafka.annotation.KafkaListener;
+import org.springframework.kafka.listener.ConsumerSeekAware;
 import org.springframework.stereotype.Component;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+import static com.paymentprocessor.payment.projection.JdbcProjectionCheckpointStore.NO_OFFSET;
+
 @Slf4j
 @Component
-public class TransactionProjectionHandler {
+public class TransactionProjectionHandler implements ConsumerSeekAware {
+
+    static final String PROJECTION_NAME = "transaction-read-model";
 
-    private final TransactionReadModelRepository repository;
+    private final JdbcTransactionReadModelStore readModelStore;
+    private final JdbcProjectionCheckpointStore checkpointStore;
+    private final JdbcTransactionSummaryStore summaryStore;
+    private final JdbcTransactionRollupStore rollupStore;
+    private final ProjectionUpdateNotifier updateNotifier;
 
+    public TransactionProjectionHandler(JdbcTransactionReadModelStore readModelStore,
+                                        JdbcProjectionCheckpointStore checkpointStore,
+                                        JdbcTransactionSummaryStore summaryStore,
+                                        JdbcTransactionRollupStore rollupStore,
+                                        ProjectionUpdateNotifier updateNotifier) {
+        this.readModelStore = readModelStore;
+        this.checkpointStore = checkpointStore;
+        this.summaryStore = summaryStore;
+        this.rollupStore = rollupStore;
+        this.updateNotifier = updateNotifier;
+    }
 
-    public TransactionProjectionHandler(TransactionReadModelRepository repository) {
-        this.repository = repository;
+    // The DB checkpoints, not the committed Kafka offsets, decide where consumption resumes
+    @Override
+    public void onPartitionsAssigned(Map<TopicPartition, Long> assignments, ConsumerSeekCallback callback) {
+        checkpointStore.findOffsets(PROJECTION_NAME, assignments.keySet()).forEach((partition, offset) -> {
+            if (offset != NO_OFFSET) {
+                log.info("Resuming {} at offset {} from projection checkpoint", partition, offset + 1);
+                callback.seek(partition.topic(), partition.partition(), offset + 1);
+            }
+        });
     }
 
-    @KafkaListener(topics = "transaction-events", groupId = "transaction-projection")
+    // One poll is one DB transaction: a single read for every transaction in the batch, the
+    // events folded in memory, and one batched upsert, instead of a load and save per event.
+    // The partition checkpoints are advanced in the same transaction, so a redelivered record
+    // is recognised and skipped instead of being applied twice.
+    @KafkaListener(topics = "transaction-events", groupId = "transaction-projection",
+            containerFactory = "projectionListenerContainerFactory")
     @Transactional
-    public void handleEvent(BaseEvent event) {
-        log.info("Processing event: {} for transaction: {}",
-                event.eventType(), event.transactionId());
+    public void handleEvents(List<ConsumerRecord<String, BaseEvent>> records) {
+        log.debug("Processing batch of {} events", records.size());
 
         try {
-            switch(event) {
-                case TransactionCreatedEvent e -> handleTransactionCreated(e);
-                case FraudCheckCompletedEvent e -> handleFraudCheckCompleted(e);
-                case PaymentProcessingStartedEvent e -> handlePaymentProcessingStarted(e);
-                case PaymentProcessedEvent e -> handlePaymentProcessed(e);
-                case PaymentFailedEvent e -> handlePaymentFailed(e);
-                default -> log.warn("Unknown event type: {}",
-                        event.getClass().getSimpleName());
+            var lastOffsets = new HashMap<TopicPartition, Long>();
+            for (var record : records) {
+                lastOffsets.merge(new TopicPartition(record.topic(), record.partition()), record.offset(), Math::max);
             }
-        } catch (Exception e) {
-            log.error("Failed to process event: {} for transaction: {}",
-                    event.eventType(), event.transactionId(), e);
-            throw e; // Re-throw to trigger retry mechanism
-        }
-    }
+            var checkpoints = checkpointStore.lockOffsets(PROJECTION_NAME, lastOffsets.keySet());
 
-    private void handleTransactionCreated(TransactionCreatedEvent event) {
-        var readModel = TransactionReadModel.fromTransactionCreated(
-                event.transactionId(),
-                event.userId(),
-                event.amount(),
-                event.currency(),
-                event.paymentMethod(),
-                event.description(),
-                event.timestamp()
-        );
-
-        repository.save(readModel);
-        log.info("Created read model for transaction: {}",
-                event.transactionId());
-    }
+            // Records are keyed by transaction ID, so per-transaction order within the batch is preserved
+            var eventsByTransaction = new LinkedHashMap<String, List<SequencedEvent>>();
+            var partitionByTransaction = new HashMap<String, Integer>();
+            int skipped = 0;
+            for (var record : records) {
+                if (record.offset() <= checkpoints.get(new TopicPartition(record.topic(), record.partition()))) {
+                    skipped++;
+                    continue;
+                }
+                var event = record.value();
+                eventsByTransaction.computeIfAbsent(event.transactionId(), id -> new ArrayList<>())
+                        .add(new SequencedEvent(event, sequenceNumber(record)));
+                partitionByTransaction.put(event.transactionId(), record.partition());
+            }
+            if (skipped > 0) {
+                log.info("Skipped {} already projected events", skipped);
+            }
 
-    private void handleFraudCheckCompleted(FraudCheckCompletedEvent event) {
-        repository.findById(event.transactionId())
-                .ifPresentOrElse(
-                        readModel -> {
-                            readModel.updateFraudCheckResult(
-                                    event.passed(),
-                                    event.riskScore(),
-                                    event.reason(),
-                                    event.timestamp()
-                            );
-                            repository.save(readModel);
-                            log.info("Updated read model for fraud check: {}",
-                                    event.transactionId());
-                        },
-                        () -> log.warn("Read model not found for transaction: {}", event.transactionId())
-                );
-    }
+            var current = readModelStore.findAllById(eventsByTransaction.keySet());
+            var updated = new ArrayList<TransactionReadModel>(eventsByTransaction.size());
+            // A batch can span partitions, so deltas are kept per counter stripe. A partition is owned
+            // by one consumer at a time, so striping by partition keeps concurrent consumers off each
+            // other's counter rows.
+            var summaryDeltas = new TreeMap<Integer, TransactionSummaryDeltas>();
+            var rollupDeltas = new TreeMap<Integer, TransactionRollupDeltas>();
+            var notifications = new ArrayList<ProjectionUpdate>(eventsByTransaction.size());
+            eventsByTransaction.forEach((transactionId, transactionEvents) -> {
+                var readModel = current.get(transactionId);
+                var previousStatus = readModel != null ? readModel.getStatus() : null;
+                boolean changed = false;
+                for (var event : transactionEvents) {
+                    // Already in the row, typically because a rebuild read it from the event store first
+                    if (TransactionProjection.isApplied(readModel, event.sequenceNumber())) {
+                        continue;
+                    }
+                    readModel = TransactionProjection.apply(readModel, event.event(), event.sequenceNumber())
+                            .orElse(null);
+                    if (readModel == null) {
+                        log.warn("Read model not found for transaction: {}", transactionId);
+                    } else {
+                        changed = true;
+                    }
+                }
+                if (readModel != null && changed) {
+                    updated.add(readModel);
+                    var stripe = partitionByTransaction.get(transactionId) % JdbcTransactionSummaryStore.STRIPES;
+                    summaryDeltas.computeIfAbsent(stripe, s -> new TransactionSummaryDeltas())
+                            .record(previousStatus, readModel);
+                    rollupDeltas.computeIfAbsent(stripe, s -> new TransactionRollupDeltas())
+                            .record(previousStatus, readModel);
+                    notifications.add(ProjectionUpdate.of(previousStatus, readModel));
+                }
+            });
 
-    private void handlePaymentProcessingStarted(PaymentProcessingStartedEvent event) {
-        repository.findById(event.transactionId())
-                .ifPresent(readModel -> {
-                    readModel.updatePaymentProcessingStarted();
-                    repository.save(readModel);
-                    log.info("Updated read model for payment processing start: {}", event.transactionId());
-                });
+            readModelStore.upsert(updated);
+            // Ascending stripe order, so two consumers sharing a stripe never lock rows in opposite orders
+            summaryDeltas.forEach((stripe, deltas) -> summaryStore.apply(deltas, stripe));
+            rollupDeltas.forEach((stripe, deltas) -> rollupStore.apply(deltas, stripe));
+            checkpointStore.saveOffsets(PROJECTION_NAME, lastOffsets);
+            updateNotifier.notifyUpdates(notifications);
+            log.info("Projected {} events onto {} transactions", records.size() - skipped, updated.size());
+        } catch (Exception e) {
+            log.error("Failed to process batch of {} events", records.size(), e);
+            throw e; // Re-throw to trigger retry mechanism
+        }
     }
 
-    private void handlePaymentProcessed(PaymentProcessedEvent event) {
-        repository.findById(event.transactionId())
-                .ifPresent(readModel -> {
-                    readModel.updatePaymentCompleted(
-                            event.paymentGatewayTransactionId(),
-                            event.timestamp()
-                    );
-                    repository.save(readModel);
-                    log.info("Updated read model for payment completion: {}", event.transactionId());
-                });
+    private static long sequenceNumber(ConsumerRecord<String, BaseEvent> record) {
+        var header = record.headers().lastHeader(EventPublisher.AGGREGATE_SEQUENCE_HEADER);
+        if (header == null) {
+            return TransactionProjection.UNKNOWN_SEQUENCE;
+        }
+        try {
+            return Long.parseLong(new String(header.value(), StandardCharsets.UTF_8));
+        } catch (NumberFormatException e) {
+            log.warn("Ignoring malformed {} header on {}-{}@{}", EventPublisher.AGGREGATE_SEQUENCE_HEADER,
+                    record.topic(), record.partition(), record.offset());
+            return TransactionProjection.UNKNOWN_SEQUENCE;
+        }
     }
 
-    private void handlePaymentFailed(PaymentFailedEvent event) {
-        repository.findById(event.transactionId())
-                .ifPresent(readModel -> {
-                    readModel.updatePaymentFailed(event.timestamp());
-                    repository.save(readModel);
-                    log.info("Updated read model for payment failure: {}", event.transactionId());
-                });
-    }
+    private record SequencedEvent(BaseEvent event, long sequenceNumber) {}
 }
@@ -0,0 +1,310 @@
+package com.paymentprocessor.payment.projection;
+
+import com.paymentprocessor.payment.query.JdbcTransactionReadModelStore;
+import com.paymentprocessor.payment.query.JdbcTransactionRollupStore;
+import com.paymentprocessor.payment.query.JdbcTransactionSummaryStore;
+import com.paymentprocessor.payment.query.TransactionReadModel;
+import com.paymentprocessor.payment.repository.EventStore;
+import com.paymentprocessor.payment.repository.StoredEvent;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Consumer;
+import java.util.stream.IntStream;
+
+import static com.paymentprocessor.payment.query.JdbcTransactionReadModelStore.READ_MODEL_TABLE;
+
+// Rebuilds transaction_read_model from the event store instead of replaying Kafka from earliest.
+// Events are streamed in aggregate order, folded in chunks of whole aggregates on a fork-join
+// pool and batch-written into a shadow table, which then replaces the live table in one rename.
+@Slf4j
+@Service
+public class TransactionProjectionRebuilder {
+
+    private static final String SHADOW_TABLE = READ_MODEL_TABLE + "_rebuild";
+    private static final String RETIRED_TABLE = READ_MODEL_TABLE + "_retired";
+    private static final String PRIMARY_KEY = "_pkey";
+    private static final int CATCH_UP_BATCH_SIZE = 1000;
+
+    private static final String SECONDARY_INDEXES_SQL = """
+            SELECT i.indexname, i.indexdef
+            FROM pg_indexes i
+            WHERE i.schemaname = current_schema()
+              AND i.tablename = ?
+              AND NOT EXISTS (SELECT 1 FROM pg_constraint c WHERE c.conname = i.indexname)
+            """;
+
+    // An event can take an id below the bulk load's upper bound yet commit after the bulk load read
+    // past it. Neither the bulk load nor the id-based catch-up sees it, but the live projection has
+    // applied it to the live table, so the live row is ahead of (or missing from) the shadow table.
+    private static final String DIVERGED_TRANSACTIONS_SQL = """
+            SELECT live.transaction_id
+            FROM %s live
+            LEFT JOIN %s shadow ON shadow.transaction_id = live.transaction_id
+            WHERE shadow.transaction_id IS NULL OR shadow.version < live.version
+            """.formatted(READ_MODEL_TABLE, SHADOW_TABLE);
+
+    private final EventStore eventStore;
+    private final JdbcTransactionReadModelStore readModelStore;
+    private final JdbcTransactionSummaryStore summaryStore;
+    private final JdbcTransactionRollupStore rollupStore;
+    private final ProjectionUpdateNotifier updateNotifier;
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final int parallelism;
+    private final int chunkSize;
+    private final ExecutorService rebuildRunner = Executors.newSingleThreadExecutor(
+            new CustomizableThreadFactory("ProjectionRebuild-"));
+    private final AtomicReference<ProjectionRebuildStatus> status =
+            new AtomicReference<>(ProjectionRebuildStatus.idle());
+
+    public TransactionProjectionRebuilder(EventStore eventStore,
+                                          JdbcTransactionReadModelStore readModelStore,
+                                          JdbcTransactionSummaryStore summaryStore,
+                                          JdbcTransactionRollupStore rollupStore,
+                                          ProjectionUpdateNotifier updateNotifier,
+                                          JdbcTemplate jdbcTemplate,
+                                          TransactionTemplate transactionTemplate,
+                                          @Value("${payment.projection.rebuild.parallelism:4}") int parallelism,
+                                          @Value("${payment.projection.rebuild.chunk-size:1000}") int chunkSize) {
+        this.eventStore = eventStore;
+        this.readModelStore = readModelStore;
+        this.summaryStore = summaryStore;
+        this.rollupStore = rollupStore;
+        this.updateNotifier = updateNotifier;
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = transactionTemplate;
+        this.parallelism = parallelism;
+        this.chunkSize = chunkSize;
+    }
+
+    // False when a rebuild is already in progress
+    public boolean startRebuild() {
+        var previous = status.get();
+        if (previous.running()) {
+            return false;
+        }
+        var started = new ProjectionRebuildStatus(true, LocalDateTime.now(), previous.lastCompletedAt(),
+                null, null, null, null);
+        if (!status.compareAndSet(previous, started)) {
+            return false;
+        }
+
+        rebuildRunner.execute(() -> {
+            long startNanos = System.nanoTime();
+            try {
+                var counts = rebuild();
+                status.set(new ProjectionRebuildStatus(false, started.lastStartedAt(), LocalDateTime.now(),
+                        counts[0], counts[1], Duration.ofNanos(System.nanoTime() - startNanos), null));
+            } catch (Exception e) {
+                log.error("Projection rebuild failed", e);
+                status.set(new ProjectionRebuildStatus(false, started.lastStartedAt(), LocalDateTime.now(),
+                        null, null, Duration.ofNanos(System.nanoTime() - startNanos), e.getMessage()));
+            }
+        });
+        return true;
+    }
+
+    public ProjectionRebuildStatus getStatus() {
+        return status.get();
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        rebuildRunner.shutdownNow();
+    }
+
+    // Returns {events replayed, transactions written}
+    long[] rebuild() throws InterruptedException {
+        long upToPosition = eventStore.getLastPosition();
+        log.info("Rebuilding {} from {} events with parallelism {}", READ_MODEL_TABLE, upToPosition, parallelism);
+
+        var secondaryIndexes = jdbcTemplate.query(SECONDARY_INDEXES_SQL,
+                (rs, rowNum) -> new IndexDefinition(rs.getString("indexname"), rs.getString("indexdef")),
+                READ_MODEL_TABLE);
+        jdbcTemplate.execute("DROP TABLE IF EXISTS " + SHADOW_TABLE);
+        jdbcTemplate.execute("CREATE TABLE " + SHADOW_TABLE + " (LIKE " + READ_MODEL_TABLE
+                + " INCLUDING DEFAULTS INCLUDING CONSTRAINTS)");
+        jdbcTemplate.execute("ALTER TABLE " + SHADOW_TABLE + " ADD CONSTRAINT " + SHADOW_TABLE + PRIMARY_KEY
+                + " PRIMARY KEY (transaction_id)");
+
+        var pool = new ForkJoinPool(parallelism);
+        var chunker = new AggregateChunker(pool);
+        try {
+            eventStore.streamAllByAggregate(upToPosition, chunker);
+            chunker.finish();
+        } finally {
+            pool.shutdownNow();
+        }
+        log.info("Bulk load of {} finished: {} events, {} transactions",
+                SHADOW_TABLE, chunker.events.sum(), chunker.transactions.sum());
+
+        // Cheaper to build each secondary index once over the loaded rows than to maintain it row by row
+        for (var index : secondaryIndexes) {
+            jdbcTemplate.execute(index.shadowDefinition());
+        }
+
+        transactionTemplate.executeWithoutResult(tx -> {
+            // Blocks the live projection until the swap commits. Everything it applied before the
+            // lock is in the live table and is carried over by the catch-up; everything after the
+            // swap lands in the new table, since the Kafka checkpoint has not passed it.
+            jdbcTemplate.execute("LOCK TABLE " + READ_MODEL_TABLE + " IN ACCESS EXCLUSIVE MODE");
+            catchUp(upToPosition);
+            jdbcTemplate.execute("ALTER TABLE " + READ_MODEL_TABLE + " RENAME TO " + RETIRED_TABLE);
+            jdbcTemplate.execute("ALTER TABLE " + SHADOW_TABLE + " RENAME TO " + READ_MODEL_TABLE);
+            jdbcTemplate.execute("DROP TABLE " + RETIRED_TABLE);
+            jdbcTemplate.execute("ALTER TABLE " + READ_MODEL_TABLE + " RENAME CONSTRAINT "
+                    + SHADOW_TABLE + PRIMARY_KEY + " TO " + READ_MODEL_TABLE + PRIMARY_KEY);
+            for (var index : secondaryIndexes) {
+                jdbcTemplate.execute("ALTER INDEX " + index.shadowName() + " RENAME TO " + index.name());
+            }
+            summaryStore.recompute();
+            rollupStore.recompute();
+            updateNotifier.notifyReset();
+        });
+        log.info("Swapped rebuilt {} into place", READ_MODEL_TABLE);
+
+        return new long[]{chunker.events.sum(), chunker.transactions.sum()};
+    }
+
+    // Re-projects every aggregate that received events while the bulk load was running: those
+    // stored after its upper bound, and those the live projection moved past the shadow table
+    private void catchUp(long fromPosition) {
+        Set<String> touched = new LinkedHashSet<>(jdbcTemplate.queryForList(DIVERGED_TRANSACTIONS_SQL, String.class));
+        long position = fromPosition;
+        List<StoredEvent> batch;
+        do {
+            batch = eventStore.readAll(position, CATCH_UP_BATCH_SIZE);
+            for (var event : batch) {
+                touched.add(event.aggregateId());
+                position = event.position();
+            }
+        } while (batch.size() == CATCH_UP_BATCH_SIZE);
+
+        var readModels = new ArrayList<TransactionReadModel>(touched.size());
+        for (var transactionId : touched) {
+            // Aggregate streams are numbered from 1 without gaps
+            var history = eventStore.getEventsForAggregate(transactionId);
+            var events = IntStream.range(0, history.size())
+                    .mapToObj(i -> new StoredEvent(0L, transactionId, i + 1L, history.get(i)))
+                    .toList();
+            project(events).ifPresent(readModels::add);
+        }
+        readModelStore.upsert(SHADOW_TABLE, readModels);
+        log.info("Caught up {} transactions written during the rebuild", readModels.size());
+    }
+
+    private static Optional<TransactionReadModel> project(List<StoredEvent> events) {
+        TransactionReadModel readModel = null;
+        for (var event : events) {
+            readModel = TransactionProjection.apply(readModel, event.event(), event.sequenceNumber())
+                    .orElse(readModel);
+        }
+        return Optional.ofNullable(readModel);
+    }
+
+    // Lets the schema.sql index names survive the swap
+    private record IndexDefinition(String name, String definition) {
+
+        String shadowName() {
+            return name + "_rebuild";
+        }
+
+        String shadowDefinition() {
+            return definition
+                    .replaceFirst("INDEX " + name + " ON ", "INDEX " + shadowName() + " ON ")
+                    .replaceFirst("\\." + READ_MODEL_TABLE + " USING ", "." + SHADOW_TABLE + " USING ");
+        }
+    }
+
+    // Cuts the aggregate-ordered stream into chunks of whole aggregates and folds each chunk on
+    // the pool. The semaphore bounds chunks in flight so the cursor never runs far ahead of the writers.
+    private class AggregateChunker implements Consumer<StoredEvent> {
+
+        private final ForkJoinPool pool;
+        private final int maxInFlight;
+        private final Semaphore inFlight;
+        private final AtomicReference<Throwable> failure = new AtomicReference<>();
+        private final LongAdder events = new LongAdder();
+        private final LongAdder transactions = new LongAdder();
+        private List<List<StoredEvent>> chunk = new ArrayList<>();
+        private List<StoredEvent> currentAggregate = new ArrayList<>();
+
+        AggregateChunker(ForkJoinPool pool) {
+            this.pool = pool;
+            this.maxInFlight = parallelism * 2;
+            this.inFlight = new Semaphore(maxInFlight);
+        }
+
+        @Override
+        public void accept(StoredEvent event) {
+            events.increment();
+            if (!currentAggregate.isEmpty() && !currentAggregate.get(0).aggregateId().equals(event.aggregateId())) {
+                chunk.add(currentAggregate);
+                currentAggregate = new ArrayList<>();
+                if (chunk.size() >= chunkSize) {
+                    submit();
+                }
+            }
+            currentAggregate.add(event);
+        }
+
+        void finish() throws InterruptedException {
+            if (!currentAggregate.isEmpty()) {
+                chunk.add(currentAggregate);
+            }
+            if (!chunk.isEmpty()) {
+                submit();
+            }
+            // Every permit back means every chunk has been written
+            inFlight.acquire(maxInFlight);
+            throwIfFailed();
+        }
+
+        private void submit() {
+            throwIfFailed();
+            var aggregates = chunk;
+            chunk = new ArrayList<>(chunkSize);
+            inFlight.acquireUninterruptibly();
+            pool.execute(() -> {
+                try {
+                    var readModels = new ArrayList<TransactionReadModel>(aggregates.size());
+                    for (var aggregateEvents : aggregates) {
+                        project(aggregateEvents).ifPresent(readModels::add);
+                    }
+                    readModelStore.upsert(SHADOW_TABLE, readModels);
+                    transactions.add(readModels.size());
+                } catch (Throwable t) {
+                    failure.compareAndSet(null, t);
+                } finally {
+                    inFlight.release();
+                }
+            });
+        }
+
+        private void throwIfFailed() {
+            var cause = failure.get();
+            if (cause != null) {
+                throw new IllegalStateException("Projection rebuild worker failed", cause);
+            }
+        }
+    }
+}
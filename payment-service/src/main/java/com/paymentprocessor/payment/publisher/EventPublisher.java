@@ -2,15 +2,20 @@ package com.paymentprocessor.payment.publisher;
 
 import com.paymentprocessor.common.event.BaseEvent;
 import lombok.extern.slf4j.Slf4j;
+import org.apache.kafka.clients.producer.ProducerRecord;
 import org.springframework.kafka.core.KafkaTemplate;
 import org.springframework.stereotype.Component;
 
+import java.nio.charset.StandardCharsets;
 import java.util.concurrent.CompletableFuture;
 
 @Slf4j
 @Component
 public class EventPublisher {
 
+    // Position of the event in its aggregate's stream, so consumers can drop events they already applied
+    public static final String AGGREGATE_SEQUENCE_HEADER = "aggregate-sequence";
+
     private final KafkaTemplate<String, Object> kafkaTemplate;
 
     public EventPublisher(KafkaTemplate<String, Object> kafkaTemplate) {
@@ -18,10 +23,19 @@ public class EventPublisher {
     }
 
     public CompletableFuture<Void> publishAsync(String topic, String key, BaseEvent event) {
+        return publishAsync(topic, key, event, 0L);
+    }
+
+    public CompletableFuture<Void> publishAsync(String topic, String key, BaseEvent event, long sequenceNumber) {
         log.debug("Publishing event {} to topic {} with key {}",
                 event.getClass().getSimpleName(), topic, key);
 
-        return kafkaTemplate.send(topic, key, event)
+        var record = new ProducerRecord<String, Object>(topic, key, event);
+        if (sequenceNumber > 0) {
+            record.headers().add(AGGREGATE_SEQUENCE_HEADER,
+                    Long.toString(sequenceNumber).getBytes(StandardCharsets.UTF_8));
+        }
+        return kafkaTemplate.send(record)
                 .thenAccept(result ->
                         log.debug("Successfully published {} to topic {}",
                                 event.getClass().getSimpleName(), topic))
@@ -35,4 +49,8 @@ public class EventPublisher {
     public void publish(String topic, String key, BaseEvent event) {
         publishAsync(topic, key, event).join(); // Blocking version if needed
     }
+
+    public void flush() {
+        kafkaTemplate.flush();
+    }
 }
\ No newline at end of file
@@ -0,0 +1,155 @@
+package com.paymentprocessor.payment.query;
+
+import com.paymentprocessor.common.model.Currency;
+import com.paymentprocessor.common.model.PaymentMethod;
+import com.paymentprocessor.common.model.TransactionStatus;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.stereotype.Repository;
+
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Consumer;
+
+// Bulk path for read model rows. JPA loads and saves them one statement at a time; this reads a
+// whole batch with one query and writes it with a single JDBC batch, which the driver rewrites
+// into multi-row inserts.
+@Repository
+public class JdbcTransactionReadModelStore {
+
+    public static final String READ_MODEL_TABLE = "transaction_read_model";
+
+    private static final String UPSERT_SQL = """
+            INSERT INTO %s (transaction_id, user_id, amount, currency, payment_method, description, status,
+                            created_at, completed_at, risk_score, fraud_reason, payment_gateway_transaction_id, version)
+            VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?)
+            ON CONFLICT (transaction_id) DO UPDATE SET
+                status = EXCLUDED.status,
+                completed_at = EXCLUDED.completed_at,
+                risk_score = EXCLUDED.risk_score,
+                fraud_reason = EXCLUDED.fraud_reason,
+                payment_gateway_transaction_id = EXCLUDED.payment_gateway_transaction_id,
+                version = EXCLUDED.version
+            WHERE %s.version < EXCLUDED.version
+            """;
+
+    private static final String FIND_ALL_BY_ID_SQL = """
+            SELECT transaction_id, user_id, amount, currency, payment_method, description, status,
+                   created_at, completed_at, risk_score, fraud_reason, payment_gateway_transaction_id, version
+            FROM transaction_read_model
+            WHERE transaction_id = ANY(?)
+            """;
+
+    private static final String STREAM_BY_CREATED_AT_SQL = """
+            SELECT transaction_id, user_id, amount, currency, payment_method, description, status,
+                   created_at, completed_at, risk_score, fraud_reason, payment_gateway_transaction_id, version
+            FROM transaction_read_model
+            WHERE created_at BETWEEN ? AND ?
+            ORDER BY created_at ASC
+            """;
+
+    private static final String FIND_IDS_BY_STATUS_SQL = """
+            SELECT transaction_id
+            FROM transaction_read_model
+            WHERE status = ? AND created_at < ?
+            ORDER BY created_at ASC
+            LIMIT ?
+            """;
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public JdbcTransactionReadModelStore(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    public Map<String, TransactionReadModel> findAllById(Collection<String> transactionIds) {
+        var readModels = new HashMap<String, TransactionReadModel>(transactionIds.size());
+        if (transactionIds.isEmpty()) {
+            return readModels;
+        }
+
+        var ids = transactionIds.toArray(String[]::new);
+        jdbcTemplate.query(FIND_ALL_BY_ID_SQL,
+                ps -> ps.setArray(1, ps.getConnection().createArrayOf("varchar", ids)),
+                rs -> {
+                    var readModel = mapRowToReadModel(rs);
+                    readModels.put(readModel.getTransactionId(), readModel);
+                });
+        return readModels;
+    }
+
+    public List<String> findIdsByStatusCreatedBefore(TransactionStatus status, LocalDateTime createdBefore, int limit) {
+        return jdbcTemplate.queryForList(FIND_IDS_BY_STATUS_SQL, String.class, status.name(), createdBefore, limit);
+    }
+
+    // Must run inside a transaction: only then does the PostgreSQL driver page through a
+    // server-side cursor, fetchSize rows at a time, instead of reading the whole result
+    public void streamByCreatedAtRange(LocalDateTime startDate, LocalDateTime endDate, int fetchSize,
+                                       Consumer<TransactionReadModel> consumer) {
+        jdbcTemplate.query(connection -> {
+            var statement = connection.prepareStatement(STREAM_BY_CREATED_AT_SQL,
+                    ResultSet.TYPE_FORWARD_ONLY, ResultSet.CONCUR_READ_ONLY);
+            statement.setFetchSize(fetchSize);
+            statement.setObject(1, startDate);
+            statement.setObject(2, endDate);
+            return statement;
+        }, (RowCallbackHandler) rs -> consumer.accept(mapRowToReadModel(rs)));
+    }
+
+    public void upsert(List<TransactionReadModel> readModels) {
+        upsert(READ_MODEL_TABLE, readModels);
+    }
+
+    // The table name is never user input; it is either the live table or a rebuild shadow table.
+    // A row only moves forward: an older version never overwrites a newer one.
+    public void upsert(String table, List<TransactionReadModel> readModels) {
+        if (readModels.isEmpty()) {
+            return;
+        }
+
+        var batchArgs = new ArrayList<Object[]>(readModels.size());
+        for (var readModel : readModels) {
+            batchArgs.add(new Object[]{
+                    readModel.getTransactionId(),
+                    readModel.getUserId(),
+                    readModel.getAmount(),
+                    readModel.getCurrency().name(),
+                    readModel.getPaymentMethod().name(),
+                    readModel.getDescription(),
+                    readModel.getStatus().name(),
+                    readModel.getCreatedAt(),
+                    readModel.getCompletedAt(),
+                    readModel.getRiskScore(),
+                    readModel.getFraudReason(),
+                    readModel.getPaymentGatewayTransactionId(),
+                    readModel.getVersion() != null ? readModel.getVersion() : 0L
+            });
+        }
+        jdbcTemplate.batchUpdate(UPSERT_SQL.formatted(table, table), batchArgs);
+    }
+
+    private TransactionReadModel mapRowToReadModel(ResultSet rs) throws SQLException {
+        var riskScore = rs.getBigDecimal("risk_score");
+        return TransactionReadModel.builder()
+                .transactionId(rs.getString("transaction_id"))
+                .userId(rs.getString("user_id"))
+                .amount(rs.getBigDecimal("amount"))
+                .currency(Currency.valueOf(rs.getString("currency")))
+                .paymentMethod(PaymentMethod.valueOf(rs.getString("payment_method")))
+                .description(rs.getString("description"))
+                .status(TransactionStatus.valueOf(rs.getString("status")))
+                .createdAt(rs.getObject("created_at", LocalDateTime.class))
+                .completedAt(rs.getObject("completed_at", LocalDateTime.class))
+                .riskScore(riskScore != null ? riskScore.doubleValue() : null)
+                .fraudReason(rs.getString("fraud_reason"))
+                .paymentGatewayTransactionId(rs.getString("payment_gateway_transaction_id"))
+                .version(rs.getLong("version"))
+                .build();
+    }
+}
@@ -0,0 +1,97 @@
+package com.paymentprocessor.payment.query;
+
+import com.paymentprocessor.common.model.Currency;
+import com.paymentprocessor.common.model.PaymentMethod;
+import com.paymentprocessor.common.model.TransactionStatus;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+// Pre-aggregated analytics maintained by the projection, striped like the summary counters.
+// Reads cost one row per (bucket, status, currency, payment method, stripe), not one per transaction.
+@Repository
+public class JdbcTransactionRollupStore {
+
+    private static final String ADD_ROLLUP_SQL = """
+            INSERT INTO %1$s (bucket_start, status, currency, payment_method, stripe, transaction_count, total_amount)
+            VALUES (?, ?, ?, ?, ?, ?, ?)
+            ON CONFLICT (bucket_start, status, currency, payment_method, stripe) DO UPDATE
+            SET transaction_count = %1$s.transaction_count + EXCLUDED.transaction_count,
+                total_amount = %1$s.total_amount + EXCLUDED.total_amount
+            """;
+
+    private static final String FIND_ROLLUPS_SQL = """
+            SELECT bucket_start, status, currency, payment_method,
+                   SUM(transaction_count) AS transaction_count, SUM(total_amount) AS total_amount
+            FROM %s
+            WHERE bucket_start >= ? AND bucket_start < ?
+              AND (CAST(? AS VARCHAR) IS NULL OR status = ?)
+              AND (CAST(? AS VARCHAR) IS NULL OR currency = ?)
+              AND (CAST(? AS VARCHAR) IS NULL OR payment_method = ?)
+            GROUP BY bucket_start, status, currency, payment_method
+            HAVING SUM(transaction_count) <> 0
+            ORDER BY bucket_start, status, currency, payment_method
+            """;
+
+    private static final String RECOMPUTE_ROLLUPS_SQL = """
+            INSERT INTO %s (bucket_start, status, currency, payment_method, stripe, transaction_count, total_amount)
+            SELECT date_trunc('%s', created_at), status, currency, payment_method, 0, COUNT(*), SUM(amount)
+            FROM transaction_read_model
+            GROUP BY 1, status, currency, payment_method
+            """;
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public JdbcTransactionRollupStore(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    public void apply(TransactionRollupDeltas deltas, int stripe) {
+        if (deltas.isEmpty()) {
+            return;
+        }
+        apply(RollupGranularity.HOURLY, deltas.hourly(), stripe);
+        apply(RollupGranularity.DAILY, deltas.daily(), stripe);
+    }
+
+    public List<TransactionRollup> findRollups(RollupGranularity granularity, LocalDateTime from, LocalDateTime to,
+                                               TransactionStatus status, Currency currency,
+                                               PaymentMethod paymentMethod) {
+        var statusName = status != null ? status.name() : null;
+        var currencyName = currency != null ? currency.name() : null;
+        var paymentMethodName = paymentMethod != null ? paymentMethod.name() : null;
+        return jdbcTemplate.query(FIND_ROLLUPS_SQL.formatted(granularity.table()),
+                (rs, rowNum) -> new TransactionRollup(
+                        rs.getObject("bucket_start", LocalDateTime.class),
+                        TransactionStatus.valueOf(rs.getString("status")),
+                        Currency.valueOf(rs.getString("currency")),
+                        PaymentMethod.valueOf(rs.getString("payment_method")),
+                        rs.getLong("transaction_count"),
+                        rs.getBigDecimal("total_amount")),
+                from, to, statusName, statusName, currencyName, currencyName, paymentMethodName, paymentMethodName);
+    }
+
+    // Used after a projection rebuild; must run in the transaction that swapped the read model in
+    public void recompute() {
+        for (var granularity : RollupGranularity.values()) {
+            jdbcTemplate.execute("TRUNCATE " + granularity.table());
+            jdbcTemplate.update(RECOMPUTE_ROLLUPS_SQL.formatted(granularity.table(), granularity.truncateUnit()));
+        }
+    }
+
+    private void apply(RollupGranularity granularity, Map<TransactionRollupDeltas.Key, TransactionRollupDeltas.Delta> deltas,
+                       int stripe) {
+        var batchArgs = new ArrayList<Object[]>(deltas.size());
+        deltas.forEach((key, delta) -> {
+            if (delta.count() != 0L) {
+                batchArgs.add(new Object[]{key.bucketStart(), key.status().name(), key.currency().name(),
+                        key.paymentMethod().name(), stripe, delta.count(), delta.amount()});
+            }
+        });
+        jdbcTemplate.batchUpdate(ADD_ROLLUP_SQL.formatted(granularity.table()), batchArgs);
+    }
+}
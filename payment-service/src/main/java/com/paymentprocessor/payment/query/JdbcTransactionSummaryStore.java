@@ -0,0 +1,106 @@
+package com.paymentprocessor.payment.query;
+
+import com.paymentprocessor.common.model.TransactionStatus;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.Map;
+
+// Counters behind /summary, maintained by the projection in the same transaction as the read
+// model rows. Each counter is split over a few stripes so concurrent consumers rarely wait on
+// the same row; a read sums at most STRIPES rows per key, whatever the size of the read model.
+@Repository
+public class JdbcTransactionSummaryStore {
+
+    public static final int STRIPES = 16;
+
+    private static final String ADD_STATUS_COUNT_SQL = """
+            INSERT INTO transaction_status_counts (status, stripe, transaction_count)
+            VALUES (?, ?, ?)
+            ON CONFLICT (status, stripe) DO UPDATE
+            SET transaction_count = transaction_status_counts.transaction_count + EXCLUDED.transaction_count
+            """;
+
+    private static final String ADD_DAILY_COMPLETED_SQL = """
+            INSERT INTO daily_completed_amounts (day, stripe, completed_count, completed_amount)
+            VALUES (?, ?, ?, ?)
+            ON CONFLICT (day, stripe) DO UPDATE
+            SET completed_count = daily_completed_amounts.completed_count + EXCLUDED.completed_count,
+                completed_amount = daily_completed_amounts.completed_amount + EXCLUDED.completed_amount
+            """;
+
+    private static final String GET_STATUS_COUNTS_SQL = """
+            SELECT status, SUM(transaction_count) AS transaction_count
+            FROM transaction_status_counts
+            GROUP BY status
+            """;
+
+    private static final String GET_COMPLETED_AMOUNT_SQL = """
+            SELECT COALESCE(SUM(completed_amount), 0)
+            FROM daily_completed_amounts
+            WHERE day = ?
+            """;
+
+    private static final String RECOMPUTE_STATUS_COUNTS_SQL = """
+            INSERT INTO transaction_status_counts (status, stripe, transaction_count)
+            SELECT status, 0, COUNT(*)
+            FROM transaction_read_model
+            GROUP BY status
+            """;
+
+    private static final String RECOMPUTE_DAILY_COMPLETED_SQL = """
+            INSERT INTO daily_completed_amounts (day, stripe, completed_count, completed_amount)
+            SELECT CAST(created_at AS DATE), 0, COUNT(*), SUM(amount)
+            FROM transaction_read_model
+            WHERE status = 'COMPLETED'
+            GROUP BY CAST(created_at AS DATE)
+            """;
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public JdbcTransactionSummaryStore(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    public void apply(TransactionSummaryDeltas deltas, int stripe) {
+        if (deltas.isEmpty()) {
+            return;
+        }
+
+        var statusArgs = new ArrayList<Object[]>();
+        deltas.statusCounts().forEach((status, delta) -> {
+            if (delta != 0L) {
+                statusArgs.add(new Object[]{status.name(), stripe, delta});
+            }
+        });
+        jdbcTemplate.batchUpdate(ADD_STATUS_COUNT_SQL, statusArgs);
+
+        var dailyArgs = new ArrayList<Object[]>();
+        deltas.completedCounts().forEach((day, count) -> dailyArgs.add(new Object[]{
+                day, stripe, count, deltas.completedAmounts().get(day)}));
+        jdbcTemplate.batchUpdate(ADD_DAILY_COMPLETED_SQL, dailyArgs);
+    }
+
+    public Map<TransactionStatus, Long> getStatusCounts() {
+        var counts = new EnumMap<TransactionStatus, Long>(TransactionStatus.class);
+        jdbcTemplate.query(GET_STATUS_COUNTS_SQL, rs -> {
+            counts.put(TransactionStatus.valueOf(rs.getString("status")), rs.getLong("transaction_count"));
+        });
+        return counts;
+    }
+
+    public BigDecimal getCompletedAmount(LocalDate day) {
+        return jdbcTemplate.queryForObject(GET_COMPLETED_AMOUNT_SQL, BigDecimal.class, day);
+    }
+
+    // Used after a projection rebuild; must run in the transaction that swapped the read model in
+    public void recompute() {
+        jdbcTemplate.execute("TRUNCATE transaction_status_counts, daily_completed_amounts");
+        jdbcTemplate.update(RECOMPUTE_STATUS_COUNTS_SQL);
+        jdbcTemplate.update(RECOMPUTE_DAILY_COMPLETED_SQL);
+    }
+}
@@ -0,0 +1,33 @@
+package com.paymentprocessor.payment.query;
+
+import com.paymentprocessor.common.exception.InvalidTransactionException;
+
+public enum RollupGranularity {
+    HOURLY("transaction_rollups_hourly", "hour"),
+    DAILY("transaction_rollups_daily", "day");
+
+    private final String table;
+    private final String truncateUnit;
+
+    RollupGranularity(String table, String truncateUnit) {
+        this.table = table;
+        this.truncateUnit = truncateUnit;
+    }
+
+    String table() {
+        return table;
+    }
+
+    String truncateUnit() {
+        return truncateUnit;
+    }
+
+    public static RollupGranularity from(String value) {
+        for (var granularity : values()) {
+            if (granularity.name().equalsIgnoreCase(value)) {
+                return granularity;
+            }
+        }
+        throw new InvalidTransactionException("unsupported rollup granularity: " + value);
+    }
+}
@@ -0,0 +1,38 @@
+package com.paymentprocessor.payment.query;
+
+import com.paymentprocessor.common.exception.InvalidTransactionException;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.Base64;
+
+// Position in a user's history, newest first. Clients only ever see the encoded form.
+public record TransactionCursor(
+        LocalDateTime createdAt,
+        String transactionId
+) {
+    private static final char SEPARATOR = '|';
+
+    public static TransactionCursor of(TransactionReadModel readModel) {
+        return new TransactionCursor(readModel.getCreatedAt(), readModel.getTransactionId());
+    }
+
+    public String encode() {
+        var raw = createdAt.toString() + SEPARATOR + transactionId;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    public static TransactionCursor decode(String token) {
+        try {
+            var raw = new String(Base64.getUrlDecoder().decode(token), StandardCharsets.UTF_8);
+            int separator = raw.indexOf(SEPARATOR);
+            if (separator <= 0 || separator == raw.length() - 1) {
+                throw new InvalidTransactionException("malformed page cursor");
+            }
+            return new TransactionCursor(LocalDateTime.parse(raw.substring(0, separator)), raw.substring(separator + 1));
+        } catch (IllegalArgumentException | DateTimeParseException e) {
+            throw new InvalidTransactionException("malformed page cursor", e);
+        }
+    }
+}
@@ -60,7 +60,7 @@ public class TransactionReadModel {
     @Column(name = "payment_gateway_transaction_id")
     private String paymentGatewayTransactionId;
 
-    @Version
+    // Number of events applied; written by the projection, not by JPA optimistic locking
     @Column(name = "version")
     private Long version;
 
@@ -78,6 +78,7 @@ public class TransactionReadModel {
                 .description(description)
                 .status(TransactionStatus.PENDING)
                 .createdAt(createdAt)
+                .version(1L)
                 .build();
 
     }
@@ -3,6 +3,7 @@ package com.paymentprocessor.payment.query;
 import com.paymentprocessor.common.model.TransactionStatus;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
@@ -17,6 +18,21 @@ public interface TransactionReadModelRepository extends JpaRepository <Transacti
     List<TransactionReadModel> findByUserId(String userId);
     Page<TransactionReadModel> findByUserIdOrderByCreatedAtDesc(String userId, Pageable pageable);
 
+    // Keyset pages over idx_transaction_read_model_user_created; Slice means no COUNT query
+    Slice<TransactionReadModel> findByUserIdOrderByCreatedAtDescTransactionIdDesc(String userId, Pageable pageable);
+
+    @Query(value = """
+            SELECT * FROM transaction_read_model
+            WHERE user_id = :userId
+              AND (created_at, transaction_id) < (:createdAt, :transactionId)
+            ORDER BY created_at DESC, transaction_id DESC
+            """, nativeQuery = true)
+    Slice<TransactionReadModel> findByUserIdBefore(
+            @Param("userId") String userId,
+            @Param("createdAt") LocalDateTime createdAt,
+            @Param("transactionId") String transactionId,
+            Pageable pageable);
+
     @Query("SELECT T FROM TransactionReadModel t WHERE t.createdAt BETWEEN :startDate AND :endDate")
     List<TransactionReadModel> findByDateRange(
             @Param("startDate") LocalDateTime startDate,
@@ -0,0 +1,17 @@
+package com.paymentprocessor.payment.query;
+
+import com.paymentprocessor.common.model.Currency;
+import com.paymentprocessor.common.model.PaymentMethod;
+import com.paymentprocessor.common.model.TransactionStatus;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+public record TransactionRollup(
+        LocalDateTime bucketStart,
+        TransactionStatus status,
+        Currency currency,
+        PaymentMethod paymentMethod,
+        long transactionCount,
+        BigDecimal totalAmount
+) {}
@@ -0,0 +1,67 @@
+package com.paymentprocessor.payment.query;
+
+import com.paymentprocessor.common.model.Currency;
+import com.paymentprocessor.common.model.PaymentMethod;
+import com.paymentprocessor.common.model.TransactionStatus;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.Comparator;
+import java.util.Map;
+import java.util.TreeMap;
+
+// Net change to the hourly and daily rollups caused by one projection batch. A transaction is
+// counted in the bucket of its creation time under its current status, so a status change moves
+// it from one rollup row to another.
+public class TransactionRollupDeltas {
+
+    public record Key(LocalDateTime bucketStart, TransactionStatus status, Currency currency, PaymentMethod paymentMethod) {}
+
+    public record Delta(long count, BigDecimal amount) {
+        Delta plus(Delta other) {
+            return new Delta(count + other.count, amount.add(other.amount));
+        }
+    }
+
+    // Fixed key order so concurrent writers lock rollup rows in the same order
+    private static final Comparator<Key> KEY_ORDER = Comparator.comparing(Key::bucketStart)
+            .thenComparing(Key::status)
+            .thenComparing(Key::currency)
+            .thenComparing(Key::paymentMethod);
+
+    private final Map<Key, Delta> hourly = new TreeMap<>(KEY_ORDER);
+    private final Map<Key, Delta> daily = new TreeMap<>(KEY_ORDER);
+
+    // previousStatus is null when the batch created the transaction
+    public void record(TransactionStatus previousStatus, TransactionReadModel readModel) {
+        if (previousStatus == readModel.getStatus()) {
+            return;
+        }
+        var amount = readModel.getAmount();
+        if (previousStatus != null) {
+            add(previousStatus, readModel, new Delta(-1L, amount.negate()));
+        }
+        add(readModel.getStatus(), readModel, new Delta(1L, amount));
+    }
+
+    public Map<Key, Delta> hourly() {
+        return hourly;
+    }
+
+    public Map<Key, Delta> daily() {
+        return daily;
+    }
+
+    public boolean isEmpty() {
+        return hourly.values().stream().allMatch(delta -> delta.count() == 0L);
+    }
+
+    private void add(TransactionStatus status, TransactionReadModel readModel, Delta delta) {
+        var createdAt = readModel.getCreatedAt();
+        hourly.merge(new Key(createdAt.truncatedTo(ChronoUnit.HOURS), status,
+                readModel.getCurrency(), readModel.getPaymentMethod()), delta, Delta::plus);
+        daily.merge(new Key(createdAt.truncatedTo(ChronoUnit.DAYS), status,
+                readModel.getCurrency(), readModel.getPaymentMethod()), delta, Delta::plus);
+    }
+}
@@ -0,0 +1,56 @@
+package com.paymentprocessor.payment.query;
+
+import com.paymentprocessor.common.model.TransactionStatus;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.TreeMap;
+
+// Net change to the summary counters caused by one projection batch
+public class TransactionSummaryDeltas {
+
+    private final Map<TransactionStatus, Long> statusCounts = new EnumMap<>(TransactionStatus.class);
+    private final Map<LocalDate, BigDecimal> completedAmounts = new TreeMap<>();
+    private final Map<LocalDate, Long> completedCounts = new TreeMap<>();
+
+    // previousStatus is null when the batch created the transaction
+    public void record(TransactionStatus previousStatus, TransactionReadModel readModel) {
+        var status = readModel.getStatus();
+        if (previousStatus == status) {
+            return;
+        }
+        if (previousStatus != null) {
+            statusCounts.merge(previousStatus, -1L, Long::sum);
+        }
+        statusCounts.merge(status, 1L, Long::sum);
+
+        // Completed amounts are bucketed by creation day, matching the summary's "today" semantics
+        var day = readModel.getCreatedAt().toLocalDate();
+        if (status == TransactionStatus.COMPLETED) {
+            completedAmounts.merge(day, readModel.getAmount(), BigDecimal::add);
+            completedCounts.merge(day, 1L, Long::sum);
+        } else if (previousStatus == TransactionStatus.COMPLETED) {
+            completedAmounts.merge(day, readModel.getAmount().negate(), BigDecimal::add);
+            completedCounts.merge(day, -1L, Long::sum);
+        }
+    }
+
+    public boolean isEmpty() {
+        return statusCounts.values().stream().allMatch(delta -> delta == 0L) && completedCounts.isEmpty();
+    }
+
+    // Iteration order is fixed (enum order, then date order) so concurrent writers lock rows in the same order
+    public Map<TransactionStatus, Long> statusCounts() {
+        return statusCounts;
+    }
+
+    public Map<LocalDate, BigDecimal> completedAmounts() {
+        return completedAmounts;
+    }
+
+    public Map<LocalDate, Long> completedCounts() {
+        return completedCounts;
+    }
+}
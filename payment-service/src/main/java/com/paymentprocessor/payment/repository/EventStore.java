@@ -4,10 +4,20 @@ import com.paymentprocessor.common.event.BaseEvent;
 
 import java.util.List;
 import java.util.Optional;
+import java.util.function.Consumer;
 
 public interface EventStore {
     void saveEvents(String aggregateId, List<BaseEvent> events,
                     long expectedVersion);
     List<BaseEvent> getEventsForAggregate(String aggregateId);
+    List<BaseEvent> getEventsForAggregate(String aggregateId, long afterSequenceNumber);
     Optional<Long> getLastVersionForAggregate(String aggregateId);
+
+    // Global stream in position order, starting after fromPosition
+    List<StoredEvent> readAll(long fromPosition, int maxCount);
+    void streamAll(long fromPosition, Consumer<StoredEvent> consumer);
+    long getLastPosition();
+
+    // Everything up to upToPosition, grouped by aggregate and in sequence order within each one
+    void streamAllByAggregate(long upToPosition, Consumer<StoredEvent> consumer);
 }
@@ -1,18 +1,23 @@
 package com.paymentprocessor.payment.repository;
 
+import com.fasterxml.jackson.core.JsonProcessingException;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.paymentprocessor.common.event.BaseEvent;
 import com.paymentprocessor.common.exception.PaymentProcessingFailedException;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.dao.DuplicateKeyException;
 import org.springframework.dao.OptimisticLockingFailureException;
 import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
 import org.springframework.stereotype.Repository;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.sql.ResultSet;
 import java.sql.SQLException;
+import java.util.ArrayList;
 import java.util.List;
 import java.util.Optional;
+import java.util.function.Consumer;
 
 @Slf4j
 @Repository
@@ -30,12 +35,48 @@ public class JdbcEventStore implements EventStore {
             ORDER BY sequence_number ASC
             """;
 
+    private static final String LOAD_EVENTS_AFTER_SQL = """
+            SELECT event_type, payload, timestamp
+            FROM domain_events
+            WHERE aggregate_identifier = ? AND sequence_number > ?
+            ORDER BY sequence_number ASC
+            """;
+
     private static final String GET_LAST_VERSION_SQL = """
             SELECT MAX(sequence_number)
             FROM domain_events
             WHERE aggregate_identifier = ?
             """;
 
+    private static final String READ_ALL_SQL = """
+            SELECT id, aggregate_identifier, sequence_number, payload
+            FROM domain_events
+            WHERE id > ?
+            ORDER BY id ASC
+            LIMIT ?
+            """;
+
+    private static final String STREAM_ALL_SQL = """
+            SELECT id, aggregate_identifier, sequence_number, payload
+            FROM domain_events
+            WHERE id > ?
+            ORDER BY id ASC
+            """;
+
+    private static final String STREAM_ALL_BY_AGGREGATE_SQL = """
+            SELECT id, aggregate_identifier, sequence_number, payload
+            FROM domain_events
+            WHERE id <= ?
+            ORDER BY aggregate_identifier ASC, sequence_number ASC
+            """;
+
+    private static final String GET_LAST_POSITION_SQL = """
+            SELECT COALESCE(MAX(id), 0)
+            FROM domain_events
+            """;
+
+    private static final int STREAM_FETCH_SIZE = 1000;
+
     private final JdbcTemplate jdbcTemplate;
     private final ObjectMapper objectMapper;
 
@@ -49,30 +90,32 @@ public class JdbcEventStore implements EventStore {
     public void saveEvents(String aggregateId, List<BaseEvent> events, long expectedVersion) {
         log.info("Saving {} events for aggregate: {}", events.size(), aggregateId);
 
-        // Check Optimistic locking
-        var currentVersion = getLastVersionForAggregate(aggregateId);
-        if(currentVersion.isPresent() && !currentVersion.get().equals(expectedVersion)) {
-            throw new OptimisticLockingFailureException(
-                    "Aggregate %s has been modified. Expected version: %d Current version: %d"
-                            .formatted(aggregateId, expectedVersion, currentVersion.get()));
-        }
-
+        var batchArgs = new ArrayList<Object[]>(events.size());
         long sequenceNumber = expectedVersion;
         for (var event : events) {
             sequenceNumber++;
             try {
                 var payload = objectMapper.writeValueAsString(event);
-                jdbcTemplate.update(SAVE_EVENT_SQL, aggregateId, sequenceNumber,
-                        event.eventType(), payload, event.timestamp());
-                log.debug("Saved event {} for aggregate {} with sequence {}",
-                        event.eventType(), aggregateId, sequenceNumber);
-
-            } catch (Exception e) {
-                log.error("Failed to save event for aggregate: {}", aggregateId, e);
-                throw new PaymentProcessingFailedException("Failed to save event", e);
+                batchArgs.add(new Object[]{aggregateId, sequenceNumber,
+                        event.eventType(), payload, event.timestamp()});
+            } catch (JsonProcessingException e) {
+                log.error("Failed to serialize event {} for aggregate: {}", event.eventType(), aggregateId, e);
+                throw new PaymentProcessingFailedException("Failed to serialize event", e);
             }
         }
 
+        // Single round-trip per aggregate save; the driver rewrites the batch into a
+        // multi-row INSERT when reWriteBatchedInserts is enabled on the connection URL.
+        // Optimistic locking relies on UNIQUE(aggregate_identifier, sequence_number):
+        // a concurrent writer that already claimed expectedVersion + 1 makes the insert fail.
+        try {
+            jdbcTemplate.batchUpdate(SAVE_EVENT_SQL, batchArgs);
+        } catch (DuplicateKeyException e) {
+            throw new OptimisticLockingFailureException(
+                    "Aggregate %s has been modified. Expected version: %d"
+                            .formatted(aggregateId, expectedVersion), e);
+        }
+
         log.info("Successfully saved {} events for aggregate: {}", events.size(), aggregateId);
     }
 
@@ -87,6 +130,17 @@ public class JdbcEventStore implements EventStore {
         return events;
     }
 
+    @Override
+    public List<BaseEvent> getEventsForAggregate(String aggregateId, long afterSequenceNumber) {
+        log.debug("Loading events for aggregate: {} after sequence {}", aggregateId, afterSequenceNumber);
+
+        var events = jdbcTemplate.query(LOAD_EVENTS_AFTER_SQL,
+                this::mapRowToEvent, aggregateId, afterSequenceNumber);
+
+        log.debug("Loaded {} events for aggregate: {}", events.size(), aggregateId);
+        return events;
+    }
+
 
     @Override
     public Optional<Long> getLastVersionForAggregate(String aggregateId) {
@@ -95,9 +149,56 @@ public class JdbcEventStore implements EventStore {
         return Optional.ofNullable(version);
     }
 
+    @Override
+    @Transactional(readOnly = true)
+    public List<StoredEvent> readAll(long fromPosition, int maxCount) {
+        var events = new ArrayList<StoredEvent>(Math.min(maxCount, STREAM_FETCH_SIZE));
+        query(READ_ALL_SQL, rs -> events.add(mapRowToStoredEvent(rs)), fromPosition, maxCount);
+        return events;
+    }
+
+    // The PostgreSQL driver only uses a server-side cursor when autocommit is off and a fetch
+    // size is set, hence the read-only transaction; rows are handed over as they arrive.
+    @Override
+    @Transactional(readOnly = true)
+    public void streamAll(long fromPosition, Consumer<StoredEvent> consumer) {
+        query(STREAM_ALL_SQL, rs -> consumer.accept(mapRowToStoredEvent(rs)), fromPosition);
+    }
+
+    @Override
+    public long getLastPosition() {
+        return jdbcTemplate.queryForObject(GET_LAST_POSITION_SQL, Long.class);
+    }
+
+    // Walks the (aggregate_identifier, sequence_number) unique index, so no sort is needed
+    @Override
+    @Transactional(readOnly = true)
+    public void streamAllByAggregate(long upToPosition, Consumer<StoredEvent> consumer) {
+        query(STREAM_ALL_BY_AGGREGATE_SQL, rs -> consumer.accept(mapRowToStoredEvent(rs)), upToPosition);
+    }
+
+    private void query(String sql, RowCallbackHandler handler, Object... args) {
+        jdbcTemplate.query(connection -> {
+            var statement = connection.prepareStatement(sql, ResultSet.TYPE_FORWARD_ONLY, ResultSet.CONCUR_READ_ONLY);
+            statement.setFetchSize(STREAM_FETCH_SIZE);
+            for (int i = 0; i < args.length; i++) {
+                statement.setObject(i + 1, args[i]);
+            }
+            return statement;
+        }, handler);
+    }
+
+    private StoredEvent mapRowToStoredEvent(ResultSet rs) throws SQLException {
+        return new StoredEvent(
+                rs.getLong("id"),
+                rs.getString("aggregate_identifier"),
+                rs.getLong("sequence_number"),
+                mapRowToEvent(rs, rs.getRow())
+        );
+    }
+
     private BaseEvent mapRowToEvent(ResultSet rs, int rowNum) throws SQLException {
         try {
-            var eventType = rs.getString("event_type");
             var payload = rs.getString("payload");
             return objectMapper.readValue(payload, BaseEvent.class);
         } catch (Exception e) {
@@ -0,0 +1,71 @@
+package com.paymentprocessor.payment.repository;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.paymentprocessor.common.exception.PaymentProcessingFailedException;
+import com.paymentprocessor.payment.aggregate.TransactionSnapshot;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.Optional;
+
+@Slf4j
+@Repository
+public class JdbcSnapshotStore implements SnapshotStore {
+
+    // Only the latest snapshot per aggregate is kept; older ones never win the upsert.
+    private static final String SAVE_SNAPSHOT_SQL = """
+            INSERT INTO snapshots (aggregate_identifier, sequence_number, payload, timestamp)
+            VALUES (?, ?, ?::jsonb, ?)
+            ON CONFLICT (aggregate_identifier) DO UPDATE
+            SET sequence_number = EXCLUDED.sequence_number,
+                payload = EXCLUDED.payload,
+                timestamp = EXCLUDED.timestamp
+            WHERE snapshots.sequence_number < EXCLUDED.sequence_number
+            """;
+
+    private static final String LOAD_SNAPSHOT_SQL = """
+            SELECT payload
+            FROM snapshots
+            WHERE aggregate_identifier = ?
+            """;
+
+    private final JdbcTemplate jdbcTemplate;
+    private final ObjectMapper objectMapper;
+
+    public JdbcSnapshotStore(JdbcTemplate jdbcTemplate, ObjectMapper objectMapper) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.objectMapper = objectMapper;
+    }
+
+    @Override
+    public void saveSnapshot(TransactionSnapshot snapshot) {
+        try {
+            var payload = objectMapper.writeValueAsString(snapshot);
+            jdbcTemplate.update(SAVE_SNAPSHOT_SQL, snapshot.transactionId(), snapshot.version(),
+                    payload, LocalDateTime.now());
+            log.debug("Saved snapshot for aggregate {} at version {}", snapshot.transactionId(), snapshot.version());
+        } catch (JsonProcessingException e) {
+            log.error("Failed to serialize snapshot for aggregate: {}", snapshot.transactionId(), e);
+            throw new PaymentProcessingFailedException("Failed to serialize snapshot", e);
+        }
+    }
+
+    @Override
+    public Optional<TransactionSnapshot> getLatestSnapshot(String aggregateId) {
+        var payloads = jdbcTemplate.queryForList(LOAD_SNAPSHOT_SQL, String.class, aggregateId);
+        if (payloads.isEmpty()) {
+            return Optional.empty();
+        }
+
+        try {
+            return Optional.of(objectMapper.readValue(payloads.get(0), TransactionSnapshot.class));
+        } catch (JsonProcessingException e) {
+            // An unreadable snapshot is not fatal: the aggregate can always be rebuilt from its events
+            log.warn("Ignoring unreadable snapshot for aggregate: {}", aggregateId, e);
+            return Optional.empty();
+        }
+    }
+}
@@ -0,0 +1,10 @@
+package com.paymentprocessor.payment.repository;
+
+import com.paymentprocessor.payment.aggregate.TransactionSnapshot;
+
+import java.util.Optional;
+
+public interface SnapshotStore {
+    void saveSnapshot(TransactionSnapshot snapshot);
+    Optional<TransactionSnapshot> getLatestSnapshot(String aggregateId);
+}
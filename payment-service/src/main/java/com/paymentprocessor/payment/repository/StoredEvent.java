@@ -0,0 +1,11 @@
+package com.paymentprocessor.payment.repository;
+
+import com.paymentprocessor.common.event.BaseEvent;
+
+// An event together with its global position (domain_events.id) in the store
+public record StoredEvent(
+        long position,
+        String aggregateId,
+        long sequenceNumber,
+        BaseEvent event
+) {}
@@ -0,0 +1,48 @@
+package com.paymentprocessor.payment.repository;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.paymentprocessor.payment.aggregate.TransactionSnapshot;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.Optional;
+
+// Entries are immutable snapshots rather than aggregates, so every load hydrates its own
+// instance and an in-flight command can never leak uncommitted state to another one.
+@Slf4j
+@Component
+public class TransactionAggregateCache {
+
+    private final Cache<String, TransactionSnapshot> cache;
+
+    public TransactionAggregateCache(MeterRegistry meterRegistry,
+                                     @Value("${payment.aggregate-cache.max-size:10000}") long maxSize,
+                                     @Value("${payment.aggregate-cache.ttl:5m}") Duration ttl) {
+        this.cache = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfterWrite(ttl)
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, cache, "transaction.aggregate.cache");
+    }
+
+    public Optional<TransactionSnapshot> get(String transactionId) {
+        return Optional.ofNullable(cache.getIfPresent(transactionId));
+    }
+
+    public void put(TransactionSnapshot snapshot) {
+        // Never let a slower writer replace a newer version of the same aggregate
+        cache.asMap().merge(snapshot.transactionId(), snapshot,
+                (current, candidate) -> candidate.version() >= current.version() ? candidate : current);
+    }
+
+    public void invalidate(String transactionId) {
+        log.debug("Invalidating cached aggregate: {}", transactionId);
+        cache.invalidate(transactionId);
+    }
+}
@@ -2,8 +2,13 @@ package com.paymentprocessor.payment.repository;
 
 import com.paymentprocessor.common.exception.TransactionNotFoundException;
 import com.paymentprocessor.payment.aggregate.TransactionAggregate;
+import com.paymentprocessor.payment.aggregate.TransactionSnapshot;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.OptimisticLockingFailureException;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
 
 import java.util.Optional;
 
@@ -12,9 +17,18 @@ import java.util.Optional;
 public class TransactionAggregateRepository {
 
     private final EventStore eventStore;
+    private final SnapshotStore snapshotStore;
+    private final TransactionAggregateCache aggregateCache;
+    private final int snapshotFrequency;
 
-    public TransactionAggregateRepository(EventStore eventStore) {
+    public TransactionAggregateRepository(EventStore eventStore,
+                                          SnapshotStore snapshotStore,
+                                          TransactionAggregateCache aggregateCache,
+                                          @Value("${payment.snapshot.frequency:50}") int snapshotFrequency) {
         this.eventStore = eventStore;
+        this.snapshotStore = snapshotStore;
+        this.aggregateCache = aggregateCache;
+        this.snapshotFrequency = snapshotFrequency;
     }
 
     public void save(TransactionAggregate aggregate) {
@@ -27,14 +41,58 @@ public class TransactionAggregateRepository {
         }
 
         long expectedVersion = aggregate.getVersion() - uncommittedEvents.size();
-        eventStore.saveEvents(aggregate.getTransactionId(), uncommittedEvents, expectedVersion);
+        try {
+            eventStore.saveEvents(aggregate.getTransactionId(), uncommittedEvents, expectedVersion);
+        } catch (OptimisticLockingFailureException e) {
+            // Our cached copy is stale; the retry must reload from the event store
+            aggregateCache.invalidate(aggregate.getTransactionId());
+            throw e;
+        }
         aggregate.clearUncommittedEvents();
 
+        var snapshot = aggregate.toSnapshot();
+        if (shouldSnapshot(expectedVersion, aggregate.getVersion())) {
+            snapshotStore.saveSnapshot(snapshot);
+        }
+        cacheAfterCommit(snapshot);
+
         log.info("Successfully saved aggregate: {}", aggregate.getTransactionId());
     }
 
     public TransactionAggregate findById(String transactionId) {
         log.debug("Loading aggregate: {}", transactionId);
+
+        var cached = aggregateCache.get(transactionId);
+        if (cached.isPresent()) {
+            log.debug("Loaded aggregate: {} from cache at version {}", transactionId, cached.get().version());
+            return TransactionAggregate.fromSnapshot(cached.get());
+        }
+
+        var aggregate = loadFromStore(transactionId);
+        aggregateCache.put(aggregate.toSnapshot());
+        return aggregate;
+    }
+
+    public Optional<TransactionAggregate> findByIdOptional(String transactionId) {
+        try {
+            return Optional.of(findById(transactionId));
+        } catch (TransactionNotFoundException e) {
+            return Optional.empty();
+        }
+    }
+
+    private TransactionAggregate loadFromStore(String transactionId) {
+        var snapshot = snapshotStore.getLatestSnapshot(transactionId);
+        if (snapshot.isPresent()) {
+            var aggregate = TransactionAggregate.fromSnapshot(snapshot.get());
+            var events = eventStore.getEventsForAggregate(transactionId, aggregate.getVersion());
+            aggregate.loadFromHistory(events);
+
+            log.debug("Successfully loaded aggregate: {} from snapshot at version {} plus {} events",
+                    transactionId, snapshot.get().version(), events.size());
+            return aggregate;
+        }
+
         var events = eventStore.getEventsForAggregate(transactionId);
         if (events.isEmpty()) {
             log.warn("No events found for aggregate: {}", transactionId);
@@ -48,11 +106,27 @@ public class TransactionAggregateRepository {
         return aggregate;
     }
 
-    public Optional<TransactionAggregate> findByIdOptional(String transactionId) {
-        try {
-            return Optional.of(findById(transactionId));
-        } catch (TransactionNotFoundException e) {
-            return Optional.empty();
+    // Only committed state may enter the cache; a rolled back save must not be visible to later loads
+    private void cacheAfterCommit(TransactionSnapshot snapshot) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            aggregateCache.put(snapshot);
+            return;
         }
+
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCompletion(int status) {
+                if (status == STATUS_COMMITTED) {
+                    aggregateCache.put(snapshot);
+                } else {
+                    aggregateCache.invalidate(snapshot.transactionId());
+                }
+            }
+        });
+    }
+
+    // Snapshot whenever a save crosses a multiple of the configured frequency
+    private boolean shouldSnapshot(long previousVersion, long currentVersion) {
+        return snapshotFrequency > 0 && currentVersion / snapshotFrequency > previousVersion / snapshotFrequency;
     }
 }
@@ -4,7 +4,7 @@ import com.paymentprocessor.common.event.FraudCheckCompletedEvent;
 import com.paymentprocessor.common.event.PaymentFailedEvent;
 import com.paymentprocessor.common.event.PaymentProcessedEvent;
 import com.paymentprocessor.payment.command.ProcessFraudCheckCommand;
-import com.paymentprocessor.payment.service.TransactionCommandService;
+import com.paymentprocessor.payment.service.CommandDispatcher;
 import io.github.resilience4j.retry.annotation.Retry;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.kafka.annotation.KafkaListener;
@@ -14,10 +14,10 @@ import org.springframework.stereotype.Component;
 @Component
 public class TransactionSagaOrchestrator {
 
-    private final TransactionCommandService commandService;
+    private final CommandDispatcher commandDispatcher;
 
-    public TransactionSagaOrchestrator(TransactionCommandService commandService) {
-        this.commandService = commandService;
+    public TransactionSagaOrchestrator(CommandDispatcher commandDispatcher) {
+        this.commandDispatcher = commandDispatcher;
     }
 
     @KafkaListener(topics = "fraud-check-completed", groupId = "payment-saga")
@@ -31,7 +31,7 @@ public class TransactionSagaOrchestrator {
                     event.riskScore(),
                     event.reason()
             );
-            commandService.handle(command);
+            commandDispatcher.execute(command);
 
             if (event.passed()) {
                 log.info("Saga: Fraud check passed, proceeding with payment for transaction: {}", event.transactionId());
@@ -43,7 +43,7 @@ public class TransactionSagaOrchestrator {
             }
         } catch (Exception e) {
             log.error("Saga: Failed to process fraud check result for transaction: {}", event.transactionId(), e);
-            // In a real scenario, we might publish a saga compensation event here.
+            throw e; // Let Kafka redeliver, including when the command lanes are overloaded
         }
     }
 
@@ -0,0 +1,202 @@
+package com.paymentprocessor.payment.service;
+
+import com.paymentprocessor.common.exception.ServiceOverloadedException;
+import com.paymentprocessor.payment.command.BaseCommand;
+import com.paymentprocessor.payment.command.CompletePaymentCommand;
+import com.paymentprocessor.payment.command.CreateTransactionCommand;
+import com.paymentprocessor.payment.command.ProcessFraudCheckCommand;
+import com.paymentprocessor.payment.command.ProcessPaymentCommand;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+
+// Single writer per aggregate: a command is hashed by transaction ID onto one of a fixed set of
+// serial lanes, each a one-thread executor with its own mailbox. Commands for the same transaction
+// run one after another in arrival order, so a Kafka redelivery racing the saga queues up behind it
+// instead of colliding on the event store's version check; different transactions run in parallel.
+// A full mailbox makes execute() wait for space, so a burst slows the Kafka consumers down instead
+// of failing their records; dispatch() still fails fast.
+@Slf4j
+@Service
+public class CommandDispatcher {
+
+    private final Lane[] lanes;
+    private final int laneMask;
+    private final long enqueueTimeoutNanos;
+
+    @Autowired
+    public CommandDispatcher(TransactionCommandService commandService,
+                             MeterRegistry meterRegistry,
+                             @Value("${payment.command-dispatcher.lanes:8}") int lanes,
+                             @Value("${payment.command-dispatcher.mailbox-capacity:10000}") int mailboxCapacity,
+                             @Value("${payment.command-dispatcher.enqueue-timeout:10s}") Duration enqueueTimeout) {
+        this(command -> handle(commandService, command), lanes, mailboxCapacity, enqueueTimeout);
+        Gauge.builder("payment.command.dispatcher.queued", this, CommandDispatcher::queuedCommands)
+                .description("Number of commands waiting in lane mailboxes")
+                .register(meterRegistry);
+    }
+
+    CommandDispatcher(Consumer<BaseCommand> handler, int lanes, int mailboxCapacity, Duration enqueueTimeout) {
+        if (lanes < 1 || mailboxCapacity < 1) {
+            throw new IllegalArgumentException("Command dispatcher needs at least one lane and one mailbox slot");
+        }
+        // Power of two so the lane is a mask of the hash rather than a modulo
+        int laneCount = lanes == 1 ? 1 : Integer.highestOneBit(lanes - 1) << 1;
+        this.lanes = new Lane[laneCount];
+        this.laneMask = laneCount - 1;
+        this.enqueueTimeoutNanos = enqueueTimeout.toNanos();
+        for (int i = 0; i < laneCount; i++) {
+            this.lanes[i] = new Lane(i, handler, mailboxCapacity);
+        }
+    }
+
+    // Completes once the command has been handled on its aggregate's lane
+    public CompletableFuture<Void> dispatch(BaseCommand command) {
+        return laneFor(command.transactionId()).submit(command, 0);
+    }
+
+    // Blocks the caller until the command is handled and rethrows its failure, so Kafka listeners
+    // keep their redelivery semantics. Waits up to the enqueue timeout for mailbox space first.
+    public void execute(BaseCommand command) {
+        try {
+            laneFor(command.transactionId()).submit(command, enqueueTimeoutNanos).join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw e;
+        }
+    }
+
+    int laneCount() {
+        return lanes.length;
+    }
+
+    int laneIndex(String transactionId) {
+        return laneFor(transactionId).index;
+    }
+
+    int queuedCommands() {
+        return Arrays.stream(lanes).mapToInt(lane -> lane.executor.getQueue().size()).sum();
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        for (var lane : lanes) {
+            lane.executor.shutdown();
+        }
+        for (var lane : lanes) {
+            try {
+                if (!lane.executor.awaitTermination(10, TimeUnit.SECONDS)) {
+                    log.warn("Command lane {} did not drain {} queued commands before shutdown",
+                            lane.index, lane.executor.getQueue().size());
+                    lane.executor.shutdownNow();
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                lane.executor.shutdownNow();
+            }
+        }
+    }
+
+    private Lane laneFor(String transactionId) {
+        int hash = transactionId.hashCode();
+        // Fold the high bits in, since the mask only keeps the low ones
+        return lanes[(hash ^ (hash >>> 16)) & laneMask];
+    }
+
+    private static void handle(TransactionCommandService commandService, BaseCommand command) {
+        switch (command) {
+            case CreateTransactionCommand create -> commandService.handle(create);
+            case ProcessFraudCheckCommand fraudCheck -> commandService.handle(fraudCheck);
+            case ProcessPaymentCommand payment -> commandService.handle(payment);
+            case CompletePaymentCommand completion -> commandService.handle(completion);
+        }
+    }
+
+    private static final class Lane {
+
+        private final int index;
+        private final Consumer<BaseCommand> handler;
+        private final ThreadPoolExecutor executor;
+        private volatile Thread thread;
+
+        Lane(int index, Consumer<BaseCommand> handler, int mailboxCapacity) {
+            this.index = index;
+            this.handler = handler;
+            this.executor = new ThreadPoolExecutor(1, 1, 0L, TimeUnit.MILLISECONDS,
+                    new LinkedBlockingQueue<>(mailboxCapacity), runnable -> {
+                        var laneThread = new Thread(runnable, "CommandLane-" + index);
+                        thread = laneThread;
+                        return laneThread;
+                    });
+            // Tasks are put on the queue directly, so the worker has to exist before the first one
+            executor.prestartCoreThread();
+        }
+
+        CompletableFuture<Void> submit(BaseCommand command, long enqueueTimeoutNanos) {
+            // A handler that dispatches for its own lane would otherwise wait on itself forever
+            if (Thread.currentThread() == thread) {
+                try {
+                    handler.accept(command);
+                    return CompletableFuture.completedFuture(null);
+                } catch (RuntimeException e) {
+                    return CompletableFuture.failedFuture(e);
+                }
+            }
+
+            var result = new CompletableFuture<Void>();
+            Runnable task = () -> {
+                try {
+                    handler.accept(command);
+                    result.complete(null);
+                } catch (Throwable e) {
+                    result.completeExceptionally(e);
+                }
+            };
+            try {
+                if (!enqueue(task, enqueueTimeoutNanos)) {
+                    result.completeExceptionally(
+                            new ServiceOverloadedException("command lane " + index + " mailbox is full", 1));
+                }
+            } catch (RejectedExecutionException e) {
+                result.completeExceptionally(e);
+            }
+            return result;
+        }
+
+        private boolean enqueue(Runnable task, long timeoutNanos) {
+            if (executor.isShutdown()) {
+                throw new RejectedExecutionException("Command lane " + index + " is shut down");
+            }
+            boolean queued;
+            try {
+                queued = timeoutNanos > 0
+                        ? executor.getQueue().offer(task, timeoutNanos, TimeUnit.NANOSECONDS)
+                        : executor.getQueue().offer(task);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new RejectedExecutionException("Interrupted waiting for command lane " + index, e);
+            }
+            // The same recheck ThreadPoolExecutor.execute makes, since it is bypassed here
+            if (queued && executor.isShutdown() && executor.remove(task)) {
+                throw new RejectedExecutionException("Command lane " + index + " is shut down");
+            }
+            return queued;
+        }
+    }
+}
@@ -0,0 +1,105 @@
+package com.paymentprocessor.payment.service;
+
+import com.paymentprocessor.common.exception.ServiceOverloadedException;
+import com.paymentprocessor.payment.command.CompletePaymentCommand;
+import com.paymentprocessor.payment.command.ProcessPaymentCommand;
+import com.paymentprocessor.payment.gateway.PaymentGateway;
+import com.paymentprocessor.payment.gateway.PaymentGatewayRequest;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+// Runs a payment as two short transactions around the gateway call, so no JDBC
+// connection or bulkhead permit is held while waiting on the network. Both go through the
+// transaction's command lane, so the outcome can never race another command for the same payment.
+// A payment whose outcome is unknown stays in PAYMENT_PROCESSING until PaymentReconciliationJob
+// resumes it; the gateway authorizes idempotently by transaction ID, so that never charges twice.
+@Slf4j
+@Service
+public class PaymentProcessingService {
+
+    private final CommandDispatcher commandDispatcher;
+    private final PaymentGateway paymentGateway;
+    private final Executor outcomeExecutor;
+    private final long gatewayTimeoutMillis;
+    private final Duration overloadRetryInterval;
+
+    public PaymentProcessingService(CommandDispatcher commandDispatcher,
+                                    PaymentGateway paymentGateway,
+                                    @Qualifier("paymentOutcomeExecutor") Executor outcomeExecutor,
+                                    @Value("${payment.gateway.timeout:30000}") long gatewayTimeoutMillis,
+                                    @Value("${payment.gateway.outcome-retry-interval:1s}") Duration overloadRetryInterval) {
+        this.commandDispatcher = commandDispatcher;
+        this.paymentGateway = paymentGateway;
+        this.outcomeExecutor = outcomeExecutor;
+        this.gatewayTimeoutMillis = gatewayTimeoutMillis;
+        this.overloadRetryInterval = overloadRetryInterval;
+    }
+
+    public CompletableFuture<Void> processPayment(ProcessPaymentCommand command) {
+        // Phase 1: record PaymentProcessingStartedEvent and commit
+        commandDispatcher.execute(command);
+        return resumePayment(command);
+    }
+
+    // Phase 2: call the gateway outside any transaction, then record the outcome. Recording can
+    // block on a full lane, so it runs on its own executor rather than the gateway's threads.
+    public CompletableFuture<Void> resumePayment(ProcessPaymentCommand command) {
+        return paymentGateway.authorize(PaymentGatewayRequest.from(command))
+                .orTimeout(gatewayTimeoutMillis, TimeUnit.MILLISECONDS)
+                .handle((gatewayTransactionId, failure) -> outcome(command, gatewayTransactionId, failure))
+                .thenAcceptAsync(completion -> completion.ifPresentOrElse(this::recordOutcome,
+                        () -> log.warn("Payment gateway timed out for transaction: {}; outcome left for reconciliation",
+                                command.transactionId())), outcomeExecutor)
+                .whenComplete((ignored, failure) -> {
+                    if (failure != null) {
+                        log.error("Failed to record payment outcome for transaction: {}",
+                                command.transactionId(), failure);
+                    }
+                });
+    }
+
+    // By now the gateway has moved the money, so an overloaded lane is waited out, never a reason
+    // to drop the outcome
+    private void recordOutcome(CompletePaymentCommand completion) {
+        while (true) {
+            try {
+                commandDispatcher.execute(completion);
+                return;
+            } catch (ServiceOverloadedException e) {
+                log.warn("Command lane still full, retrying payment outcome for transaction: {}",
+                        completion.transactionId());
+                try {
+                    Thread.sleep(overloadRetryInterval);
+                } catch (InterruptedException interrupted) {
+                    Thread.currentThread().interrupt();
+                    throw e;
+                }
+            }
+        }
+    }
+
+    // Empty when the gateway did not answer in time: it may still have authorized the payment, so
+    // recording a failure here could lead to a retry charging twice
+    private static Optional<CompletePaymentCommand> outcome(ProcessPaymentCommand command, String gatewayTransactionId,
+                                                            Throwable failure) {
+        if (failure == null) {
+            return Optional.of(CompletePaymentCommand.succeeded(command, gatewayTransactionId));
+        }
+        var cause = failure instanceof CompletionException && failure.getCause() != null ? failure.getCause() : failure;
+        if (cause instanceof TimeoutException) {
+            return Optional.empty();
+        }
+        return Optional.of(CompletePaymentCommand.failed(command,
+                cause.getMessage() != null ? cause.getMessage() : cause.getClass().getSimpleName()));
+    }
+}
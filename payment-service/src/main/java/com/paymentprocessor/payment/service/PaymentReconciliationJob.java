@@ -0,0 +1,76 @@
+package com.paymentprocessor.payment.service;
+
+import com.paymentprocessor.common.event.PaymentProcessingStartedEvent;
+import com.paymentprocessor.common.model.TransactionStatus;
+import com.paymentprocessor.payment.command.ProcessPaymentCommand;
+import com.paymentprocessor.payment.query.JdbcTransactionReadModelStore;
+import com.paymentprocessor.payment.repository.EventStore;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+
+// Resumes payments stuck in PAYMENT_PROCESSING: the gateway timed out, the service stopped between
+// the two phases, or recording the outcome failed. The read model only nominates candidates; the
+// event stream decides whether a payment is really stuck. Resuming asks the gateway again, which
+// returns the original outcome, so running this on every instance is safe.
+@Slf4j
+@Component
+@ConditionalOnProperty(name = "payment.reconciliation.enabled", havingValue = "true", matchIfMissing = true)
+public class PaymentReconciliationJob {
+
+    private final JdbcTransactionReadModelStore readModelStore;
+    private final EventStore eventStore;
+    private final PaymentProcessingService paymentProcessingService;
+    private final Duration staleAfter;
+    private final int batchSize;
+
+    public PaymentReconciliationJob(JdbcTransactionReadModelStore readModelStore,
+                                    EventStore eventStore,
+                                    PaymentProcessingService paymentProcessingService,
+                                    @Value("${payment.reconciliation.stale-after:5m}") Duration staleAfter,
+                                    @Value("${payment.reconciliation.batch-size:100}") int batchSize) {
+        this.readModelStore = readModelStore;
+        this.eventStore = eventStore;
+        this.paymentProcessingService = paymentProcessingService;
+        this.staleAfter = staleAfter;
+        this.batchSize = batchSize;
+    }
+
+    @Scheduled(fixedDelayString = "${payment.reconciliation.poll-interval:60000}")
+    public void reconcileStuckPayments() {
+        try {
+            var cutoff = LocalDateTime.now().minus(staleAfter);
+            var resumed = readModelStore
+                    .findIdsByStatusCreatedBefore(TransactionStatus.PAYMENT_PROCESSING, cutoff, batchSize)
+                    .stream()
+                    .map(transactionId -> resumeIfStuck(transactionId, cutoff))
+                    .flatMap(Optional::stream)
+                    .toArray(CompletableFuture[]::new);
+            // Failures are logged per payment and picked up again on the next run
+            CompletableFuture.allOf(resumed).exceptionally(failure -> null).join();
+        } catch (Exception e) {
+            log.error("Failed to reconcile stuck payments", e);
+        }
+    }
+
+    private Optional<CompletableFuture<Void>> resumeIfStuck(String transactionId, LocalDateTime cutoff) {
+        var events = eventStore.getEventsForAggregate(transactionId);
+        if (events.isEmpty()
+                || !(events.get(events.size() - 1) instanceof PaymentProcessingStartedEvent started)
+                || !started.timestamp().isBefore(cutoff)) {
+            return Optional.empty();
+        }
+
+        log.warn("Resuming payment for transaction: {}, in PAYMENT_PROCESSING since {}",
+                transactionId, started.timestamp());
+        return Optional.of(paymentProcessingService.resumePayment(
+                new ProcessPaymentCommand(transactionId, started.amount(), started.paymentGateway())));
+    }
+}
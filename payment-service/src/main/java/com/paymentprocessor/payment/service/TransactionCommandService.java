@@ -1,12 +1,13 @@
 package com.paymentprocessor.payment.service;
 
-import com.paymentprocessor.common.event.BaseEvent;
 import com.paymentprocessor.payment.aggregate.TransactionAggregate;
+import com.paymentprocessor.payment.command.CompletePaymentCommand;
 import com.paymentprocessor.payment.command.CreateTransactionCommand;
 import com.paymentprocessor.payment.command.ProcessFraudCheckCommand;
 import com.paymentprocessor.payment.command.ProcessPaymentCommand;
 import com.paymentprocessor.payment.metrics.PaymentMetrics;
-import com.paymentprocessor.payment.publisher.EventPublisher;
+import com.paymentprocessor.payment.outbox.JdbcOutboxRepository;
+import com.paymentprocessor.payment.outbox.OutboxMessage;
 import com.paymentprocessor.payment.repository.TransactionAggregateRepository;
 import io.github.resilience4j.bulkhead.annotation.Bulkhead;
 import io.github.resilience4j.retry.annotation.Retry;
@@ -14,25 +15,26 @@ import io.micrometer.core.instrument.Timer;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
-import org.springframework.transaction.support.TransactionSynchronization;
-import org.springframework.transaction.support.TransactionSynchronizationManager;
 
-import java.util.ArrayList;
 import java.util.List;
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
 
 @Slf4j
 @Service
 public class TransactionCommandService {
 
+    private static final String TRANSACTION_EVENTS_TOPIC = "transaction-events";
+
     private final TransactionAggregateRepository repository;
-    private final EventPublisher eventPublisher;
+    private final JdbcOutboxRepository outboxRepository;
     private final PaymentMetrics metrics;
 
     public TransactionCommandService(TransactionAggregateRepository repository,
-                                     EventPublisher eventPublisher,
+                                     JdbcOutboxRepository outboxRepository,
                                      PaymentMetrics metrics) {
         this.repository = repository;
-        this.eventPublisher = eventPublisher;
+        this.outboxRepository = outboxRepository;
         this.metrics = metrics;
     }
 
@@ -45,8 +47,7 @@ public class TransactionCommandService {
             log.info("Processing CreateTransactionCommand for transaction: {}", command.transactionId());
             var aggregate = new TransactionAggregate(command.transactionId());
             aggregate.handle(command);
-            repository.save(aggregate);
-            publishEventsAfterCommit(aggregate);
+            saveAndEnqueueEvents(aggregate);
             metrics.recordCommandSuccess("CreateTransactionCommand");
         } catch (Exception e) {
             metrics.recordCommandFailure("CreateTransactionCommand");
@@ -67,8 +68,7 @@ public class TransactionCommandService {
             log.info("Processing ProcessFraudCheckCommand for transaction: {}", command.transactionId());
             var aggregate = repository.findById(command.transactionId());
             aggregate.handle(command);
-            repository.save(aggregate);
-            publishEventsAfterCommit(aggregate);
+            saveAndEnqueueEvents(aggregate);
             metrics.recordCommandSuccess("ProcessFraudCheckCommand");
         } catch (Exception e) {
             metrics.recordCommandFailure("ProcessFraudCheckCommand");
@@ -88,8 +88,7 @@ public class TransactionCommandService {
             log.info("Processing ProcessPaymentCommand for transaction: {}", command.transactionId());
             var aggregate = repository.findById(command.transactionId());
             aggregate.handle(command);
-            repository.save(aggregate);
-            publishEventsAfterCommit(aggregate);
+            saveAndEnqueueEvents(aggregate);
             metrics.recordCommandSuccess("ProcessPaymentCommand");
         } catch (Exception e) {
             metrics.recordCommandFailure("ProcessPaymentCommand");
@@ -100,28 +99,40 @@ public class TransactionCommandService {
         }
     }
 
-    private void publishEventsAfterCommit(TransactionAggregate aggregate) {
-        List<BaseEvent> events = new ArrayList<>(aggregate.getUncommittedEvents());
-        aggregate.clearUncommittedEvents();
+    @Transactional
+    @Retry(name = "commandProcessing")
+    @Bulkhead(name = "commandProcessing", type = Bulkhead.Type.SEMAPHORE)
+    public void handle(CompletePaymentCommand command) {
+        var sample = Timer.start();
+        try {
+            log.info("Processing CompletePaymentCommand for transaction: {}", command.transactionId());
+            var aggregate = repository.findById(command.transactionId());
+            aggregate.handle(command);
+            saveAndEnqueueEvents(aggregate);
+            metrics.recordCommandSuccess("CompletePaymentCommand");
+        } catch (Exception e) {
+            metrics.recordCommandFailure("CompletePaymentCommand");
+            log.error("Failed to process CompletePaymentCommand for transaction: {}", command.transactionId(), e);
+            throw e;
+        } finally {
+            sample.stop(metrics.getCommandProcessingTimer());
+        }
+    }
 
-        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
-            @Override
-            public void afterCommit() {
-                log.info("Transaction committed, publishing {} events for aggregate {}", events.size(), aggregate.getTransactionId());
-                events.forEach(event -> {
-                    String topic = getTopicForEvent(event.getClass().getSimpleName());
-                    eventPublisher.publishAsync(topic, event.transactionId(), event)
-                            .thenRun(() -> log.debug("Published event: {} for transaction: {}",
-                                    event.getClass().getSimpleName(), event.transactionId()))
-                            .exceptionally(ex -> {
-                                log.error("Failed to publish event: {} for transaction: {}",
-                                        event.getClass().getSimpleName(), event.transactionId(), ex);
-                                // In production, this might go to a dead-letter queue
-                                return null;
-                            });
-                });
-            }
-        });
+    // Events go to the outbox in the same transaction as domain_events; OutboxRelay publishes them.
+    // Every event is also copied to transaction-events, the complete per-transaction history the
+    // read model projection consumes.
+    private void saveAndEnqueueEvents(TransactionAggregate aggregate) {
+        var events = List.copyOf(aggregate.getUncommittedEvents());
+        long firstSequence = aggregate.getVersion() - events.size() + 1;
+        repository.save(aggregate);
+        outboxRepository.append(IntStream.range(0, events.size())
+                .boxed()
+                .flatMap(i -> Stream.of(
+                        OutboxMessage.pending(getTopicForEvent(events.get(i).getClass().getSimpleName()),
+                                events.get(i), firstSequence + i),
+                        OutboxMessage.pending(TRANSACTION_EVENTS_TOPIC, events.get(i), firstSequence + i)))
+                .toList());
     }
 
     private String getTopicForEvent(String eventType) {
@@ -0,0 +1,150 @@
+package com.paymentprocessor.payment.service;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.io.SerializedString;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.paymentprocessor.payment.dto.ExportFormat;
+import com.paymentprocessor.payment.dto.TransactionDetailsDto;
+import com.paymentprocessor.payment.query.JdbcTransactionReadModelStore;
+import com.paymentprocessor.payment.query.TransactionReadModel;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.BufferedOutputStream;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.function.Consumer;
+
+// Writes each row to the response as the cursor yields it; nothing is collected, so memory use
+// is bounded by the fetch size and the output buffer whatever the range covers
+@Slf4j
+@Service
+public class TransactionExportService {
+
+    private static final int OUTPUT_BUFFER_SIZE = 64 * 1024;
+    private static final String CSV_HEADER = "transactionId,userId,amount,currency,paymentMethod,description,"
+            + "status,createdAt,completedAt,riskScore,fraudReason,paymentGatewayTransactionId\n";
+
+    private final JdbcTransactionReadModelStore readModelStore;
+    private final ObjectMapper objectMapper;
+    private final TransactionTemplate readOnlyTransaction;
+    private final int fetchSize;
+
+    public TransactionExportService(JdbcTransactionReadModelStore readModelStore,
+                                    ObjectMapper objectMapper,
+                                    PlatformTransactionManager transactionManager,
+                                    @Value("${payment.export.fetch-size:1000}") int fetchSize) {
+        this.readModelStore = readModelStore;
+        this.objectMapper = objectMapper;
+        this.readOnlyTransaction = new TransactionTemplate(transactionManager);
+        this.readOnlyTransaction.setReadOnly(true);
+        this.fetchSize = fetchSize;
+    }
+
+    public void export(LocalDateTime startDate, LocalDateTime endDate, ExportFormat format, OutputStream out)
+            throws IOException {
+        log.info("Exporting transactions from {} to {} as {}", startDate, endDate, format);
+
+        var buffered = new BufferedOutputStream(out, OUTPUT_BUFFER_SIZE);
+        try {
+            switch (format) {
+                case NDJSON -> exportNdjson(startDate, endDate, buffered);
+                case CSV -> exportCsv(startDate, endDate, buffered);
+            }
+        } catch (UncheckedIOException e) {
+            // Usually the client hanging up mid-download
+            throw e.getCause();
+        }
+        buffered.flush();
+    }
+
+    private void exportNdjson(LocalDateTime startDate, LocalDateTime endDate, OutputStream out) throws IOException {
+        try (var generator = objectMapper.getFactory().createGenerator(out)) {
+            generator.configure(JsonGenerator.Feature.AUTO_CLOSE_TARGET, false);
+            generator.setRootValueSeparator(new SerializedString("\n"));
+            stream(startDate, endDate, readModel -> {
+                try {
+                    generator.writeObject(TransactionDetailsDto.from(readModel));
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            });
+            if (generator.getOutputContext().getEntryCount() > 0) {
+                generator.writeRaw('\n');
+            }
+        }
+    }
+
+    private void exportCsv(LocalDateTime startDate, LocalDateTime endDate, OutputStream out) throws IOException {
+        var writer = new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8));
+        writer.write(CSV_HEADER);
+        stream(startDate, endDate, readModel -> {
+            try {
+                writeCsvRow(writer, readModel);
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        });
+        writer.flush();
+    }
+
+    private void stream(LocalDateTime startDate, LocalDateTime endDate, Consumer<TransactionReadModel> consumer) {
+        readOnlyTransaction.executeWithoutResult(status ->
+                readModelStore.streamByCreatedAtRange(startDate, endDate, fetchSize, consumer));
+    }
+
+    private static void writeCsvRow(Writer writer, TransactionReadModel readModel) throws IOException {
+        writer.write(csv(readModel.getTransactionId()));
+        writer.write(',');
+        writer.write(csv(readModel.getUserId()));
+        writer.write(',');
+        writer.write(csv(readModel.getAmount()));
+        writer.write(',');
+        writer.write(csv(readModel.getCurrency()));
+        writer.write(',');
+        writer.write(csv(readModel.getPaymentMethod()));
+        writer.write(',');
+        writer.write(csvText(readModel.getDescription()));
+        writer.write(',');
+        writer.write(csv(readModel.getStatus()));
+        writer.write(',');
+        writer.write(csv(readModel.getCreatedAt()));
+        writer.write(',');
+        writer.write(csv(readModel.getCompletedAt()));
+        writer.write(',');
+        writer.write(csv(readModel.getRiskScore()));
+        writer.write(',');
+        writer.write(csvText(readModel.getFraudReason()));
+        writer.write(',');
+        writer.write(csv(readModel.getPaymentGatewayTransactionId()));
+        writer.write('\n');
+    }
+
+    static String csv(Object value) {
+        if (value == null) {
+            return "";
+        }
+        var text = value.toString();
+        if (text.indexOf(',') >= 0 || text.indexOf('"') >= 0 || text.indexOf('\n') >= 0 || text.indexOf('\r') >= 0) {
+            return '"' + text.replace("\"", "\"\"") + '"';
+        }
+        return text;
+    }
+
+    // Free text is user supplied; keep spreadsheets from evaluating it as a formula
+    static String csvText(String value) {
+        if (value != null && !value.isEmpty() && "=+-@".indexOf(value.charAt(0)) >= 0) {
+            return csv("'" + value);
+        }
+        return csv(value);
+    }
+}
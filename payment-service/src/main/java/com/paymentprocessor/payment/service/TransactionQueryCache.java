@@ -0,0 +1,72 @@
+package com.paymentprocessor.payment.service;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.paymentprocessor.payment.dto.TransactionDetailsDto;
+import com.paymentprocessor.payment.projection.ProjectionUpdate;
+import com.paymentprocessor.payment.projection.ProjectionUpdateListener;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Optional;
+import java.util.function.Function;
+import java.util.function.Supplier;
+
+// Read-through cache for the polled query endpoints. Entries are dropped when the projection
+// commits a change to the transaction or user, which reaches every instance. A load that is in
+// flight when the invalidation arrives finishes first and is then removed, so a stale read can
+// not outlive the invalidation. The TTL is only a backstop.
+@Slf4j
+@Component
+public class TransactionQueryCache implements ProjectionUpdateListener {
+
+    private final Cache<String, TransactionDetailsDto> details;
+    private final Cache<String, List<TransactionDetailsDto>> activeByUser;
+
+    public TransactionQueryCache(MeterRegistry meterRegistry,
+                                 @Value("${payment.query-cache.max-size:50000}") long maxSize,
+                                 @Value("${payment.query-cache.ttl:60s}") Duration ttl) {
+        this.details = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfterWrite(ttl)
+                .recordStats()
+                .build();
+        this.activeByUser = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfterWrite(ttl)
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, details, "transaction.query.cache.details");
+        CaffeineCacheMetrics.monitor(meterRegistry, activeByUser, "transaction.query.cache.active");
+    }
+
+    // Misses are not cached, so a transaction that is not projected yet is found as soon as it is
+    public Optional<TransactionDetailsDto> getDetails(String transactionId,
+                                                      Function<String, Optional<TransactionDetailsDto>> loader) {
+        return Optional.ofNullable(details.get(transactionId, id -> loader.apply(id).orElse(null)));
+    }
+
+    public List<TransactionDetailsDto> getActiveByUser(String userId, Supplier<List<TransactionDetailsDto>> loader) {
+        return activeByUser.get(userId, id -> List.copyOf(loader.get()));
+    }
+
+    @Override
+    public void onTransactionsProjected(List<ProjectionUpdate> updates) {
+        for (var update : updates) {
+            details.invalidate(update.transactionId());
+            activeByUser.invalidate(update.userId());
+        }
+    }
+
+    @Override
+    public void onReadModelReset() {
+        log.info("Clearing transaction query cache");
+        details.invalidateAll();
+        activeByUser.invalidateAll();
+    }
+}
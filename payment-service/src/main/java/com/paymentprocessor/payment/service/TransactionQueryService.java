@@ -1,27 +1,50 @@
 package com.paymentprocessor.payment.service;
 
+import com.paymentprocessor.common.model.Currency;
+import com.paymentprocessor.common.model.PaymentMethod;
 import com.paymentprocessor.common.model.TransactionStatus;
+import com.paymentprocessor.payment.dto.TransactionDetailsDto;
 import com.paymentprocessor.payment.dto.TransactionSummaryDto;
+import com.paymentprocessor.payment.query.JdbcTransactionRollupStore;
+import com.paymentprocessor.payment.query.JdbcTransactionSummaryStore;
+import com.paymentprocessor.payment.query.RollupGranularity;
+import com.paymentprocessor.payment.query.TransactionCursor;
 import com.paymentprocessor.payment.query.TransactionReadModel;
+import com.paymentprocessor.payment.query.TransactionRollup;
 import com.paymentprocessor.payment.query.TransactionReadModelRepository;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.math.BigDecimal;
+import java.time.LocalDate;
 import java.time.LocalDateTime;
 import java.util.List;
 import java.util.Optional;
 
 @Slf4j
+@Service
 @Transactional(readOnly = true)
 public class TransactionQueryService {
 
     private final TransactionReadModelRepository repository;
+    private final JdbcTransactionSummaryStore summaryStore;
+    private final JdbcTransactionRollupStore rollupStore;
+    private final TransactionQueryCache queryCache;
 
-    public TransactionQueryService(TransactionReadModelRepository repository) {
+    public TransactionQueryService(TransactionReadModelRepository repository,
+                                   JdbcTransactionSummaryStore summaryStore,
+                                   JdbcTransactionRollupStore rollupStore,
+                                   TransactionQueryCache queryCache) {
         this.repository = repository;
+        this.summaryStore = summaryStore;
+        this.rollupStore = rollupStore;
+        this.queryCache = queryCache;
     }
 
     public Optional<TransactionReadModel> findByTransactionId(String transactionId) {
@@ -29,6 +52,18 @@ public class TransactionQueryService {
         return repository.findById(transactionId);
     }
 
+    // Zero when the transaction has not been projected yet
+    public long findProjectedVersion(String transactionId) {
+        return repository.findById(transactionId).map(TransactionReadModel::getVersion).orElse(0L);
+    }
+
+    // Cache hits must not take a pooled connection, so these run outside the class-level transaction
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    public Optional<TransactionDetailsDto> findDetailsByTransactionId(String transactionId) {
+        return queryCache.getDetails(transactionId,
+                id -> findByTransactionId(id).map(TransactionDetailsDto::from));
+    }
+
     public List<TransactionReadModel> findByUserId(String userId) {
         log.debug("Querying transactions for user: {}", userId);
         return repository.findByUserId(userId);
@@ -39,31 +74,43 @@ public class TransactionQueryService {
         return repository.findByUserIdOrderByCreatedAtDesc(userId, pageable);
     }
 
+    // Seeks past the cursor instead of skipping rows, so every page costs the same however deep it is
+    public Slice<TransactionReadModel> findByUserIdAfterCursor(String userId, TransactionCursor cursor, int size) {
+        log.debug("Querying transactions for user: {} after cursor: {}", userId, cursor);
+        var limit = PageRequest.of(0, size);
+        return cursor == null
+                ? repository.findByUserIdOrderByCreatedAtDescTransactionIdDesc(userId, limit)
+                : repository.findByUserIdBefore(userId, cursor.createdAt(), cursor.transactionId(), limit);
+    }
+
     public List<TransactionReadModel> findByDateRange(LocalDateTime startDate, LocalDateTime endDate) {
         log.debug("Querying transactions from {} to {}", startDate, endDate);
         return repository.findByDateRange(startDate, endDate);
     }
 
+    // Reads the projection-maintained counters instead of scanning the read model
     public TransactionSummaryDto getTransactionSummary() {
         log.debug("Generating transaction summary");
 
-        var totalCount = repository.count();
-        var completedCount = repository.countByStatus(TransactionStatus.COMPLETED);
-        var failedCount = repository.countByStatus(TransactionStatus.FAILED);
-        var pendingCount = repository.countByStatus(TransactionStatus.PENDING);
-
-        var today = LocalDateTime.now().toLocalDate().atStartOfDay();
-        var totalAmountToday = repository.sumAmountByStatusSince(TransactionStatus.COMPLETED, today);
+        var statusCounts = summaryStore.getStatusCounts();
+        var totalCount = statusCounts.values().stream().mapToLong(Long::longValue).sum();
+        var totalAmountToday = summaryStore.getCompletedAmount(LocalDate.now());
 
         return new TransactionSummaryDto(
                 totalCount,
-                completedCount,
-                failedCount,
-                pendingCount,
+                statusCounts.getOrDefault(TransactionStatus.COMPLETED, 0L),
+                statusCounts.getOrDefault(TransactionStatus.FAILED, 0L),
+                statusCounts.getOrDefault(TransactionStatus.PENDING, 0L),
                 totalAmountToday != null ? totalAmountToday : BigDecimal.ZERO
         );
     }
 
+    public List<TransactionRollup> findRollups(RollupGranularity granularity, LocalDateTime from, LocalDateTime to,
+                                              TransactionStatus status, Currency currency, PaymentMethod paymentMethod) {
+        log.debug("Querying {} rollups from {} to {}", granularity, from, to);
+        return rollupStore.findRollups(granularity, from, to, status, currency, paymentMethod);
+    }
+
     public List<TransactionReadModel> findActiveTransactionsByUser(String userId) {
         log.debug("Querying active transactions for user: {}", userId);
         var activeStatuses = List.of(
@@ -73,4 +120,11 @@ public class TransactionQueryService {
         );
         return repository.findByUserIdAndStatusIn(userId, activeStatuses);
     }
+
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    public List<TransactionDetailsDto> findActiveTransactionDetailsByUser(String userId) {
+        return queryCache.getActiveByUser(userId, () -> findActiveTransactionsByUser(userId).stream()
+                .map(TransactionDetailsDto::from)
+                .toList());
+    }
 }
@@ -0,0 +1,193 @@
+package com.paymentprocessor.payment.service;
+
+import com.paymentprocessor.common.exception.RateLimitExceededException;
+import com.paymentprocessor.common.exception.TransactionNotFoundException;
+import com.paymentprocessor.common.model.TransactionStatus;
+import com.paymentprocessor.payment.dto.TransactionStatusEventDto;
+import com.paymentprocessor.payment.projection.ProjectionUpdate;
+import com.paymentprocessor.payment.projection.ProjectionUpdateListener;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Service;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArraySet;
+import java.util.concurrent.Executor;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.ReentrantLock;
+
+// Pushes status transitions to SSE clients as the projection commits them. The registry only
+// holds emitters; writes happen on a dedicated executor so a slow client never stalls the
+// notification listener or other subscribers.
+@Slf4j
+@Service
+public class TransactionStatusStreamService implements ProjectionUpdateListener {
+
+    private static final Set<TransactionStatus> TERMINAL_STATUSES = EnumSet.of(
+            TransactionStatus.COMPLETED,
+            TransactionStatus.FAILED,
+            TransactionStatus.FRAUD_CHECK_FAILED,
+            TransactionStatus.CANCELLED,
+            TransactionStatus.REFUNDED
+    );
+    static final String STATUS_EVENT = "status";
+
+    private final Map<String, Set<Subscription>> subscriptions = new ConcurrentHashMap<>();
+    private final AtomicInteger subscriberCount = new AtomicInteger();
+    private final TransactionQueryService queryService;
+    private final Executor streamExecutor;
+    private final Duration timeout;
+    private final int maxSubscribers;
+
+    public TransactionStatusStreamService(TransactionQueryService queryService,
+                                          @Qualifier("statusStreamExecutor") Executor streamExecutor,
+                                          @Value("${payment.status-stream.timeout:5m}") Duration timeout,
+                                          @Value("${payment.status-stream.max-subscribers:10000}") int maxSubscribers) {
+        this.queryService = queryService;
+        this.streamExecutor = streamExecutor;
+        this.timeout = timeout;
+        this.maxSubscribers = maxSubscribers;
+    }
+
+    public SseEmitter subscribe(String transactionId) {
+        var current = queryService.findByTransactionId(transactionId)
+                .orElseThrow(() -> new TransactionNotFoundException(transactionId));
+
+        if (subscriberCount.incrementAndGet() > maxSubscribers) {
+            int count = subscriberCount.decrementAndGet();
+            throw new RateLimitExceededException("status-stream", count, maxSubscribers);
+        }
+
+        var subscription = new Subscription(transactionId, new SseEmitter(timeout.toMillis()));
+        subscription.emitter().onCompletion(() -> unsubscribe(subscription));
+        subscription.emitter().onTimeout(() -> subscription.emitter().complete());
+        subscription.emitter().onError(failure -> unsubscribe(subscription));
+        // Added inside the map operation, so a concurrent unsubscribe cannot drop the set between
+        // lookup and add and leave this subscriber in an orphaned set
+        subscriptions.compute(transactionId, (id, subscribers) -> {
+            var set = subscribers != null ? subscribers : new CopyOnWriteArraySet<Subscription>();
+            set.add(subscription);
+            return set;
+        });
+
+        // Registered before sending the current state, so a transition committed in between is
+        // still delivered; the version check drops whichever copy arrives second
+        streamExecutor.execute(() -> subscription.send(TransactionStatusEventDto.from(current)));
+        return subscription.emitter();
+    }
+
+    @Override
+    public void onTransactionsProjected(List<ProjectionUpdate> updates) {
+        for (var update : updates) {
+            if (!update.statusChanged()) {
+                continue;
+            }
+            var subscribers = subscriptions.get(update.transactionId());
+            if (subscribers == null) {
+                continue;
+            }
+            var event = TransactionStatusEventDto.from(update);
+            subscribers.forEach(subscription -> streamExecutor.execute(() -> subscription.send(event)));
+        }
+    }
+
+    // Individual notifications may have been missed, so resend whatever the read model holds now
+    @Override
+    public void onReadModelReset() {
+        subscriptions.forEach((transactionId, subscribers) -> streamExecutor.execute(() ->
+                queryService.findByTransactionId(transactionId)
+                        .map(TransactionStatusEventDto::from)
+                        .ifPresent(event -> subscribers.forEach(subscription -> subscription.send(event)))));
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        subscriptions.values().forEach(subscribers ->
+                subscribers.forEach(subscription -> subscription.emitter().complete()));
+    }
+
+    int activeSubscribers() {
+        return subscriberCount.get();
+    }
+
+    private void unsubscribe(Subscription subscription) {
+        if (!subscription.close()) {
+            return;
+        }
+        subscriptions.computeIfPresent(subscription.transactionId(), (id, subscribers) -> {
+            subscribers.remove(subscription);
+            return subscribers.isEmpty() ? null : subscribers;
+        });
+        subscriberCount.decrementAndGet();
+    }
+
+    private final class Subscription {
+
+        private final String transactionId;
+        private final SseEmitter emitter;
+        // Not synchronized: send blocks on the client socket, which would pin a virtual thread
+        private final ReentrantLock lock = new ReentrantLock();
+        private long lastSentVersion;
+        private boolean closed;
+
+        private Subscription(String transactionId, SseEmitter emitter) {
+            this.transactionId = transactionId;
+            this.emitter = emitter;
+        }
+
+        String transactionId() {
+            return transactionId;
+        }
+
+        SseEmitter emitter() {
+            return emitter;
+        }
+
+        // Sends are serialized per subscriber and only ever move the version forward
+        void send(TransactionStatusEventDto event) {
+            lock.lock();
+            try {
+                if (closed || event.version() <= lastSentVersion) {
+                    return;
+                }
+                emitter.send(SseEmitter.event()
+                        .id(Long.toString(event.version()))
+                        .name(STATUS_EVENT)
+                        .data(event, MediaType.APPLICATION_JSON));
+                lastSentVersion = event.version();
+                if (TERMINAL_STATUSES.contains(event.status())) {
+                    emitter.complete();
+                }
+            } catch (IOException | IllegalStateException e) {
+                log.debug("Dropping status subscriber for transaction {}: {}", transactionId, e.getMessage());
+                emitter.completeWithError(e);
+                unsubscribe(this);
+            } finally {
+                lock.unlock();
+            }
+        }
+
+        boolean close() {
+            lock.lock();
+            try {
+                if (closed) {
+                    return false;
+                }
+                closed = true;
+                return true;
+            } finally {
+                lock.unlock();
+            }
+        }
+    }
+}
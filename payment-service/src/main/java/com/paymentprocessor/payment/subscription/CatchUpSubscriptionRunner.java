@@ -0,0 +1,120 @@
+package com.paymentprocessor.payment.subscription;
+
+import com.paymentprocessor.payment.repository.EventStore;
+import com.paymentprocessor.payment.repository.StoredEvent;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+// Opt-in until an EventStreamSubscriber ships; otherwise it would only poll for nobody
+@Slf4j
+@Component
+@ConditionalOnProperty(name = "payment.subscriptions.enabled", havingValue = "true")
+public class CatchUpSubscriptionRunner {
+
+    private final List<EventStreamSubscriber> subscribers;
+    private final EventStore eventStore;
+    private final JdbcSubscriptionCheckpointStore checkpointStore;
+    private final TransactionTemplate transactionTemplate;
+    private final int batchSize;
+    private final Map<String, Gap> openGaps = new ConcurrentHashMap<>();
+
+    public CatchUpSubscriptionRunner(List<EventStreamSubscriber> subscribers,
+                                     EventStore eventStore,
+                                     JdbcSubscriptionCheckpointStore checkpointStore,
+                                     TransactionTemplate transactionTemplate,
+                                     @Value("${payment.subscriptions.batch-size:1000}") int batchSize) {
+        this.subscribers = subscribers;
+        this.eventStore = eventStore;
+        this.checkpointStore = checkpointStore;
+        this.transactionTemplate = transactionTemplate;
+        this.batchSize = batchSize;
+    }
+
+    @Scheduled(fixedDelayString = "${payment.subscriptions.poll-interval:200}")
+    public void pollSubscriptions() {
+        for (var subscriber : subscribers) {
+            try {
+                // Keep catching up while batches come back full instead of waiting for the next poll
+                int delivered;
+                do {
+                    delivered = transactionTemplate.execute(status -> deliverNextBatch(subscriber));
+                } while (delivered == batchSize);
+            } catch (Exception e) {
+                // The checkpoint did not move; the same batch is redelivered on the next poll
+                log.error("Subscription {} failed to handle events", subscriber.subscriptionName(), e);
+            }
+        }
+    }
+
+    int deliverNextBatch(EventStreamSubscriber subscriber) {
+        var name = subscriber.subscriptionName();
+        var checkpoint = checkpointStore.lockCheckpoint(name);
+        if (checkpoint.isEmpty()) {
+            log.debug("Subscription {} is being processed by another instance", name);
+            return 0;
+        }
+
+        var events = contiguousPrefix(name, checkpoint.getAsLong(), eventStore.readAll(checkpoint.getAsLong(), batchSize));
+        if (events.isEmpty()) {
+            return 0;
+        }
+
+        subscriber.handle(events);
+        checkpointStore.saveCheckpoint(name, events.get(events.size() - 1).position());
+        log.debug("Subscription {} handled {} events", name, events.size());
+        return events.size();
+    }
+
+    // BIGSERIAL values are handed out at insert time but become visible in commit order, so a
+    // missing position may belong to a transaction that is still running, however long it takes.
+    // Stop in front of a gap until it fills or every transaction that could have taken the
+    // position has finished, which proves the insert rolled back.
+    private List<StoredEvent> contiguousPrefix(String name, long checkpoint, List<StoredEvent> events) {
+        long expected = checkpoint + 1;
+        for (int i = 0; i < events.size(); i++) {
+            long position = events.get(i).position();
+            if (position != expected && !gapRolledBack(name, expected)) {
+                return events.subList(0, i);
+            }
+            expected = position + 1;
+        }
+        openGaps.remove(name);
+        return events;
+    }
+
+    // The position was taken before the event after it, but its transaction gets an ID only when it
+    // writes the row, so the horizon is read on the second sighting rather than the first: by then
+    // the writer has its ID, and once the oldest running transaction is past that horizon it is done.
+    private boolean gapRolledBack(String name, long missingPosition) {
+        var current = openGaps.get(name);
+        if (current == null || current.position() != missingPosition) {
+            openGaps.put(name, new Gap(missingPosition, Gap.UNKNOWN_HORIZON));
+            return false;
+        }
+
+        var horizon = checkpointStore.currentTransactionHorizon();
+        if (current.horizon() == Gap.UNKNOWN_HORIZON) {
+            openGaps.put(name, new Gap(missingPosition, horizon.xmax()));
+            return false;
+        }
+        if (horizon.xmin() < current.horizon()) {
+            return false;
+        }
+        log.info("Subscription {} skipping position {}: the insert that took it rolled back", name, missingPosition);
+        openGaps.remove(name);
+        return true;
+    }
+
+    private record Gap(long position, long horizon) {
+
+        static final long UNKNOWN_HORIZON = -1L;
+    }
+}
@@ -0,0 +1,16 @@
+package com.paymentprocessor.payment.subscription;
+
+import com.paymentprocessor.payment.repository.StoredEvent;
+
+import java.util.List;
+
+// Consumes the global event stream straight from the event store. Batches are delivered in
+// position order inside the transaction that advances the subscriber's checkpoint, so writes
+// made by the handler are committed together with the position they correspond to.
+public interface EventStreamSubscriber {
+
+    // Checkpoint key; must stay stable across deployments
+    String subscriptionName();
+
+    void handle(List<StoredEvent> events);
+}
@@ -0,0 +1,61 @@
+package com.paymentprocessor.payment.subscription;
+
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.OptionalLong;
+
+@Repository
+public class JdbcSubscriptionCheckpointStore {
+
+    private static final String INSERT_IF_MISSING_SQL = """
+            INSERT INTO event_stream_checkpoints (subscription_name, position, updated_at)
+            VALUES (?, 0, ?)
+            ON CONFLICT (subscription_name) DO NOTHING
+            """;
+
+    // SKIP LOCKED means only one instance works a subscription at a time; the others simply skip it
+    private static final String LOCK_CHECKPOINT_SQL = """
+            SELECT position
+            FROM event_stream_checkpoints
+            WHERE subscription_name = ?
+            FOR UPDATE SKIP LOCKED
+            """;
+
+    private static final String UPDATE_CHECKPOINT_SQL = """
+            UPDATE event_stream_checkpoints
+            SET position = ?, updated_at = ?
+            WHERE subscription_name = ?
+            """;
+
+    // xmin: oldest transaction still running; xmax: first transaction ID not yet handed out
+    private static final String TRANSACTION_HORIZON_SQL = """
+            SELECT pg_snapshot_xmin(pg_current_snapshot())::text::bigint AS xmin,
+                   pg_snapshot_xmax(pg_current_snapshot())::text::bigint AS xmax
+            """;
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public JdbcSubscriptionCheckpointStore(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    // Must run inside a transaction; empty when another instance currently holds the subscription
+    public OptionalLong lockCheckpoint(String subscriptionName) {
+        jdbcTemplate.update(INSERT_IF_MISSING_SQL, subscriptionName, LocalDateTime.now());
+        var positions = jdbcTemplate.queryForList(LOCK_CHECKPOINT_SQL, Long.class, subscriptionName);
+        return positions.isEmpty() ? OptionalLong.empty() : OptionalLong.of(positions.get(0));
+    }
+
+    public void saveCheckpoint(String subscriptionName, long position) {
+        jdbcTemplate.update(UPDATE_CHECKPOINT_SQL, position, LocalDateTime.now(), subscriptionName);
+    }
+
+    public TransactionHorizon currentTransactionHorizon() {
+        return jdbcTemplate.queryForObject(TRANSACTION_HORIZON_SQL,
+                (rs, rowNum) -> new TransactionHorizon(rs.getLong("xmin"), rs.getLong("xmax")));
+    }
+
+    public record TransactionHorizon(long xmin, long xmax) {}
+}
@@ -9,23 +9,102 @@ CREATE TABLE IF NOT EXISTS domain_events (
     UNIQUE(aggregate_identifier, sequence_number)
 );
 
+-- Aggregate Snapshot Table (latest snapshot per aggregate)
+CREATE TABLE IF NOT EXISTS snapshots (
+    aggregate_identifier VARCHAR(255) PRIMARY KEY,
+    sequence_number BIGINT NOT NULL,
+    payload JSONB NOT NULL,
+    timestamp TIMESTAMP NOT NULL
+);
+
+-- Transactional Outbox Table (drained by OutboxRelay)
+CREATE TABLE IF NOT EXISTS outbox (
+    id BIGSERIAL PRIMARY KEY,
+    topic VARCHAR(255) NOT NULL,
+    message_key VARCHAR(255) NOT NULL,
+    event_type VARCHAR(255) NOT NULL,
+    payload JSONB NOT NULL,
+    sequence_number BIGINT NOT NULL DEFAULT 0,
+    created_at TIMESTAMP NOT NULL
+);
+ALTER TABLE outbox ADD COLUMN IF NOT EXISTS sequence_number BIGINT NOT NULL DEFAULT 0;
+
+-- Catch-up Subscription Checkpoints (last domain_events.id handled per subscription)
+CREATE TABLE IF NOT EXISTS event_stream_checkpoints (
+    subscription_name VARCHAR(255) PRIMARY KEY,
+    position BIGINT NOT NULL,
+    updated_at TIMESTAMP NOT NULL
+);
+
+-- Projection Checkpoints (last Kafka offset applied to the read model, per partition)
+CREATE TABLE IF NOT EXISTS projection_checkpoints (
+    projection_name VARCHAR(255) NOT NULL,
+    topic VARCHAR(255) NOT NULL,
+    partition_id INT NOT NULL,
+    last_offset BIGINT NOT NULL,
+    updated_at TIMESTAMP NOT NULL,
+    PRIMARY KEY (projection_name, topic, partition_id)
+);
+
 -- Read Model Table
 CREATE TABLE IF NOT EXISTS transaction_read_model (
     transaction_id VARCHAR(255) PRIMARY KEY,
     user_id VARCHAR(255) NOT NULL,
     amount DECIMAL(19, 2) NOT NULL,
-    payment_method VARCHAR(3) NOT NULL,
+    currency VARCHAR(3) NOT NULL,
+    payment_method VARCHAR(50) NOT NULL,
     description TEXT,
     status VARCHAR(50) NOT NULL,
     created_at TIMESTAMP NOT NULL,
     completed_at TIMESTAMP,
-    risk_score DECIMAL(3, 2)
+    risk_score DECIMAL(3, 2),
     fraud_reason TEXT,
     payment_gateway_transaction_id VARCHAR(255),
     version BIGINT DEFAULT 0
 );
 
-CREATE INDEX idx transaction_read_model_user_id ON transaction_read_model(user_id);
-CREATE INDEX idx_transaction_read_model_status ON transaction_read_model(status);
-CREATE INDEX idx_transaction_read_model_created_at ON transaction_read_model(created_at);
-CREATE INDEX idx_transaction_read_model_user_status ON transaction_read_model(user_id, status);
\ No newline at end of file
+-- Serves user lookups and keyset pagination of a user's history
+CREATE INDEX IF NOT EXISTS idx_transaction_read_model_user_created
+    ON transaction_read_model(user_id, created_at DESC, transaction_id DESC);
+CREATE INDEX IF NOT EXISTS idx_transaction_read_model_status ON transaction_read_model(status);
+CREATE INDEX IF NOT EXISTS idx_transaction_read_model_created_at ON transaction_read_model(created_at);
+CREATE INDEX IF NOT EXISTS idx_transaction_read_model_user_status ON transaction_read_model(user_id, status);
+
+-- Summary Counters (maintained incrementally by the projection, striped to spread row locks)
+CREATE TABLE IF NOT EXISTS transaction_status_counts (
+    status VARCHAR(50) NOT NULL,
+    stripe INT NOT NULL,
+    transaction_count BIGINT NOT NULL,
+    PRIMARY KEY (status, stripe)
+);
+
+CREATE TABLE IF NOT EXISTS daily_completed_amounts (
+    day DATE NOT NULL,
+    stripe INT NOT NULL,
+    completed_count BIGINT NOT NULL,
+    completed_amount DECIMAL(19, 2) NOT NULL,
+    PRIMARY KEY (day, stripe)
+);
+
+-- Analytics Rollups (transactions by creation bucket and current status, maintained by the projection)
+CREATE TABLE IF NOT EXISTS transaction_rollups_hourly (
+    bucket_start TIMESTAMP NOT NULL,
+    status VARCHAR(50) NOT NULL,
+    currency VARCHAR(3) NOT NULL,
+    payment_method VARCHAR(50) NOT NULL,
+    stripe INT NOT NULL,
+    transaction_count BIGINT NOT NULL,
+    total_amount DECIMAL(19, 2) NOT NULL,
+    PRIMARY KEY (bucket_start, status, currency, payment_method, stripe)
+);
+
+CREATE TABLE IF NOT EXISTS transaction_rollups_daily (
+    bucket_start TIMESTAMP NOT NULL,
+    status VARCHAR(50) NOT NULL,
+    currency VARCHAR(3) NOT NULL,
+    payment_method VARCHAR(50) NOT NULL,
+    stripe INT NOT NULL,
+    transaction_count BIGINT NOT NULL,
+    total_amount DECIMAL(19, 2) NOT NULL,
+    PRIMARY KEY (bucket_start, status, currency, payment_method, stripe)
+);
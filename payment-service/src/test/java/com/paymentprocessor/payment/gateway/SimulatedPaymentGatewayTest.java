@@ -0,0 +1,74 @@
+package com.paymentprocessor.payment.gateway;
+
+import com.paymentprocessor.common.exception.PaymentProcessingFailedException;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class SimulatedPaymentGatewayTest {
+
+    private SimulatedPaymentGateway gateway;
+
+    @AfterEach
+    void tearDown() {
+        gateway.shutdown();
+    }
+
+    @Test
+    void shouldCompleteManyConcurrentPaymentsOnTwoThreads() {
+        gateway = gateway(0.0, 0.0);
+
+        var futures = IntStream.range(0, 5_000)
+                .mapToObj(i -> gateway.authorize(request("TX-" + i)))
+                .toList();
+
+        CompletableFuture.allOf(futures.toArray(CompletableFuture[]::new)).orTimeout(5, TimeUnit.SECONDS).join();
+        assertThat(futures).allSatisfy(future -> assertThat(future.join()).startsWith("GW-"));
+    }
+
+    @Test
+    void shouldFailWhenFailureRateIsCertain() {
+        gateway = gateway(1.0, 0.0);
+
+        assertThatThrownBy(() -> gateway.authorize(request("TX-fail")).get(1, TimeUnit.SECONDS))
+                .isInstanceOf(ExecutionException.class)
+                .hasCauseInstanceOf(PaymentProcessingFailedException.class);
+    }
+
+    @Test
+    void shouldNeverAnswerWhenHangRateIsCertain() {
+        gateway = gateway(0.0, 1.0);
+
+        var future = gateway.authorize(request("TX-hang"));
+
+        assertThat(future).isNotDone();
+    }
+
+    @Test
+    void shouldAnswerRepeatedAuthorizationWithOriginalOutcome() {
+        gateway = gateway(0.0, 0.0);
+
+        var first = gateway.authorize(request("TX-1")).orTimeout(5, TimeUnit.SECONDS).join();
+        var second = gateway.authorize(request("TX-1")).orTimeout(5, TimeUnit.SECONDS).join();
+
+        assertThat(second).isEqualTo(first);
+    }
+
+    private static SimulatedPaymentGateway gateway(double failureRate, double hangRate) {
+        return new SimulatedPaymentGateway(Duration.ofMillis(10), Duration.ofMillis(50), 0.0,
+                Duration.ZERO, failureRate, hangRate, 2);
+    }
+
+    private static PaymentGatewayRequest request(String transactionId) {
+        return new PaymentGatewayRequest(transactionId, new BigDecimal("10.00"), "stripe");
+    }
+}
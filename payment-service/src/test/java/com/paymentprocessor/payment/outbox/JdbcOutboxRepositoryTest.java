@@ -0,0 +1,94 @@
+package com.paymentprocessor.payment.outbox;
+
+import com.paymentprocessor.common.event.FraudCheckCompletedEvent;
+import com.paymentprocessor.payment.config.JacksonConfig;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.testcontainers.DockerClientFactory;
+import org.testcontainers.containers.PostgreSQLContainer;
+
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assumptions.assumeTrue;
+
+class JdbcOutboxRepositoryTest {
+
+    private static final String CREATE_TABLE_SQL = """
+            CREATE TABLE IF NOT EXISTS outbox (
+                id BIGSERIAL PRIMARY KEY,
+                topic VARCHAR(255) NOT NULL,
+                message_key VARCHAR(255) NOT NULL,
+                event_type VARCHAR(255) NOT NULL,
+                payload JSONB NOT NULL,
+                sequence_number BIGINT NOT NULL DEFAULT 0,
+                created_at TIMESTAMP NOT NULL
+            )
+            """;
+
+    private static PostgreSQLContainer<?> postgres;
+    private static DriverManagerDataSource dataSource;
+
+    private JdbcOutboxRepository outboxRepository;
+    private TransactionTemplate transactionTemplate;
+
+    @BeforeAll
+    static void startDatabase() {
+        assumeTrue(DockerClientFactory.instance().isDockerAvailable(), "Docker is required for this test");
+        postgres = new PostgreSQLContainer<>("postgres:15-alpine");
+        postgres.start();
+
+        dataSource = new DriverManagerDataSource(postgres.getJdbcUrl(), postgres.getUsername(), postgres.getPassword());
+        new JdbcTemplate(dataSource).execute(CREATE_TABLE_SQL);
+    }
+
+    @AfterAll
+    static void stopDatabase() {
+        if (postgres != null) {
+            postgres.stop();
+        }
+    }
+
+    @BeforeEach
+    void setUp() {
+        var jdbcTemplate = new JdbcTemplate(dataSource);
+        jdbcTemplate.execute("TRUNCATE outbox RESTART IDENTITY");
+        outboxRepository = new JdbcOutboxRepository(jdbcTemplate, new JacksonConfig().objectMapper());
+        transactionTemplate = new TransactionTemplate(new DataSourceTransactionManager(dataSource));
+    }
+
+    @Test
+    void shouldLetOnlyOneRelayHoldTheLock() {
+        Boolean secondGotLock = transactionTemplate.execute(status -> {
+            assertThat(outboxRepository.tryLockRelay()).isTrue();
+            return CompletableFuture.supplyAsync(() -> transactionTemplate.execute(other -> outboxRepository.tryLockRelay()))
+                    .join();
+        });
+
+        assertThat(secondGotLock).isFalse();
+        // Released when the holding transaction ends
+        Boolean relocked = transactionTemplate.execute(status -> outboxRepository.tryLockRelay());
+        assertThat(relocked).isTrue();
+    }
+
+    @Test
+    void shouldReturnBatchInIdOrderAndDeleteIt() {
+        outboxRepository.append(List.of(
+                OutboxMessage.pending("payment-events", new FraudCheckCompletedEvent("TX-1", true, 0.1, "ok"), 2),
+                OutboxMessage.pending("payment-events", new FraudCheckCompletedEvent("TX-2", true, 0.1, "ok"), 1)));
+
+        var batch = outboxRepository.nextBatch(10);
+
+        assertThat(batch).extracting(OutboxMessage::id).containsExactly(1L, 2L);
+        assertThat(batch).extracting(OutboxMessage::sequenceNumber).containsExactly(2L, 1L);
+        assertThat(outboxRepository.delete(batch)).isEqualTo(2);
+        assertThat(outboxRepository.nextBatch(10)).isEmpty();
+    }
+}
@@ -0,0 +1,97 @@
+package com.paymentprocessor.payment.outbox;
+
+import com.paymentprocessor.common.event.FraudCheckCompletedEvent;
+import com.paymentprocessor.payment.publisher.EventPublisher;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.*;
+
+class OutboxRelayTest {
+
+    private final JdbcOutboxRepository outboxRepository = mock(JdbcOutboxRepository.class);
+    private final EventPublisher eventPublisher = mock(EventPublisher.class);
+    private final PlatformTransactionManager transactionManager = mock(PlatformTransactionManager.class);
+
+    private OutboxRelay relay;
+
+    @BeforeEach
+    void setUp() {
+        when(outboxRepository.tryLockRelay()).thenReturn(true);
+        relay = new OutboxRelay(outboxRepository, eventPublisher, new TransactionTemplate(transactionManager), 3, 1_000);
+    }
+
+    @Test
+    void shouldSendBatchInOutboxOrderThenDeleteIt() {
+        var batch = List.of(message(1, "TX-1", 1), message(2, "TX-2", 1), message(3, "TX-1", 2));
+        when(outboxRepository.nextBatch(3)).thenReturn(batch, List.of());
+        when(eventPublisher.publishAsync(anyString(), anyString(), any(), anyLong()))
+                .thenReturn(CompletableFuture.completedFuture(null));
+
+        relay.relayPendingMessages();
+
+        var inOrder = inOrder(eventPublisher, outboxRepository);
+        inOrder.verify(eventPublisher).publishAsync("payment-events", "TX-1", batch.get(0).event(), 1L);
+        inOrder.verify(eventPublisher).publishAsync("payment-events", "TX-2", batch.get(1).event(), 1L);
+        inOrder.verify(eventPublisher).publishAsync("payment-events", "TX-1", batch.get(2).event(), 2L);
+        inOrder.verify(eventPublisher).flush();
+        inOrder.verify(outboxRepository).delete(batch);
+        verify(transactionManager, times(2)).commit(any());
+    }
+
+    @Test
+    void shouldDeleteOnlyAfterEverySendIsAcknowledged() throws Exception {
+        var batch = List.of(message(1, "TX-1", 1));
+        var ack = new CompletableFuture<Void>();
+        when(outboxRepository.nextBatch(3)).thenReturn(batch);
+        when(eventPublisher.publishAsync(anyString(), anyString(), any(), anyLong())).thenReturn(ack);
+
+        var relaying = CompletableFuture.runAsync(relay::relayPendingMessages);
+        verify(eventPublisher, timeout(5_000)).flush();
+        verify(outboxRepository, never()).delete(any());
+
+        ack.complete(null);
+        relaying.get();
+        verify(outboxRepository).delete(batch);
+    }
+
+    @Test
+    void shouldRollBackAndKeepRowsWhenSendFails() {
+        when(outboxRepository.nextBatch(3)).thenReturn(List.of(message(1, "TX-1", 1), message(2, "TX-1", 2)));
+        when(eventPublisher.publishAsync(anyString(), anyString(), any(), anyLong()))
+                .thenReturn(CompletableFuture.completedFuture(null),
+                        CompletableFuture.failedFuture(new RuntimeException("broker down")));
+
+        relay.relayPendingMessages();
+
+        verify(outboxRepository, never()).delete(any());
+        verify(transactionManager).rollback(any());
+        verify(transactionManager, never()).commit(any());
+    }
+
+    @Test
+    void shouldLeaveOutboxAloneWhileAnotherRelayDrains() {
+        when(outboxRepository.tryLockRelay()).thenReturn(false);
+
+        relay.relayPendingMessages();
+
+        verify(outboxRepository, never()).nextBatch(anyInt());
+        verifyNoInteractions(eventPublisher);
+        assertThat(mockingDetails(outboxRepository).getInvocations()).hasSize(1);
+    }
+
+    private static OutboxMessage message(long id, String transactionId, long sequenceNumber) {
+        return new OutboxMessage(id, "payment-events", transactionId,
+                new FraudCheckCompletedEvent(transactionId, true, 0.1, "ok"), sequenceNumber);
+    }
+}
@@ -0,0 +1,35 @@
+package com.paymentprocessor.payment.projection;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.paymentprocessor.common.model.TransactionStatus;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+
+class ProjectionUpdateNotifierTest {
+
+    private final ProjectionUpdateNotifier notifier =
+            new ProjectionUpdateNotifier(mock(JdbcTemplate.class), new ObjectMapper());
+
+    @Test
+    void shouldSplitLargeBatchesIntoPayloadsPostgresAccepts() {
+        var updates = IntStream.range(0, 1000)
+                .mapToObj(i -> new ProjectionUpdate("TX-" + i, "user-" + i,
+                        TransactionStatus.PENDING, TransactionStatus.COMPLETED, 3L))
+                .toList();
+
+        var payloads = notifier.encode(updates);
+
+        assertThat(payloads).hasSizeGreaterThan(1)
+                .allSatisfy(payload -> assertThat(payload.getBytes(StandardCharsets.UTF_8).length).isLessThan(8000));
+        var decoded = new ArrayList<ProjectionUpdate>();
+        payloads.forEach(payload -> decoded.addAll(notifier.decode(payload)));
+        assertThat(decoded).isEqualTo(updates);
+    }
+}
@@ -0,0 +1,61 @@
+package com.paymentprocessor.payment.projection;
+
+import com.paymentprocessor.common.model.TransactionStatus;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class ProjectionWaitRegistryTest {
+
+    private final ProjectionWaitRegistry registry =
+            new ProjectionWaitRegistry(Runnable::run, Duration.ofMillis(200), 100);
+
+    @Test
+    void shouldCompleteImmediatelyWhenAlreadyCaughtUp() {
+        var result = registry.awaitVersion("TX-1", 2, () -> 2L);
+
+        assertThat(result).isCompletedWithValue(true);
+        assertThat(registry.pendingWaiters()).isZero();
+    }
+
+    @Test
+    void shouldCompleteWhenNotifiedOfRequiredVersion() {
+        var result = registry.awaitVersion("TX-1", 2, () -> 1L);
+        assertThat(result).isNotDone();
+
+        registry.onTransactionsProjected(List.of(update("TX-1", 1L)));
+        assertThat(result).isNotDone();
+
+        registry.onTransactionsProjected(List.of(update("TX-1", 2L)));
+        assertThat(result).isCompletedWithValue(true);
+        assertThat(registry.pendingWaiters()).isZero();
+    }
+
+    @Test
+    void shouldTimeOutWhenProjectionLags() throws Exception {
+        var result = registry.awaitVersion("TX-1", 2, () -> 1L);
+
+        assertThat(result.get(2, TimeUnit.SECONDS)).isFalse();
+        assertThat(registry.pendingWaiters()).isZero();
+    }
+
+    @Test
+    void shouldReleaseAllWaitersOnReset() {
+        var first = registry.awaitVersion("TX-1", 2, () -> 0L);
+        var second = registry.awaitVersion("TX-2", 5, () -> 0L);
+
+        registry.onReadModelReset();
+
+        assertThat(first).isCompletedWithValue(true);
+        assertThat(second).isCompletedWithValue(true);
+    }
+
+    private static ProjectionUpdate update(String transactionId, long version) {
+        return new ProjectionUpdate(transactionId, "user-1", TransactionStatus.PENDING,
+                TransactionStatus.COMPLETED, version);
+    }
+}
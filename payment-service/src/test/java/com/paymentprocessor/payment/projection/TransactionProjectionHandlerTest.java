@@ -0,0 +1,198 @@
+package com.paymentprocessor.payment.projection;
+
+import com.paymentprocessor.common.event.BaseEvent;
+import com.paymentprocessor.common.event.FraudCheckCompletedEvent;
+import com.paymentprocessor.common.event.TransactionCreatedEvent;
+import com.paymentprocessor.common.model.Currency;
+import com.paymentprocessor.common.model.PaymentMethod;
+import com.paymentprocessor.common.model.TransactionStatus;
+import com.paymentprocessor.payment.query.JdbcTransactionReadModelStore;
+import com.paymentprocessor.payment.query.JdbcTransactionRollupStore;
+import com.paymentprocessor.payment.query.JdbcTransactionSummaryStore;
+import com.paymentprocessor.payment.query.TransactionReadModel;
+import com.paymentprocessor.payment.query.TransactionRollupDeltas;
+import com.paymentprocessor.payment.query.TransactionSummaryDeltas;
+import com.paymentprocessor.payment.publisher.EventPublisher;
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+import org.apache.kafka.common.TopicPartition;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import static com.paymentprocessor.payment.projection.TransactionProjectionHandler.PROJECTION_NAME;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.entry;
+import static org.assertj.core.api.Assertions.tuple;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+class TransactionProjectionHandlerTest {
+
+    private static final String TOPIC = "transaction-events";
+    private static final TopicPartition PARTITION = new TopicPartition(TOPIC, 0);
+
+    private JdbcTransactionReadModelStore readModelStore;
+    private JdbcProjectionCheckpointStore checkpointStore;
+    private JdbcTransactionSummaryStore summaryStore;
+    private JdbcTransactionRollupStore rollupStore;
+    private ProjectionUpdateNotifier updateNotifier;
+    private TransactionProjectionHandler handler;
+
+    @BeforeEach
+    void setUp() {
+        readModelStore = mock(JdbcTransactionReadModelStore.class);
+        checkpointStore = mock(JdbcProjectionCheckpointStore.class);
+        summaryStore = mock(JdbcTransactionSummaryStore.class);
+        rollupStore = mock(JdbcTransactionRollupStore.class);
+        updateNotifier = mock(ProjectionUpdateNotifier.class);
+        handler = new TransactionProjectionHandler(readModelStore, checkpointStore, summaryStore, rollupStore,
+                updateNotifier);
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void shouldCollapseBatchIntoOneReadAndOneUpsert() {
+        when(checkpointStore.lockOffsets(PROJECTION_NAME, Set.of(PARTITION))).thenReturn(Map.of(PARTITION, 9L));
+        var existing = TransactionReadModel.fromTransactionCreated("TX-2", "user456", new BigDecimal("20.00"),
+                Currency.EUR, PaymentMethod.DEBIT_CARD, "Existing payment", LocalDateTime.now());
+        when(readModelStore.findAllById(Set.of("TX-1", "TX-2"))).thenReturn(Map.of("TX-2", existing));
+
+        handler.handleEvents(List.of(
+                record(10, created("TX-1")),
+                record(11, new FraudCheckCompletedEvent("TX-2", false, 0.9, "high risk")),
+                record(12, new FraudCheckCompletedEvent("TX-1", true, 0.1, "low risk"))));
+
+        ArgumentCaptor<List<TransactionReadModel>> upserted = ArgumentCaptor.forClass(List.class);
+        verify(readModelStore, times(1)).findAllById(Set.of("TX-1", "TX-2"));
+        verify(readModelStore, times(1)).upsert(upserted.capture());
+        assertThat(upserted.getValue())
+                .extracting(TransactionReadModel::getTransactionId, TransactionReadModel::getStatus,
+                        TransactionReadModel::getVersion)
+                .containsExactly(
+                        tuple("TX-1", TransactionStatus.FRAUD_CHECK_PASSED, 2L),
+                        tuple("TX-2", TransactionStatus.FRAUD_CHECK_FAILED, 2L));
+        verify(checkpointStore).saveOffsets(PROJECTION_NAME, Map.of(PARTITION, 12L));
+
+        ArgumentCaptor<TransactionSummaryDeltas> deltas = ArgumentCaptor.forClass(TransactionSummaryDeltas.class);
+        verify(summaryStore).apply(deltas.capture(), eq(0));
+        assertThat(deltas.getValue().statusCounts()).containsOnly(
+                entry(TransactionStatus.PENDING, -1L),
+                entry(TransactionStatus.FRAUD_CHECK_PASSED, 1L),
+                entry(TransactionStatus.FRAUD_CHECK_FAILED, 1L));
+
+        ArgumentCaptor<TransactionRollupDeltas> rollups = ArgumentCaptor.forClass(TransactionRollupDeltas.class);
+        verify(rollupStore).apply(rollups.capture(), eq(0));
+        assertThat(rollups.getValue().hourly().values())
+                .extracting(TransactionRollupDeltas.Delta::count)
+                .containsExactlyInAnyOrder(1L, -1L, 1L);
+
+        verify(updateNotifier).notifyUpdates(List.of(
+                new ProjectionUpdate("TX-1", "user123", null, TransactionStatus.FRAUD_CHECK_PASSED, 2L),
+                new ProjectionUpdate("TX-2", "user456", TransactionStatus.PENDING, TransactionStatus.FRAUD_CHECK_FAILED, 2L)));
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void shouldSkipRecordsAtOrBelowCheckpoint() {
+        when(checkpointStore.lockOffsets(PROJECTION_NAME, Set.of(PARTITION))).thenReturn(Map.of(PARTITION, 10L));
+        when(readModelStore.findAllById(any())).thenReturn(Map.of());
+
+        handler.handleEvents(List.of(
+                record(10, created("TX-1")),
+                record(11, created("TX-3"))));
+
+        ArgumentCaptor<List<TransactionReadModel>> upserted = ArgumentCaptor.forClass(List.class);
+        verify(readModelStore).findAllById(Set.of("TX-3"));
+        verify(readModelStore).upsert(upserted.capture());
+        assertThat(upserted.getValue()).extracting(TransactionReadModel::getTransactionId).containsExactly("TX-3");
+        verify(checkpointStore).saveOffsets(eq(PROJECTION_NAME), eq(Map.of(PARTITION, 11L)));
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void shouldSkipEventsTheRowAlreadyReflects() {
+        when(checkpointStore.lockOffsets(PROJECTION_NAME, Set.of(PARTITION))).thenReturn(Map.of(PARTITION, 9L));
+        var rebuilt = TransactionReadModel.fromTransactionCreated("TX-1", "user123", new BigDecimal("100.00"),
+                Currency.USD, PaymentMethod.CREDIT_CARD, "New payment", LocalDateTime.now());
+        rebuilt.updateFraudCheckResult(true, 0.1, "low risk", LocalDateTime.now());
+        rebuilt.setVersion(2L);
+        when(readModelStore.findAllById(Set.of("TX-1"))).thenReturn(Map.of("TX-1", rebuilt));
+
+        // Both events were folded in by a rebuild before the live projection reached them
+        handler.handleEvents(List.of(
+                record(10, created("TX-1"), 1L),
+                record(11, new FraudCheckCompletedEvent("TX-1", true, 0.1, "low risk"), 2L)));
+
+        ArgumentCaptor<List<TransactionReadModel>> upserted = ArgumentCaptor.forClass(List.class);
+        verify(readModelStore).upsert(upserted.capture());
+        assertThat(upserted.getValue()).isEmpty();
+        assertThat(rebuilt.getVersion()).isEqualTo(2L);
+
+        verifyNoInteractions(summaryStore, rollupStore);
+        verify(updateNotifier).notifyUpdates(List.of());
+        verify(checkpointStore).saveOffsets(PROJECTION_NAME, Map.of(PARTITION, 11L));
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void shouldTakeRowVersionFromSequenceHeader() {
+        when(checkpointStore.lockOffsets(PROJECTION_NAME, Set.of(PARTITION))).thenReturn(Map.of(PARTITION, 9L));
+        var existing = TransactionReadModel.fromTransactionCreated("TX-1", "user123", new BigDecimal("100.00"),
+                Currency.USD, PaymentMethod.CREDIT_CARD, "New payment", LocalDateTime.now());
+        when(readModelStore.findAllById(Set.of("TX-1"))).thenReturn(Map.of("TX-1", existing));
+
+        handler.handleEvents(List.of(
+                record(10, new FraudCheckCompletedEvent("TX-1", true, 0.1, "low risk"), 2L),
+                record(11, new FraudCheckCompletedEvent("TX-1", true, 0.1, "low risk"), 2L)));
+
+        ArgumentCaptor<List<TransactionReadModel>> upserted = ArgumentCaptor.forClass(List.class);
+        verify(readModelStore).upsert(upserted.capture());
+        assertThat(upserted.getValue())
+                .extracting(TransactionReadModel::getStatus, TransactionReadModel::getVersion)
+                .containsExactly(tuple(TransactionStatus.FRAUD_CHECK_PASSED, 2L));
+    }
+
+    @Test
+    void shouldApplyCounterDeltasToEachRecordsOwnPartitionStripe() {
+        var otherPartition = new TopicPartition(TOPIC, 3);
+        when(checkpointStore.lockOffsets(PROJECTION_NAME, Set.of(PARTITION, otherPartition)))
+                .thenReturn(Map.of(PARTITION, 9L, otherPartition, 9L));
+        when(readModelStore.findAllById(any())).thenReturn(Map.of());
+
+        handler.handleEvents(List.of(
+                record(10, created("TX-1")),
+                new ConsumerRecord<>(TOPIC, otherPartition.partition(), 10L, "TX-2", created("TX-2"))));
+
+        ArgumentCaptor<TransactionSummaryDeltas> deltas = ArgumentCaptor.forClass(TransactionSummaryDeltas.class);
+        verify(summaryStore).apply(deltas.capture(), eq(0));
+        verify(summaryStore).apply(deltas.capture(), eq(3));
+        assertThat(deltas.getAllValues()).allSatisfy(stripeDeltas ->
+                assertThat(stripeDeltas.statusCounts()).containsOnly(entry(TransactionStatus.PENDING, 1L)));
+        verify(rollupStore).apply(any(), eq(0));
+        verify(rollupStore).apply(any(), eq(3));
+    }
+
+    private static ConsumerRecord<String, BaseEvent> record(long offset, BaseEvent event, long sequenceNumber) {
+        var record = record(offset, event);
+        record.headers().add(EventPublisher.AGGREGATE_SEQUENCE_HEADER,
+                Long.toString(sequenceNumber).getBytes(StandardCharsets.UTF_8));
+        return record;
+    }
+
+    private static ConsumerRecord<String, BaseEvent> record(long offset, BaseEvent event) {
+        return new ConsumerRecord<>(TOPIC, PARTITION.partition(), offset, event.transactionId(), event);
+    }
+
+    private static TransactionCreatedEvent created(String transactionId) {
+        return new TransactionCreatedEvent(transactionId, "user123", new BigDecimal("100.00"),
+                Currency.USD, PaymentMethod.CREDIT_CARD, "New payment");
+    }
+}
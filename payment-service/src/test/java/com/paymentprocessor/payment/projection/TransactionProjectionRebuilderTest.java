@@ -0,0 +1,103 @@
+package com.paymentprocessor.payment.projection;
+
+import com.paymentprocessor.common.event.FraudCheckCompletedEvent;
+import com.paymentprocessor.common.event.TransactionCreatedEvent;
+import com.paymentprocessor.common.model.Currency;
+import com.paymentprocessor.common.model.PaymentMethod;
+import com.paymentprocessor.common.model.TransactionStatus;
+import com.paymentprocessor.payment.query.JdbcTransactionReadModelStore;
+import com.paymentprocessor.payment.query.JdbcTransactionRollupStore;
+import com.paymentprocessor.payment.query.JdbcTransactionSummaryStore;
+import com.paymentprocessor.payment.query.TransactionReadModel;
+import com.paymentprocessor.payment.repository.EventStore;
+import com.paymentprocessor.payment.repository.StoredEvent;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Consumer;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.ArgumentMatchers.startsWith;
+import static org.mockito.Mockito.*;
+
+class TransactionProjectionRebuilderTest {
+
+    private static final String SHADOW_TABLE = "transaction_read_model_rebuild";
+
+    private final EventStore eventStore = mock(EventStore.class);
+    private final JdbcTransactionReadModelStore readModelStore = mock(JdbcTransactionReadModelStore.class);
+    private final JdbcTemplate jdbcTemplate = mock(JdbcTemplate.class);
+
+    private TransactionProjectionRebuilder rebuilder;
+
+    @BeforeEach
+    void setUp() {
+        rebuilder = new TransactionProjectionRebuilder(eventStore, readModelStore,
+                mock(JdbcTransactionSummaryStore.class), mock(JdbcTransactionRollupStore.class),
+                mock(ProjectionUpdateNotifier.class), jdbcTemplate,
+                new TransactionTemplate(mock(PlatformTransactionManager.class)), 2, 10);
+    }
+
+    @AfterEach
+    void tearDown() {
+        rebuilder.shutdown();
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void shouldCarryOverEventCommittedBelowUpperBoundAfterBulkLoadReadPastIt() throws Exception {
+        // TX-2's events got ids 2 and 3 but committed only after the bulk load had streamed up to 4,
+        // so only the live projection saw them
+        when(eventStore.getLastPosition()).thenReturn(4L);
+        doAnswer(invocation -> {
+            Consumer<StoredEvent> consumer = invocation.getArgument(1);
+            consumer.accept(new StoredEvent(1L, "TX-1", 1L, created("TX-1")));
+            consumer.accept(new StoredEvent(4L, "TX-1", 2L, fraudCheck("TX-1")));
+            return null;
+        }).when(eventStore).streamAllByAggregate(eq(4L), any(Consumer.class));
+        when(eventStore.readAll(anyLong(), anyInt())).thenReturn(List.of());
+        when(jdbcTemplate.queryForList(anyString(), eq(String.class))).thenReturn(List.of("TX-2"));
+        when(eventStore.getEventsForAggregate("TX-2")).thenReturn(List.of(created("TX-2"), fraudCheck("TX-2")));
+        var upserts = new ArrayList<List<TransactionReadModel>>();
+        doAnswer(invocation -> upserts.add(List.copyOf((List<TransactionReadModel>) invocation.getArgument(1))))
+                .when(readModelStore).upsert(eq(SHADOW_TABLE), any());
+
+        rebuilder.rebuild();
+
+        var inOrder = inOrder(jdbcTemplate);
+        inOrder.verify(jdbcTemplate).execute(startsWith("LOCK TABLE transaction_read_model "));
+        inOrder.verify(jdbcTemplate).queryForList(anyString(), eq(String.class));
+        inOrder.verify(jdbcTemplate).execute(startsWith("ALTER TABLE transaction_read_model RENAME"));
+
+        var written = upserts.stream().flatMap(List::stream).toList();
+        assertThat(written).extracting(TransactionReadModel::getTransactionId).containsExactlyInAnyOrder("TX-1", "TX-2");
+        assertThat(written).filteredOn(readModel -> readModel.getTransactionId().equals("TX-2"))
+                .singleElement()
+                .satisfies(readModel -> {
+                    assertThat(readModel.getStatus()).isEqualTo(TransactionStatus.FRAUD_CHECK_PASSED);
+                    assertThat(readModel.getVersion()).isEqualTo(2L);
+                });
+    }
+
+    private static TransactionCreatedEvent created(String transactionId) {
+        return new TransactionCreatedEvent(transactionId, "user-1", new BigDecimal("10.00"), Currency.USD,
+                PaymentMethod.CREDIT_CARD, "test");
+    }
+
+    private static FraudCheckCompletedEvent fraudCheck(String transactionId) {
+        return new FraudCheckCompletedEvent(transactionId, true, 0.1, "ok");
+    }
+}
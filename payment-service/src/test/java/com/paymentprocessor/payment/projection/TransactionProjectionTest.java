@@ -0,0 +1,59 @@
+package com.paymentprocessor.payment.projection;
+
+import com.paymentprocessor.common.event.FraudCheckCompletedEvent;
+import com.paymentprocessor.common.event.PaymentProcessedEvent;
+import com.paymentprocessor.common.event.PaymentProcessingStartedEvent;
+import com.paymentprocessor.common.event.TransactionCreatedEvent;
+import com.paymentprocessor.common.model.Currency;
+import com.paymentprocessor.common.model.PaymentMethod;
+import com.paymentprocessor.common.model.TransactionStatus;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class TransactionProjectionTest {
+
+    private static final String TRANSACTION_ID = "TX-projection-test";
+    private static final BigDecimal AMOUNT = new BigDecimal("100.00");
+
+    @Test
+    void shouldFoldFullHistoryIntoCompletedReadModel() {
+        var readModel = TransactionProjection.apply(null, created()).orElseThrow();
+        TransactionProjection.apply(readModel, new FraudCheckCompletedEvent(TRANSACTION_ID, true, 0.2, "low risk"));
+        TransactionProjection.apply(readModel, new PaymentProcessingStartedEvent(
+                TRANSACTION_ID, AMOUNT, PaymentMethod.CREDIT_CARD, "STRIPE"));
+        TransactionProjection.apply(readModel, new PaymentProcessedEvent(TRANSACTION_ID, AMOUNT, "GW-1", "STRIPE"));
+
+        assertThat(readModel.getStatus()).isEqualTo(TransactionStatus.COMPLETED);
+        assertThat(readModel.getRiskScore()).isEqualTo(0.2);
+        assertThat(readModel.getPaymentGatewayTransactionId()).isEqualTo("GW-1");
+        assertThat(readModel.getCompletedAt()).isNotNull();
+        assertThat(readModel.getVersion()).isEqualTo(4L);
+    }
+
+    @Test
+    void shouldSkipEventsForUnknownTransaction() {
+        var result = TransactionProjection.apply(null,
+                new FraudCheckCompletedEvent(TRANSACTION_ID, true, 0.2, "low risk"));
+
+        assertThat(result).isEmpty();
+    }
+
+    @Test
+    void shouldIgnoreRedeliveredCreation() {
+        var readModel = TransactionProjection.apply(null, created()).orElseThrow();
+        TransactionProjection.apply(readModel, new FraudCheckCompletedEvent(TRANSACTION_ID, true, 0.2, "low risk"));
+
+        var result = TransactionProjection.apply(readModel, created()).orElseThrow();
+
+        assertThat(result).isSameAs(readModel);
+        assertThat(result.getStatus()).isEqualTo(TransactionStatus.FRAUD_CHECK_PASSED);
+    }
+
+    private static TransactionCreatedEvent created() {
+        return new TransactionCreatedEvent(TRANSACTION_ID, "user123", AMOUNT,
+                Currency.USD, PaymentMethod.CREDIT_CARD, "Test payment");
+    }
+}
@@ -0,0 +1,30 @@
+package com.paymentprocessor.payment.query;
+
+import com.paymentprocessor.common.exception.InvalidTransactionException;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDateTime;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class TransactionCursorTest {
+
+    @Test
+    void shouldRoundTripThroughOpaqueToken() {
+        var cursor = new TransactionCursor(LocalDateTime.of(2024, 3, 1, 12, 30, 15, 123_456_000), "TX-123|abc");
+
+        var token = cursor.encode();
+
+        assertThat(token).doesNotContain("TX-123").doesNotContain("=");
+        assertThat(TransactionCursor.decode(token)).isEqualTo(cursor);
+    }
+
+    @Test
+    void shouldRejectMalformedToken() {
+        assertThatThrownBy(() -> TransactionCursor.decode("not a cursor!"))
+                .isInstanceOf(InvalidTransactionException.class);
+        assertThatThrownBy(() -> TransactionCursor.decode("bm8tc2VwYXJhdG9y"))
+                .isInstanceOf(InvalidTransactionException.class);
+    }
+}
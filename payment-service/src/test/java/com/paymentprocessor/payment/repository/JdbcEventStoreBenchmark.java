@@ -0,0 +1,144 @@
+package com.paymentprocessor.payment.repository;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.paymentprocessor.common.event.BaseEvent;
+import com.paymentprocessor.common.event.FraudCheckCompletedEvent;
+import com.paymentprocessor.common.event.PaymentProcessedEvent;
+import com.paymentprocessor.common.event.PaymentProcessingStartedEvent;
+import com.paymentprocessor.common.event.TransactionCreatedEvent;
+import com.paymentprocessor.common.model.Currency;
+import com.paymentprocessor.common.model.PaymentMethod;
+import com.paymentprocessor.payment.config.JacksonConfig;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.testcontainers.DockerClientFactory;
+import org.testcontainers.containers.PostgreSQLContainer;
+
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.UUID;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assumptions.assumeTrue;
+
+/**
+ * Compares event append throughput of the previous row-at-a-time insert loop against
+ * the batched {@link JdbcEventStore#saveEvents}. Not part of the regular test run;
+ * execute with {@code mvn -pl payment-service test -Dtest=JdbcEventStoreBenchmark}.
+ */
+class JdbcEventStoreBenchmark {
+
+    private static final int AGGREGATES = 2_000;
+    private static final int WARMUP_AGGREGATES = 200;
+
+    private static final String CREATE_TABLE_SQL = """
+            CREATE TABLE IF NOT EXISTS domain_events (
+                id BIGSERIAL PRIMARY KEY,
+                aggregate_identifier VARCHAR(255) NOT NULL,
+                sequence_number BIGINT NOT NULL,
+                event_type VARCHAR(255) NOT NULL,
+                payload JSONB NOT NULL,
+                timestamp TIMESTAMP NOT NULL,
+                UNIQUE(aggregate_identifier, sequence_number)
+            )
+            """;
+
+    private static final String ROW_INSERT_SQL = """
+            INSERT INTO domain_events (aggregate_identifier, sequence_number, event_type, payload, timestamp)
+            VALUES (?, ?, ?, ?::jsonb, ?)
+            """;
+
+    private static PostgreSQLContainer<?> postgres;
+    private static JdbcTemplate jdbcTemplate;
+    private static TransactionTemplate transactionTemplate;
+    private static ObjectMapper objectMapper;
+
+    @BeforeAll
+    static void startDatabase() {
+        assumeTrue(DockerClientFactory.instance().isDockerAvailable(), "Docker is required for this benchmark");
+        postgres = new PostgreSQLContainer<>("postgres:15-alpine");
+        postgres.start();
+
+        var dataSource = new DriverManagerDataSource(
+                postgres.getJdbcUrl() + "&reWriteBatchedInserts=true",
+                postgres.getUsername(), postgres.getPassword());
+        jdbcTemplate = new JdbcTemplate(dataSource);
+        transactionTemplate = new TransactionTemplate(new DataSourceTransactionManager(dataSource));
+        objectMapper = new JacksonConfig().objectMapper();
+        jdbcTemplate.execute(CREATE_TABLE_SQL);
+    }
+
+    @AfterAll
+    static void stopDatabase() {
+        if (postgres != null) {
+            postgres.stop();
+        }
+    }
+
+    @Test
+    void compareRowAtATimeWithBatchedAppend() {
+        var eventStore = new JdbcEventStore(jdbcTemplate, objectMapper);
+
+        run(WARMUP_AGGREGATES, this::appendRowAtATime);
+        run(WARMUP_AGGREGATES, eventStore::saveEvents);
+
+        var rowAtATime = run(AGGREGATES, this::appendRowAtATime);
+        var batched = run(AGGREGATES, eventStore::saveEvents);
+
+        System.out.printf("Row-at-a-time append: %.0f events/sec%n", rowAtATime);
+        System.out.printf("Batched append:       %.0f events/sec%n", batched);
+        System.out.printf("Speed-up:             %.2fx%n", batched / rowAtATime);
+    }
+
+    private double run(int aggregates, Appender appender) {
+        var histories = IntStream.range(0, aggregates)
+                .mapToObj(i -> history("TX-" + UUID.randomUUID()))
+                .toList();
+        long eventCount = histories.stream().mapToLong(List::size).sum();
+
+        long start = System.nanoTime();
+        for (var events : histories) {
+            transactionTemplate.executeWithoutResult(status ->
+                    appender.append(events.get(0).transactionId(), events, 0L));
+        }
+        long elapsed = System.nanoTime() - start;
+        return eventCount / (elapsed / 1_000_000_000.0);
+    }
+
+    // Reproduces the previous saveEvents implementation: version pre-read plus one INSERT per event
+    private void appendRowAtATime(String aggregateId, List<BaseEvent> events, long expectedVersion) {
+        jdbcTemplate.queryForObject("SELECT MAX(sequence_number) FROM domain_events WHERE aggregate_identifier = ?",
+                Long.class, aggregateId);
+        long sequenceNumber = expectedVersion;
+        for (var event : events) {
+            sequenceNumber++;
+            try {
+                jdbcTemplate.update(ROW_INSERT_SQL, aggregateId, sequenceNumber, event.eventType(),
+                        objectMapper.writeValueAsString(event), event.timestamp());
+            } catch (Exception e) {
+                throw new IllegalStateException(e);
+            }
+        }
+    }
+
+    private static List<BaseEvent> history(String transactionId) {
+        var amount = new BigDecimal("125.00");
+        return List.of(
+                new TransactionCreatedEvent(transactionId, "user-1", amount, Currency.USD,
+                        PaymentMethod.CREDIT_CARD, "benchmark"),
+                new FraudCheckCompletedEvent(transactionId, true, 0.1, "ok"),
+                new PaymentProcessingStartedEvent(transactionId, amount, PaymentMethod.CREDIT_CARD, "stripe"),
+                new PaymentProcessedEvent(transactionId, amount, "GW-1", "stripe")
+        );
+    }
+
+    @FunctionalInterface
+    private interface Appender {
+        void append(String aggregateId, List<BaseEvent> events, long expectedVersion);
+    }
+}
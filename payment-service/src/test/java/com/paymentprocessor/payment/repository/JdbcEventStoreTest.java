@@ -0,0 +1,101 @@
+package com.paymentprocessor.payment.repository;
+
+import com.paymentprocessor.common.event.FraudCheckCompletedEvent;
+import com.paymentprocessor.common.event.TransactionCreatedEvent;
+import com.paymentprocessor.common.model.Currency;
+import com.paymentprocessor.common.model.PaymentMethod;
+import com.paymentprocessor.payment.config.JacksonConfig;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.testcontainers.DockerClientFactory;
+import org.testcontainers.containers.PostgreSQLContainer;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assumptions.assumeTrue;
+
+// Runs the global-stream queries against a real PostgreSQL, since every other test mocks EventStore
+class JdbcEventStoreTest {
+
+    private static final String CREATE_TABLE_SQL = """
+            CREATE TABLE IF NOT EXISTS domain_events (
+                id BIGSERIAL PRIMARY KEY,
+                aggregate_identifier VARCHAR(255) NOT NULL,
+                sequence_number BIGINT NOT NULL,
+                event_type VARCHAR(255) NOT NULL,
+                payload JSONB NOT NULL,
+                timestamp TIMESTAMP NOT NULL,
+                UNIQUE(aggregate_identifier, sequence_number)
+            )
+            """;
+
+    private static PostgreSQLContainer<?> postgres;
+    private static JdbcTemplate jdbcTemplate;
+
+    private JdbcEventStore eventStore;
+
+    @BeforeAll
+    static void startDatabase() {
+        assumeTrue(DockerClientFactory.instance().isDockerAvailable(), "Docker is required for this test");
+        postgres = new PostgreSQLContainer<>("postgres:15-alpine");
+        postgres.start();
+
+        jdbcTemplate = new JdbcTemplate(new DriverManagerDataSource(
+                postgres.getJdbcUrl(), postgres.getUsername(), postgres.getPassword()));
+        jdbcTemplate.execute(CREATE_TABLE_SQL);
+    }
+
+    @AfterAll
+    static void stopDatabase() {
+        if (postgres != null) {
+            postgres.stop();
+        }
+    }
+
+    @BeforeEach
+    void setUp() {
+        jdbcTemplate.execute("TRUNCATE domain_events RESTART IDENTITY");
+        eventStore = new JdbcEventStore(jdbcTemplate, new JacksonConfig().objectMapper());
+        eventStore.saveEvents("TX-B", List.of(created("TX-B"), new FraudCheckCompletedEvent("TX-B", true, 0.1, "ok")), 0L);
+        eventStore.saveEvents("TX-A", List.of(created("TX-A")), 0L);
+    }
+
+    @Test
+    void shouldReadAllInPositionOrder() {
+        var events = eventStore.readAll(1L, 10);
+
+        assertThat(events).extracting(StoredEvent::position).containsExactly(2L, 3L);
+        assertThat(events).extracting(StoredEvent::aggregateId).containsExactly("TX-B", "TX-A");
+        assertThat(events.get(0).event()).isInstanceOf(FraudCheckCompletedEvent.class);
+    }
+
+    @Test
+    void shouldStreamAllFromPosition() {
+        var events = new ArrayList<StoredEvent>();
+        eventStore.streamAll(0L, events::add);
+
+        assertThat(events).extracting(StoredEvent::position).containsExactly(1L, 2L, 3L);
+        assertThat(eventStore.getLastPosition()).isEqualTo(3L);
+    }
+
+    @Test
+    void shouldStreamAllGroupedByAggregate() {
+        var events = new ArrayList<StoredEvent>();
+        eventStore.streamAllByAggregate(3L, events::add);
+
+        assertThat(events).extracting(StoredEvent::aggregateId).containsExactly("TX-A", "TX-B", "TX-B");
+        assertThat(events).extracting(StoredEvent::sequenceNumber).containsExactly(1L, 1L, 2L);
+    }
+
+    private static TransactionCreatedEvent created(String transactionId) {
+        return new TransactionCreatedEvent(transactionId, "user-1", new BigDecimal("10.00"), Currency.USD,
+                PaymentMethod.CREDIT_CARD, "test");
+    }
+}
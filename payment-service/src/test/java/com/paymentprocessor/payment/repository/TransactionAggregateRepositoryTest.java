@@ -0,0 +1,138 @@
+package com.paymentprocessor.payment.repository;
+
+import com.paymentprocessor.common.event.FraudCheckCompletedEvent;
+import com.paymentprocessor.common.event.TransactionCreatedEvent;
+import com.paymentprocessor.common.exception.TransactionNotFoundException;
+import com.paymentprocessor.common.model.Currency;
+import com.paymentprocessor.common.model.PaymentMethod;
+import com.paymentprocessor.common.model.TransactionStatus;
+import com.paymentprocessor.payment.aggregate.TransactionAggregate;
+import com.paymentprocessor.payment.command.CreateTransactionCommand;
+import com.paymentprocessor.payment.command.ProcessFraudCheckCommand;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.dao.OptimisticLockingFailureException;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.util.List;
+import java.util.Optional;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+class TransactionAggregateRepositoryTest {
+
+    private static final String TRANSACTION_ID = "TX-snapshot-test";
+
+    private EventStore eventStore;
+    private SnapshotStore snapshotStore;
+    private TransactionAggregateRepository repository;
+
+    @BeforeEach
+    void setUp() {
+        eventStore = mock(EventStore.class);
+        snapshotStore = mock(SnapshotStore.class);
+        var aggregateCache = new TransactionAggregateCache(new SimpleMeterRegistry(), 100, Duration.ofMinutes(1));
+        repository = new TransactionAggregateRepository(eventStore, snapshotStore, aggregateCache, 2);
+    }
+
+    @Test
+    void shouldReplayOnlyEventsAfterLatestSnapshot() {
+        var snapshot = createdAggregate().toSnapshot();
+        when(snapshotStore.getLatestSnapshot(TRANSACTION_ID)).thenReturn(Optional.of(snapshot));
+        when(eventStore.getEventsForAggregate(TRANSACTION_ID, 1L)).thenReturn(List.of(
+                new FraudCheckCompletedEvent(TRANSACTION_ID, true, 0.2, "low risk")));
+
+        var aggregate = repository.findById(TRANSACTION_ID);
+
+        assertThat(aggregate.getVersion()).isEqualTo(2L);
+        assertThat(aggregate.getStatus()).isEqualTo(TransactionStatus.FRAUD_CHECK_PASSED);
+        assertThat(aggregate.getUserId()).isEqualTo("user123");
+        verify(eventStore, never()).getEventsForAggregate(anyString());
+    }
+
+    @Test
+    void shouldReplayFullHistoryWithoutSnapshot() {
+        when(snapshotStore.getLatestSnapshot(TRANSACTION_ID)).thenReturn(Optional.empty());
+        when(eventStore.getEventsForAggregate(TRANSACTION_ID)).thenReturn(List.of(
+                new TransactionCreatedEvent(TRANSACTION_ID, "user123", new BigDecimal("10.00"),
+                        Currency.USD, PaymentMethod.CREDIT_CARD, "history")));
+
+        var aggregate = repository.findById(TRANSACTION_ID);
+
+        assertThat(aggregate.getVersion()).isEqualTo(1L);
+        verify(eventStore, never()).getEventsForAggregate(anyString(), anyLong());
+    }
+
+    @Test
+    void shouldThrowWhenNeitherSnapshotNorEventsExist() {
+        when(snapshotStore.getLatestSnapshot(TRANSACTION_ID)).thenReturn(Optional.empty());
+        when(eventStore.getEventsForAggregate(TRANSACTION_ID)).thenReturn(List.of());
+
+        assertThatThrownBy(() -> repository.findById(TRANSACTION_ID))
+                .isInstanceOf(TransactionNotFoundException.class);
+    }
+
+    @Test
+    void shouldSnapshotWhenSaveCrossesFrequencyBoundary() {
+        var aggregate = createdAggregate();
+        repository.save(aggregate);
+        verify(snapshotStore, never()).saveSnapshot(any());
+
+        aggregate.handle(new ProcessFraudCheckCommand(TRANSACTION_ID, true, 0.1, "ok"));
+        repository.save(aggregate);
+
+        verify(eventStore).saveEvents(eq(TRANSACTION_ID), anyList(), eq(1L));
+        verify(snapshotStore).saveSnapshot(argThat(snapshot -> snapshot.version() == 2L));
+    }
+
+    @Test
+    void shouldServeRepeatedLoadsFromCache() {
+        when(snapshotStore.getLatestSnapshot(TRANSACTION_ID)).thenReturn(Optional.empty());
+        when(eventStore.getEventsForAggregate(TRANSACTION_ID)).thenReturn(List.of(
+                new TransactionCreatedEvent(TRANSACTION_ID, "user123", new BigDecimal("10.00"),
+                        Currency.USD, PaymentMethod.CREDIT_CARD, "history")));
+
+        var first = repository.findById(TRANSACTION_ID);
+        var second = repository.findById(TRANSACTION_ID);
+
+        assertThat(second).isNotSameAs(first);
+        assertThat(second.getVersion()).isEqualTo(first.getVersion());
+        verify(eventStore, times(1)).getEventsForAggregate(TRANSACTION_ID);
+    }
+
+    @Test
+    void shouldInvalidateCacheOnOptimisticLockingFailure() {
+        var aggregate = createdAggregate();
+        repository.save(aggregate);
+
+        var stale = repository.findById(TRANSACTION_ID);
+        stale.handle(new ProcessFraudCheckCommand(TRANSACTION_ID, true, 0.1, "ok"));
+        doThrow(new OptimisticLockingFailureException("conflict"))
+                .when(eventStore).saveEvents(eq(TRANSACTION_ID), anyList(), eq(1L));
+
+        assertThatThrownBy(() -> repository.save(stale)).isInstanceOf(OptimisticLockingFailureException.class);
+
+        when(snapshotStore.getLatestSnapshot(TRANSACTION_ID)).thenReturn(Optional.empty());
+        when(eventStore.getEventsForAggregate(TRANSACTION_ID)).thenReturn(List.of(
+                new TransactionCreatedEvent(TRANSACTION_ID, "user123", new BigDecimal("10.00"),
+                        Currency.USD, PaymentMethod.CREDIT_CARD, "history"),
+                new FraudCheckCompletedEvent(TRANSACTION_ID, false, 0.9, "concurrent")));
+
+        assertThat(repository.findById(TRANSACTION_ID).getStatus()).isEqualTo(TransactionStatus.FRAUD_CHECK_FAILED);
+    }
+
+    private static TransactionAggregate createdAggregate() {
+        var aggregate = new TransactionAggregate();
+        aggregate.handle(new CreateTransactionCommand(TRANSACTION_ID, "user123", new BigDecimal("10.00"),
+                Currency.USD, PaymentMethod.CREDIT_CARD, "snapshot"));
+        return aggregate;
+    }
+}
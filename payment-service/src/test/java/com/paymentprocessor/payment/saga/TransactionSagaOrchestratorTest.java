@@ -0,0 +1,28 @@
+package com.paymentprocessor.payment.saga;
+
+import com.paymentprocessor.common.event.FraudCheckCompletedEvent;
+import com.paymentprocessor.common.exception.ServiceOverloadedException;
+import com.paymentprocessor.payment.command.ProcessFraudCheckCommand;
+import com.paymentprocessor.payment.service.CommandDispatcher;
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.mock;
+
+class TransactionSagaOrchestratorTest {
+
+    private final CommandDispatcher commandDispatcher = mock(CommandDispatcher.class);
+    private final TransactionSagaOrchestrator orchestrator = new TransactionSagaOrchestrator(commandDispatcher);
+
+    @Test
+    void shouldRethrowOverloadSoKafkaRedelivers() {
+        doThrow(new ServiceOverloadedException("command lane 0 mailbox is full", 1))
+                .when(commandDispatcher).execute(any(ProcessFraudCheckCommand.class));
+
+        assertThatThrownBy(() -> orchestrator.handleFraudCheckCompleted(
+                new FraudCheckCompletedEvent("TX-1", true, 0.1, "ok")))
+                .isInstanceOf(ServiceOverloadedException.class);
+    }
+}
@@ -0,0 +1,181 @@
+package com.paymentprocessor.payment.service;
+
+import com.paymentprocessor.common.exception.PaymentProcessingFailedException;
+import com.paymentprocessor.common.exception.ServiceOverloadedException;
+import com.paymentprocessor.payment.command.BaseCommand;
+import com.paymentprocessor.payment.command.ProcessFraudCheckCommand;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class CommandDispatcherTest {
+
+    private static final Duration TIMEOUT = Duration.ofSeconds(5);
+
+    private CommandDispatcher dispatcher;
+
+    @AfterEach
+    void tearDown() {
+        dispatcher.shutdown();
+    }
+
+    @Test
+    void shouldRoundLaneCountUpToPowerOfTwo() {
+        dispatcher = new CommandDispatcher(command -> { }, 6, 10, TIMEOUT);
+
+        assertThat(dispatcher.laneCount()).isEqualTo(8);
+    }
+
+    @Test
+    void shouldRunCommandsForOneTransactionSeriallyInOrder() {
+        var concurrent = new AtomicInteger();
+        var maxConcurrent = new AtomicInteger();
+        var handled = Collections.synchronizedList(new ArrayList<Double>());
+        dispatcher = new CommandDispatcher(command -> {
+            maxConcurrent.accumulateAndGet(concurrent.incrementAndGet(), Math::max);
+            handled.add(((ProcessFraudCheckCommand) command).riskScore());
+            concurrent.decrementAndGet();
+        }, 8, 1_000, TIMEOUT);
+
+        var futures = IntStream.range(0, 500)
+                .mapToObj(i -> dispatcher.dispatch(command("TX-1", i / 1_000.0)))
+                .toList();
+        CompletableFuture.allOf(futures.toArray(CompletableFuture[]::new)).orTimeout(5, TimeUnit.SECONDS).join();
+
+        assertThat(maxConcurrent).hasValue(1);
+        assertThat(handled).isSorted().hasSize(500);
+    }
+
+    @Test
+    void shouldRunDifferentTransactionsInParallel() throws Exception {
+        var bothStarted = new CountDownLatch(2);
+        dispatcher = new CommandDispatcher(command -> {
+            bothStarted.countDown();
+            try {
+                // Only returns if the other lane is running at the same time
+                assertThat(bothStarted.await(5, TimeUnit.SECONDS)).isTrue();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }, 8, 10, TIMEOUT);
+
+        var first = "TX-1";
+        var second = IntStream.range(2, 100).mapToObj(i -> "TX-" + i)
+                .filter(id -> dispatcher.laneIndex(id) != dispatcher.laneIndex(first))
+                .findFirst().orElseThrow();
+
+        CompletableFuture.allOf(dispatcher.dispatch(command(first, 0.1)), dispatcher.dispatch(command(second, 0.1)))
+                .get(5, TimeUnit.SECONDS);
+    }
+
+    @Test
+    void shouldRethrowHandlerFailureFromExecute() {
+        dispatcher = new CommandDispatcher(command -> {
+            throw new PaymentProcessingFailedException("declined");
+        }, 2, 10, TIMEOUT);
+
+        assertThatThrownBy(() -> dispatcher.execute(command("TX-1", 0.1)))
+                .isInstanceOf(PaymentProcessingFailedException.class);
+    }
+
+    @Test
+    void shouldRunNestedDispatchForSameLaneInline() {
+        var threads = new ConcurrentHashMap<String, Thread>();
+        var holder = new CommandDispatcher[1];
+        Consumer<BaseCommand> handler = command -> {
+            var reason = ((ProcessFraudCheckCommand) command).reason();
+            threads.put(reason, Thread.currentThread());
+            if ("outer".equals(reason)) {
+                holder[0].execute(command(command.transactionId(), 0.2, "inner"));
+            }
+        };
+        dispatcher = new CommandDispatcher(handler, 2, 10, TIMEOUT);
+        holder[0] = dispatcher;
+
+        dispatcher.dispatch(command("TX-1", 0.1, "outer")).orTimeout(5, TimeUnit.SECONDS).join();
+
+        assertThat(threads.get("inner")).isSameAs(threads.get("outer"));
+    }
+
+    @Test
+    void shouldFailDispatchFastWhenMailboxIsFull() throws Exception {
+        var running = new CountDownLatch(1);
+        var release = new CountDownLatch(1);
+        dispatcher = new CommandDispatcher(blockingHandler(running, release), 1, 1, TIMEOUT);
+
+        dispatcher.dispatch(command("TX-1", 0.1));
+        assertThat(running.await(5, TimeUnit.SECONDS)).isTrue();
+        dispatcher.dispatch(command("TX-1", 0.2));
+
+        assertThat(dispatcher.dispatch(command("TX-1", 0.3)))
+                .failsWithin(Duration.ofSeconds(1))
+                .withThrowableOfType(Exception.class)
+                .withCauseInstanceOf(ServiceOverloadedException.class);
+        release.countDown();
+    }
+
+    @Test
+    void shouldWaitForMailboxSpaceInExecute() throws Exception {
+        var running = new CountDownLatch(1);
+        var release = new CountDownLatch(1);
+        dispatcher = new CommandDispatcher(blockingHandler(running, release), 1, 1, TIMEOUT);
+
+        dispatcher.dispatch(command("TX-1", 0.1));
+        assertThat(running.await(5, TimeUnit.SECONDS)).isTrue();
+        dispatcher.dispatch(command("TX-1", 0.2));
+
+        var executed = CompletableFuture.runAsync(() -> dispatcher.execute(command("TX-1", 0.3)));
+        Thread.sleep(200);
+        assertThat(executed).isNotDone();
+
+        release.countDown();
+        executed.get(5, TimeUnit.SECONDS);
+    }
+
+    @Test
+    void shouldShedExecuteWhenMailboxStaysFull() throws Exception {
+        var running = new CountDownLatch(1);
+        var release = new CountDownLatch(1);
+        dispatcher = new CommandDispatcher(blockingHandler(running, release), 1, 1, Duration.ofMillis(100));
+
+        dispatcher.dispatch(command("TX-1", 0.1));
+        assertThat(running.await(5, TimeUnit.SECONDS)).isTrue();
+        dispatcher.dispatch(command("TX-1", 0.2));
+
+        assertThatThrownBy(() -> dispatcher.execute(command("TX-1", 0.3)))
+                .isInstanceOf(ServiceOverloadedException.class);
+        release.countDown();
+    }
+
+    private static Consumer<BaseCommand> blockingHandler(CountDownLatch running, CountDownLatch release) {
+        return command -> {
+            running.countDown();
+            try {
+                release.await(5, TimeUnit.SECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        };
+    }
+
+    private static ProcessFraudCheckCommand command(String transactionId, double riskScore) {
+        return command(transactionId, riskScore, null);
+    }
+
+    private static ProcessFraudCheckCommand command(String transactionId, double riskScore, String reason) {
+        return new ProcessFraudCheckCommand(transactionId, true, riskScore, reason);
+    }
+}
@@ -0,0 +1,170 @@
+package com.paymentprocessor.payment.service;
+
+import com.paymentprocessor.common.exception.InvalidTransactionException;
+import com.paymentprocessor.common.exception.PaymentProcessingFailedException;
+import com.paymentprocessor.payment.command.BaseCommand;
+import com.paymentprocessor.payment.command.CompletePaymentCommand;
+import com.paymentprocessor.payment.command.ProcessFraudCheckCommand;
+import com.paymentprocessor.payment.command.ProcessPaymentCommand;
+import com.paymentprocessor.payment.gateway.PaymentGateway;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class PaymentProcessingServiceTest {
+
+    private static final ProcessPaymentCommand PAYMENT =
+            new ProcessPaymentCommand("TX-1", new BigDecimal("25.00"), "simulated");
+
+    private final List<BaseCommand> handled = new CopyOnWriteArrayList<>();
+    private final CountDownLatch blockerRunning = new CountDownLatch(1);
+    private final CountDownLatch releaseBlocker = new CountDownLatch(1);
+    private final PaymentGateway paymentGateway = mock(PaymentGateway.class);
+    private final ExecutorService outcomeExecutor = Executors.newCachedThreadPool();
+    private final AtomicInteger completionFailures = new AtomicInteger();
+
+    private CommandDispatcher dispatcher;
+
+    @AfterEach
+    void tearDown() {
+        releaseBlocker.countDown();
+        dispatcher.shutdown();
+        outcomeExecutor.shutdownNow();
+    }
+
+    @Test
+    void shouldRecordStartThenSuccessfulOutcome() throws Exception {
+        var service = service(5_000);
+        when(paymentGateway.authorize(any())).thenReturn(CompletableFuture.completedFuture("GW-1"));
+
+        service.processPayment(PAYMENT).get(5, TimeUnit.SECONDS);
+
+        assertThat(handled).hasSize(2);
+        assertThat(handled.get(0)).isEqualTo(PAYMENT);
+        assertThat(completion()).satisfies(completion -> {
+            assertThat(completion.successful()).isTrue();
+            assertThat(completion.paymentGatewayTransactionId()).isEqualTo("GW-1");
+        });
+    }
+
+    @Test
+    void shouldRecordDeclineAsFailedPayment() throws Exception {
+        var service = service(5_000);
+        when(paymentGateway.authorize(any())).thenReturn(
+                CompletableFuture.failedFuture(new PaymentProcessingFailedException("Payment gateway declined the payment")));
+
+        service.processPayment(PAYMENT).get(5, TimeUnit.SECONDS);
+
+        assertThat(completion()).satisfies(completion -> {
+            assertThat(completion.successful()).isFalse();
+            assertThat(completion.failureReason()).contains("Payment gateway declined the payment");
+        });
+    }
+
+    @Test
+    void shouldLeaveTimedOutPaymentProcessingInsteadOfFailingIt() throws Exception {
+        var service = service(50);
+        when(paymentGateway.authorize(any())).thenReturn(new CompletableFuture<>());
+
+        service.processPayment(PAYMENT).get(5, TimeUnit.SECONDS);
+
+        assertThat(handled).containsExactly(PAYMENT);
+    }
+
+    @Test
+    void shouldRecordOutcomeWhenResumedAfterCompletionFailed() throws Exception {
+        var service = service(5_000);
+        when(paymentGateway.authorize(any())).thenReturn(CompletableFuture.completedFuture("GW-1"));
+        completionFailures.set(1);
+
+        assertThatThrownBy(() -> service.processPayment(PAYMENT).get(5, TimeUnit.SECONDS))
+                .isInstanceOf(ExecutionException.class)
+                .hasRootCauseInstanceOf(InvalidTransactionException.class);
+        assertThat(handled).containsExactly(PAYMENT);
+
+        service.resumePayment(PAYMENT).get(5, TimeUnit.SECONDS);
+
+        assertThat(completion().paymentGatewayTransactionId()).isEqualTo("GW-1");
+    }
+
+    @Test
+    void shouldStillRecordOutcomeWhenLaneIsFull() throws Exception {
+        // One lane with a one-slot mailbox that gives up on a full mailbox after 50ms
+        dispatcher = new CommandDispatcher(this::handle, 1, 1, Duration.ofMillis(50));
+        var service = new PaymentProcessingService(dispatcher, paymentGateway, outcomeExecutor, 5_000,
+                Duration.ofMillis(20));
+        var authorization = new CompletableFuture<String>();
+        when(paymentGateway.authorize(any())).thenReturn(authorization);
+
+        var processed = service.processPayment(PAYMENT);
+        dispatcher.dispatch(blocker());
+        assertThat(blockerRunning.await(5, TimeUnit.SECONDS)).isTrue();
+        dispatcher.dispatch(blocker());
+
+        authorization.complete("GW-1");
+        Thread.sleep(300);
+        assertThat(processed).isNotDone();
+
+        releaseBlocker.countDown();
+        processed.get(5, TimeUnit.SECONDS);
+        assertThat(handled).filteredOn(CompletePaymentCommand.class::isInstance)
+                .singleElement()
+                .satisfies(command -> {
+                    var completion = (CompletePaymentCommand) command;
+                    assertThat(completion.successful()).isTrue();
+                    assertThat(completion.paymentGatewayTransactionId()).isEqualTo("GW-1");
+                });
+    }
+
+    private PaymentProcessingService service(long gatewayTimeoutMillis) {
+        dispatcher = new CommandDispatcher(this::handle, 1, 10, Duration.ofSeconds(5));
+        return new PaymentProcessingService(dispatcher, paymentGateway, outcomeExecutor, gatewayTimeoutMillis,
+                Duration.ofMillis(20));
+    }
+
+    private CompletePaymentCommand completion() {
+        return handled.stream()
+                .filter(CompletePaymentCommand.class::isInstance)
+                .map(CompletePaymentCommand.class::cast)
+                .reduce((first, second) -> {
+                    throw new AssertionError("More than one completion recorded");
+                })
+                .orElseThrow(() -> new AssertionError("No completion recorded"));
+    }
+
+    private void handle(BaseCommand command) {
+        if (command instanceof CompletePaymentCommand && completionFailures.getAndUpdate(n -> Math.max(0, n - 1)) > 0) {
+            throw new InvalidTransactionException("Simulated failure recording the outcome");
+        }
+        handled.add(command);
+        if (command instanceof ProcessFraudCheckCommand) {
+            blockerRunning.countDown();
+            try {
+                releaseBlocker.await(5, TimeUnit.SECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+    }
+
+    private static ProcessFraudCheckCommand blocker() {
+        return new ProcessFraudCheckCommand("TX-1", true, 0.1, "blocker");
+    }
+}
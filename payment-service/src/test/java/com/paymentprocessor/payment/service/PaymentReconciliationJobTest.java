@@ -0,0 +1,86 @@
+package com.paymentprocessor.payment.service;
+
+import com.paymentprocessor.common.event.PaymentProcessedEvent;
+import com.paymentprocessor.common.event.PaymentProcessingStartedEvent;
+import com.paymentprocessor.common.model.PaymentMethod;
+import com.paymentprocessor.common.model.TransactionStatus;
+import com.paymentprocessor.payment.command.ProcessPaymentCommand;
+import com.paymentprocessor.payment.query.JdbcTransactionReadModelStore;
+import com.paymentprocessor.payment.repository.EventStore;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+class PaymentReconciliationJobTest {
+
+    private static final BigDecimal AMOUNT = new BigDecimal("25.00");
+
+    private final JdbcTransactionReadModelStore readModelStore = mock(JdbcTransactionReadModelStore.class);
+    private final EventStore eventStore = mock(EventStore.class);
+    private final PaymentProcessingService paymentProcessingService = mock(PaymentProcessingService.class);
+
+    private PaymentReconciliationJob job;
+
+    @BeforeEach
+    void setUp() {
+        job = new PaymentReconciliationJob(readModelStore, eventStore, paymentProcessingService,
+                Duration.ofMinutes(5), 100);
+        when(paymentProcessingService.resumePayment(any())).thenReturn(CompletableFuture.completedFuture(null));
+    }
+
+    @Test
+    void shouldResumePaymentStuckSinceBeforeCutoff() {
+        candidates("TX-1");
+        when(eventStore.getEventsForAggregate("TX-1")).thenReturn(List.of(started("TX-1", 10)));
+
+        job.reconcileStuckPayments();
+
+        verify(paymentProcessingService).resumePayment(new ProcessPaymentCommand("TX-1", AMOUNT, "simulated"));
+    }
+
+    @Test
+    void shouldSkipPaymentsStartedRecentlyOrAlreadyCompleted() {
+        candidates("TX-1", "TX-2");
+        when(eventStore.getEventsForAggregate("TX-1")).thenReturn(List.of(started("TX-1", 1)));
+        when(eventStore.getEventsForAggregate("TX-2")).thenReturn(List.of(started("TX-2", 10),
+                new PaymentProcessedEvent("TX-2", AMOUNT, "GW-1", "simulated")));
+
+        job.reconcileStuckPayments();
+
+        verify(paymentProcessingService, never()).resumePayment(any());
+    }
+
+    @Test
+    void shouldKeepGoingWhenOneResumeFails() {
+        candidates("TX-1", "TX-2");
+        when(eventStore.getEventsForAggregate(any())).thenAnswer(invocation ->
+                List.of(started(invocation.getArgument(0), 10)));
+        when(paymentProcessingService.resumePayment(any()))
+                .thenReturn(CompletableFuture.failedFuture(new IllegalStateException("gateway down")),
+                        CompletableFuture.completedFuture(null));
+
+        job.reconcileStuckPayments();
+
+        verify(paymentProcessingService, times(2)).resumePayment(any());
+    }
+
+    private void candidates(String... transactionIds) {
+        when(readModelStore.findIdsByStatusCreatedBefore(eq(TransactionStatus.PAYMENT_PROCESSING),
+                any(LocalDateTime.class), anyInt())).thenReturn(List.of(transactionIds));
+    }
+
+    private static PaymentProcessingStartedEvent started(String transactionId, int minutesAgo) {
+        return new PaymentProcessingStartedEvent(null, transactionId, LocalDateTime.now().minusMinutes(minutesAgo),
+                AMOUNT, PaymentMethod.CREDIT_CARD, "simulated");
+    }
+}
@@ -0,0 +1,80 @@
+package com.paymentprocessor.payment.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import com.paymentprocessor.common.model.Currency;
+import com.paymentprocessor.common.model.PaymentMethod;
+import com.paymentprocessor.payment.dto.ExportFormat;
+import com.paymentprocessor.payment.query.JdbcTransactionReadModelStore;
+import com.paymentprocessor.payment.query.TransactionReadModel;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.io.ByteArrayOutputStream;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.function.Consumer;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.Mockito.*;
+
+class TransactionExportServiceTest {
+
+    private static final LocalDateTime START = LocalDateTime.of(2024, 1, 1, 0, 0);
+    private static final LocalDateTime END = LocalDateTime.of(2024, 2, 1, 0, 0);
+
+    private TransactionExportService exportService;
+
+    @BeforeEach
+    @SuppressWarnings("unchecked")
+    void setUp() {
+        var readModelStore = mock(JdbcTransactionReadModelStore.class);
+        doAnswer(invocation -> {
+            Consumer<TransactionReadModel> consumer = invocation.getArgument(3);
+            consumer.accept(readModel("TX-1", "Groceries"));
+            consumer.accept(readModel("TX-2", "=HYPERLINK(\"x\"), rent"));
+            return null;
+        }).when(readModelStore).streamByCreatedAtRange(eq(START), eq(END), anyInt(), any(Consumer.class));
+
+        var objectMapper = new ObjectMapper()
+                .registerModule(new JavaTimeModule())
+                .disable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS);
+        exportService = new TransactionExportService(readModelStore, objectMapper,
+                mock(PlatformTransactionManager.class), 100);
+    }
+
+    @Test
+    void shouldWriteOneJsonDocumentPerLine() throws Exception {
+        var out = new ByteArrayOutputStream();
+
+        exportService.export(START, END, ExportFormat.NDJSON, out);
+
+        var lines = out.toString(StandardCharsets.UTF_8).split("\n");
+        assertThat(lines).hasSize(2);
+        assertThat(lines[0]).startsWith("{").contains("\"transactionId\":\"TX-1\"");
+        assertThat(lines[1]).contains("\"transactionId\":\"TX-2\"");
+    }
+
+    @Test
+    void shouldWriteEscapedCsvWithHeader() throws Exception {
+        var out = new ByteArrayOutputStream();
+
+        exportService.export(START, END, ExportFormat.CSV, out);
+
+        var lines = out.toString(StandardCharsets.UTF_8).split("\n");
+        assertThat(lines).hasSize(3);
+        assertThat(lines[0]).startsWith("transactionId,userId,amount");
+        assertThat(lines[1]).startsWith("TX-1,user123,10.00,USD,CREDIT_CARD,Groceries,PENDING,");
+        assertThat(lines[2]).contains(",\"'=HYPERLINK(\"\"x\"\"), rent\",");
+    }
+
+    private static TransactionReadModel readModel(String transactionId, String description) {
+        return TransactionReadModel.fromTransactionCreated(transactionId, "user123", new BigDecimal("10.00"),
+                Currency.USD, PaymentMethod.CREDIT_CARD, description, START.plusDays(1));
+    }
+}
@@ -0,0 +1,67 @@
+package com.paymentprocessor.payment.service;
+
+import com.paymentprocessor.common.model.Currency;
+import com.paymentprocessor.common.model.PaymentMethod;
+import com.paymentprocessor.common.model.TransactionStatus;
+import com.paymentprocessor.payment.dto.TransactionDetailsDto;
+import com.paymentprocessor.payment.projection.ProjectionUpdate;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class TransactionQueryCacheTest {
+
+    private TransactionQueryCache cache;
+    private AtomicInteger loads;
+
+    @BeforeEach
+    void setUp() {
+        cache = new TransactionQueryCache(new SimpleMeterRegistry(), 100, Duration.ofMinutes(1));
+        loads = new AtomicInteger();
+    }
+
+    @Test
+    void shouldServeRepeatedReadsFromCacheUntilProjectionUpdate() {
+        cache.getDetails("TX-1", this::load);
+        cache.getDetails("TX-1", this::load);
+        assertThat(loads).hasValue(1);
+
+        cache.onTransactionsProjected(List.of(new ProjectionUpdate(
+                "TX-1", "user123", TransactionStatus.PENDING, TransactionStatus.FRAUD_CHECK_PASSED, 2L)));
+        cache.getDetails("TX-1", this::load);
+
+        assertThat(loads).hasValue(2);
+    }
+
+    @Test
+    void shouldNotCacheMissingTransactions() {
+        assertThat(cache.getDetails("TX-404", id -> { loads.incrementAndGet(); return Optional.empty(); })).isEmpty();
+        assertThat(cache.getDetails("TX-404", this::load)).isPresent();
+    }
+
+    @Test
+    void shouldInvalidateActiveListForUpdatedUser() {
+        cache.getActiveByUser("user123", () -> { loads.incrementAndGet(); return List.of(); });
+        cache.onTransactionsProjected(List.of(new ProjectionUpdate(
+                "TX-9", "user123", null, TransactionStatus.PENDING, 1L)));
+        cache.getActiveByUser("user123", () -> { loads.incrementAndGet(); return List.of(); });
+
+        assertThat(loads).hasValue(2);
+    }
+
+    private Optional<TransactionDetailsDto> load(String transactionId) {
+        loads.incrementAndGet();
+        return Optional.of(new TransactionDetailsDto(transactionId, "user123", new BigDecimal("10.00"), Currency.USD,
+                PaymentMethod.CREDIT_CARD, "Test", TransactionStatus.PENDING, LocalDateTime.now(),
+                null, null, null, null));
+    }
+}
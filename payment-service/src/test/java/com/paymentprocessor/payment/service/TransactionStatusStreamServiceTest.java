@@ -0,0 +1,79 @@
+package com.paymentprocessor.payment.service;
+
+import com.paymentprocessor.common.exception.RateLimitExceededException;
+import com.paymentprocessor.common.exception.TransactionNotFoundException;
+import com.paymentprocessor.common.model.TransactionStatus;
+import com.paymentprocessor.payment.projection.ProjectionUpdate;
+import com.paymentprocessor.payment.query.TransactionReadModel;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class TransactionStatusStreamServiceTest {
+
+    private TransactionQueryService queryService;
+    private AtomicInteger dispatched;
+    private TransactionStatusStreamService streamService;
+
+    @BeforeEach
+    void setUp() {
+        queryService = mock(TransactionQueryService.class);
+        dispatched = new AtomicInteger();
+        streamService = new TransactionStatusStreamService(queryService,
+                task -> { dispatched.incrementAndGet(); task.run(); }, Duration.ofMinutes(1), 2);
+    }
+
+    @Test
+    void shouldRejectStreamsForUnknownTransactions() {
+        when(queryService.findByTransactionId("TX-404")).thenReturn(Optional.empty());
+
+        assertThatThrownBy(() -> streamService.subscribe("TX-404"))
+                .isInstanceOf(TransactionNotFoundException.class);
+        assertThat(streamService.activeSubscribers()).isZero();
+    }
+
+    @Test
+    void shouldCapOpenStreams() {
+        when(queryService.findByTransactionId("TX-1")).thenReturn(Optional.of(readModel("TX-1")));
+
+        streamService.subscribe("TX-1");
+        streamService.subscribe("TX-1");
+
+        assertThatThrownBy(() -> streamService.subscribe("TX-1"))
+                .isInstanceOf(RateLimitExceededException.class);
+        assertThat(streamService.activeSubscribers()).isEqualTo(2);
+    }
+
+    @Test
+    void shouldOnlyDispatchStatusChangesToSubscribedTransactions() {
+        when(queryService.findByTransactionId("TX-1")).thenReturn(Optional.of(readModel("TX-1")));
+        streamService.subscribe("TX-1");
+        dispatched.set(0);
+
+        streamService.onTransactionsProjected(List.of(
+                new ProjectionUpdate("TX-1", "user123", TransactionStatus.PENDING, TransactionStatus.PENDING, 2L),
+                new ProjectionUpdate("TX-2", "user123", TransactionStatus.PENDING, TransactionStatus.COMPLETED, 2L),
+                new ProjectionUpdate("TX-1", "user123", TransactionStatus.PENDING,
+                        TransactionStatus.FRAUD_CHECK_PASSED, 3L)));
+
+        assertThat(dispatched).hasValue(1);
+    }
+
+    private static TransactionReadModel readModel(String transactionId) {
+        return TransactionReadModel.builder()
+                .transactionId(transactionId)
+                .userId("user123")
+                .status(TransactionStatus.PENDING)
+                .version(1L)
+                .build();
+    }
+}
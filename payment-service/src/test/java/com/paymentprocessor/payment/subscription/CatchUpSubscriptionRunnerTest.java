@@ -0,0 +1,114 @@
+package com.paymentprocessor.payment.subscription;
+
+import com.paymentprocessor.common.event.FraudCheckCompletedEvent;
+import com.paymentprocessor.payment.repository.EventStore;
+import com.paymentprocessor.payment.repository.StoredEvent;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.List;
+import java.util.OptionalLong;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.*;
+
+class CatchUpSubscriptionRunnerTest {
+
+    private static final String SUBSCRIPTION = "test-subscription";
+
+    private EventStore eventStore;
+    private JdbcSubscriptionCheckpointStore checkpointStore;
+    private EventStreamSubscriber subscriber;
+    private TransactionTemplate transactionTemplate;
+
+    @BeforeEach
+    void setUp() {
+        eventStore = mock(EventStore.class);
+        checkpointStore = mock(JdbcSubscriptionCheckpointStore.class);
+        subscriber = mock(EventStreamSubscriber.class);
+        transactionTemplate = new TransactionTemplate(mock(PlatformTransactionManager.class));
+        when(subscriber.subscriptionName()).thenReturn(SUBSCRIPTION);
+        when(checkpointStore.lockCheckpoint(SUBSCRIPTION)).thenReturn(OptionalLong.of(10L));
+    }
+
+    @Test
+    void shouldDeliverContiguousEventsAndAdvanceCheckpoint() {
+        var events = List.of(storedEvent(11), storedEvent(12));
+        when(eventStore.readAll(10L, 100)).thenReturn(events);
+
+        int delivered = runner().deliverNextBatch(subscriber);
+
+        assertThat(delivered).isEqualTo(2);
+        verify(subscriber).handle(events);
+        verify(checkpointStore).saveCheckpoint(SUBSCRIPTION, 12L);
+    }
+
+    @Test
+    void shouldStopInFrontOfFreshGap() {
+        var events = List.of(storedEvent(11), storedEvent(13));
+        when(eventStore.readAll(10L, 100)).thenReturn(events);
+
+        int delivered = runner().deliverNextBatch(subscriber);
+
+        assertThat(delivered).isEqualTo(1);
+        verify(subscriber).handle(events.subList(0, 1));
+        verify(checkpointStore).saveCheckpoint(SUBSCRIPTION, 11L);
+    }
+
+    @Test
+    void shouldSkipGapOnceEveryTransactionThatCouldHoldItHasEnded() {
+        when(eventStore.readAll(10L, 100)).thenReturn(List.of(storedEvent(12)));
+        when(checkpointStore.currentTransactionHorizon()).thenReturn(
+                new JdbcSubscriptionCheckpointStore.TransactionHorizon(500L, 510L),
+                new JdbcSubscriptionCheckpointStore.TransactionHorizon(510L, 520L));
+        var runner = runner();
+
+        assertThat(runner.deliverNextBatch(subscriber)).isZero();
+        assertThat(runner.deliverNextBatch(subscriber)).isZero();
+        assertThat(runner.deliverNextBatch(subscriber)).isEqualTo(1);
+
+        verify(checkpointStore).saveCheckpoint(SUBSCRIPTION, 12L);
+    }
+
+    @Test
+    void shouldKeepGapOpenWhileLongRunningWriterIsActive() {
+        when(eventStore.readAll(10L, 100)).thenReturn(List.of(storedEvent(12)));
+        when(checkpointStore.currentTransactionHorizon()).thenReturn(
+                new JdbcSubscriptionCheckpointStore.TransactionHorizon(500L, 510L),
+                new JdbcSubscriptionCheckpointStore.TransactionHorizon(505L, 600L));
+        var runner = runner();
+
+        for (int poll = 0; poll < 10; poll++) {
+            assertThat(runner.deliverNextBatch(subscriber)).isZero();
+        }
+
+        verify(subscriber, never()).handle(anyList());
+        verify(checkpointStore, never()).saveCheckpoint(anyString(), anyLong());
+    }
+
+    @Test
+    void shouldSkipSubscriptionHeldByAnotherInstance() {
+        when(checkpointStore.lockCheckpoint(SUBSCRIPTION)).thenReturn(OptionalLong.empty());
+
+        runner().pollSubscriptions();
+
+        verify(eventStore, never()).readAll(anyLong(), anyInt());
+        verify(subscriber, never()).handle(anyList());
+        verify(checkpointStore, never()).saveCheckpoint(anyString(), anyLong());
+    }
+
+    private CatchUpSubscriptionRunner runner() {
+        return new CatchUpSubscriptionRunner(List.of(subscriber), eventStore, checkpointStore,
+                transactionTemplate, 100);
+    }
+
+    private static StoredEvent storedEvent(long position) {
+        return new StoredEvent(position, "TX-" + position, 1L,
+                new FraudCheckCompletedEvent("TX-" + position, true, 0.1, "low risk"));
+    }
+}
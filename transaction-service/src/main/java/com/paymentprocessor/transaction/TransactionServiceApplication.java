@@ -6,7 +6,7 @@ import org.springframework.kafka.annotation.EnableKafka;
 
 @SpringBootApplication(scanBasePackages = {
         "com.paymentprocessor.transaction",
-        "com.paymentProcessor.common"
+        "com.paymentprocessor.common"
 })
 @EnableKafka
 public class TransactionServiceApplication {
@@ -0,0 +1,125 @@
+package com.paymentprocessor.transaction.admission;
+
+import com.paymentprocessor.common.exception.ServiceOverloadedException;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.kafka.common.Metric;
+import org.apache.kafka.common.MetricName;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.kafka.core.KafkaTemplate;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+
+// Rejects submissions before they reach the producer once it shows backpressure: too many
+// unacknowledged sends, a nearly full record buffer, or threads already blocked waiting for buffer
+// space. Shedding at the door keeps request threads from parking inside send() for max.block.ms.
+@Slf4j
+@Component
+public class KafkaAdmissionController {
+
+    private static final String PRODUCER_METRICS_GROUP = "producer-metrics";
+
+    private final KafkaTemplate<String, Object> kafkaTemplate;
+    private final int maxInFlight;
+    private final double maxBufferUtilization;
+    private final long sampleIntervalNanos;
+    private final long retryAfterSeconds;
+    private final AtomicInteger inFlight = new AtomicInteger();
+    private final AtomicLong lastSampleNanos = new AtomicLong(System.nanoTime());
+    private final Counter shedCounter;
+    private volatile ProducerPressure pressure = ProducerPressure.NONE;
+
+    public KafkaAdmissionController(KafkaTemplate<String, Object> kafkaTemplate,
+                                    MeterRegistry meterRegistry,
+                                    @Value("${transaction.admission.max-in-flight:20000}") int maxInFlight,
+                                    @Value("${transaction.admission.max-buffer-utilization:0.8}") double maxBufferUtilization,
+                                    @Value("${transaction.admission.sample-interval:100ms}") Duration sampleInterval,
+                                    @Value("${transaction.admission.retry-after:1s}") Duration retryAfter) {
+        this.kafkaTemplate = kafkaTemplate;
+        this.maxInFlight = maxInFlight;
+        this.maxBufferUtilization = maxBufferUtilization;
+        this.sampleIntervalNanos = sampleInterval.toNanos();
+        this.retryAfterSeconds = Math.max(1, retryAfter.toSeconds());
+        this.shedCounter = Counter.builder("transactions.shed")
+                .description("Number of submissions rejected because the Kafka producer was backed up")
+                .register(meterRegistry);
+        Gauge.builder("transactions.publish.in-flight", inFlight, AtomicInteger::get)
+                .description("Number of transaction events sent but not yet acknowledged")
+                .register(meterRegistry);
+    }
+
+    // Throws ServiceOverloadedException when the given number of new sends should not be started
+    public void admit(int sends) {
+        var current = samplePressure();
+        String reason = null;
+        if (current.waitingThreads() > 0) {
+            reason = "producer threads are blocked waiting for buffer space";
+        } else if (current.bufferUtilization() > maxBufferUtilization) {
+            reason = String.format("producer buffer is %.0f%% full", current.bufferUtilization() * 100);
+        } else if (inFlight.get() + sends > maxInFlight) {
+            reason = "too many unacknowledged sends";
+        }
+
+        if (reason != null) {
+            shedCounter.increment(sends);
+            throw new ServiceOverloadedException(reason, retryAfterSeconds);
+        }
+    }
+
+    // Counts the send as in flight until the broker acknowledges or rejects it
+    public <T> CompletableFuture<T> track(Supplier<CompletableFuture<T>> send) {
+        inFlight.incrementAndGet();
+        try {
+            return send.get().whenComplete((result, failure) -> inFlight.decrementAndGet());
+        } catch (RuntimeException e) {
+            inFlight.decrementAndGet();
+            throw e;
+        }
+    }
+
+    int inFlight() {
+        return inFlight.get();
+    }
+
+    // Reading the producer's metric registry walks every metric, so it is sampled, not read per request
+    private ProducerPressure samplePressure() {
+        long now = System.nanoTime();
+        long last = lastSampleNanos.get();
+        if (now - last >= sampleIntervalNanos && lastSampleNanos.compareAndSet(last, now)) {
+            pressure = readPressure(kafkaTemplate.metrics());
+        }
+        return pressure;
+    }
+
+    static ProducerPressure readPressure(Map<MetricName, ? extends Metric> metrics) {
+        double available = Double.NaN;
+        double total = Double.NaN;
+        double waitingThreads = 0;
+        for (var entry : metrics.entrySet()) {
+            if (!PRODUCER_METRICS_GROUP.equals(entry.getKey().group())
+                    || !(entry.getValue().metricValue() instanceof Number value)) {
+                continue;
+            }
+            switch (entry.getKey().name()) {
+                case "buffer-available-bytes" -> available = value.doubleValue();
+                case "buffer-total-bytes" -> total = value.doubleValue();
+                case "waiting-threads" -> waitingThreads = value.doubleValue();
+                default -> { }
+            }
+        }
+        double utilization = total > 0 && !Double.isNaN(available) ? 1 - available / total : 0;
+        return new ProducerPressure(utilization, waitingThreads);
+    }
+
+    record ProducerPressure(double bufferUtilization, double waitingThreads) {
+        static final ProducerPressure NONE = new ProducerPressure(0, 0);
+    }
+}
@@ -19,6 +19,15 @@ public class KafkaProducerConfig {
     @Value("${spring.kafka.bootstrap-servers:localhost:9092}")
     private String bootstrapServers;
 
+    @Value("${spring.kafka.producer.properties.linger.ms:5}")
+    private int lingerMs;
+
+    @Value("${spring.kafka.producer.batch-size:65536}")
+    private int batchSize;
+
+    @Value("${spring.kafka.producer.properties.max.block.ms:1000}")
+    private long maxBlockMs;
+
     @Bean
     public ProducerFactory<String, Object> producerFactory() {
         Map<String, Object> configProps = new HashMap<>();
@@ -30,6 +39,11 @@ public class KafkaProducerConfig {
         configProps.put(ProducerConfig.ENABLE_IDEMPOTENCE_CONFIG, true);
         configProps.put(ProducerConfig.MAX_IN_FLIGHT_REQUESTS_PER_CONNECTION, 5);
         configProps.put(ProducerConfig.RETRY_BACKOFF_MS_CONFIG, 100);
+        // A short linger lets bulk submissions fill batches instead of sending one record per request
+        configProps.put(ProducerConfig.LINGER_MS_CONFIG, lingerMs);
+        configProps.put(ProducerConfig.BATCH_SIZE_CONFIG, batchSize);
+        // Admission control sheds load before the buffer fills; this only bounds the stall if it misjudges
+        configProps.put(ProducerConfig.MAX_BLOCK_MS_CONFIG, maxBlockMs);
 
         return new DefaultKafkaProducerFactory<>(configProps);
     }
@@ -1,29 +0,0 @@
-package com.paymentprocessor.transaction.config;
-
-import io.github.resilience4j.ratelimiter.RateLimiter;
-import io.github.resilience4j.ratelimiter.RateLimiterConfig;
-import io.github.resilience4j.ratelimiter.RateLimiterRegistry;
-import org.springframework.context.annotation.Bean;
-import org.springframework.context.annotation.Configuration;
-
-import java.time.Duration;
-
-@Configuration
-public class ResilienceConfig {
-
-    @Bean
-    public RateLimiterRegistry rateLimiterRegistry() {
-        return RateLimiterRegistry.ofDefaults();
-    }
-
-    @Bean
-    public RateLimiter createTransactionRateLimiter() {
-        RateLimiterConfig config = RateLimiterConfig.custom()
-                .limitRefreshPeriod(Duration.ofSeconds(1))
-                .limitForPeriod(10)
-                .timeoutDuration(Duration.ofMillis(500))
-                .build();
-
-        return RateLimiter.of("CreateTransaction", config);
-    }
-}
@@ -1,10 +1,15 @@
 package com.paymentprocessor.transaction.controller;
 
+import com.paymentprocessor.common.util.ConsistencyToken;
 import com.paymentprocessor.common.util.CorrelationIdGenerator;
+import com.paymentprocessor.transaction.dto.CreateTransactionBatchRequest;
+import com.paymentprocessor.transaction.dto.CreateTransactionBatchResponse;
 import com.paymentprocessor.transaction.dto.CreateTransactionRequest;
 import com.paymentprocessor.transaction.dto.CreateTransactionResponse;
+import com.paymentprocessor.transaction.idempotency.IdempotencyService;
+import com.paymentprocessor.transaction.idempotency.IdempotentResult;
+import com.paymentprocessor.transaction.ratelimit.TransactionRateLimiter;
 import com.paymentprocessor.transaction.service.TransactionService;
-import io.github.resilience4j.ratelimiter.annotation.RateLimiter;
 import io.micrometer.core.annotation.Counted;
 import io.micrometer.core.annotation.Timed;
 import io.swagger.v3.oas.annotations.Operation;
@@ -25,48 +30,105 @@ import org.springframework.web.bind.annotation.*;
 @Tag(name = "Transaction API", description = "Payment transaction management")
 public class TransactionController {
 
+    static final String IDEMPOTENCY_KEY_HEADER = "Idempotency-Key";
+    static final String IDEMPOTENT_REPLAY_HEADER = "Idempotent-Replayed";
+    static final String API_KEY_HEADER = "X-API-Key";
+
     private final TransactionService transactionService;
     private final CorrelationIdGenerator correlationIdGenerator;
+    private final IdempotencyService idempotencyService;
+    private final TransactionRateLimiter rateLimiter;
 
     @Autowired
     public TransactionController(TransactionService transactionService,
-                                 CorrelationIdGenerator correlationIdGenerator) {
+                                 CorrelationIdGenerator correlationIdGenerator,
+                                 IdempotencyService idempotencyService,
+                                 TransactionRateLimiter rateLimiter) {
         this.transactionService = transactionService;
         this.correlationIdGenerator = correlationIdGenerator;
+        this.idempotencyService = idempotencyService;
+        this.rateLimiter = rateLimiter;
     }
 
     @PostMapping
-    @RateLimiter(name = "CreateTransaction", fallbackMethod = "CreateTransactionFallback")
     @Timed(value = "transaction.creation.time", description = "Time taken to create a transaction")
     @Counted(value = "transaction.creation.count", description = "Number of transaction creation requests")
     @Operation(summary = "Create a new payment transaction",
             description = "Initiates a new payment transaction and returns transaction ID")
     @ApiResponses(value = {
             @ApiResponse(responseCode = "202", description = "Transaction accepted for processing"),
-            @ApiResponse(responseCode = "400", description = "Invalid request data"),
+            @ApiResponse(responseCode = "400", description = "Invalid request data or reused Idempotency-Key"),
+            @ApiResponse(responseCode = "409", description = "Request with the same Idempotency-Key in progress"),
             @ApiResponse(responseCode = "429", description = "Rate limit exceeded"),
             @ApiResponse(responseCode = "500", description = "Internal Server Error")
     })
     public ResponseEntity<CreateTransactionResponse> createTransaction (
             @Valid @RequestBody CreateTransactionRequest request,
+            @RequestHeader(name = IDEMPOTENCY_KEY_HEADER, required = false) String idempotencyKey,
+            @RequestHeader(name = API_KEY_HEADER, required = false) String apiKey,
             HttpServletRequest httpRequest) {
         var correlationId = correlationIdGenerator.generateCorrelationId();
         correlationIdGenerator.setCorrelationId(correlationId);
 
         try {
+            rateLimiter.checkSubmission(request.userId(), apiKey);
+
             // Extract and enrich request with metadata
             var enrichedRequest = enrichRequestWithMetadata(request, httpRequest);
 
             log.info("Creating transaction for user: {} with correlation ID: {}",
                     enrichedRequest.userId(), correlationId);
 
-            var response = transactionService.createTransaction(enrichedRequest,
-                    correlationId);
+            var result = idempotencyKey != null
+                    ? idempotencyService.execute(idempotencyKey, enrichedRequest,
+                            () -> transactionService.createTransactionAcknowledged(enrichedRequest, correlationId))
+                    : new IdempotentResult(transactionService.createTransaction(enrichedRequest, correlationId), false);
+            var response = result.response();
 
             log.info("Transaction created successfully: {} with correlation ID: {}",
                     response.transactionId(), correlationId);
 
-            return ResponseEntity.status(HttpStatus.ACCEPTED).body(response);
+            return ResponseEntity.status(HttpStatus.ACCEPTED)
+                    .header(ConsistencyToken.HEADER, response.consistencyToken())
+                    .header(IDEMPOTENT_REPLAY_HEADER, Boolean.toString(result.replayed()))
+                    .body(response);
+        } finally {
+            correlationIdGenerator.clearCorrelationId();
+        }
+    }
+
+    @PostMapping("/batch")
+    @Timed(value = "transaction.batch.creation.time", description = "Time taken to create a batch of transactions")
+    @Counted(value = "transaction.batch.creation.count", description = "Number of batch creation requests")
+    @Operation(summary = "Create a batch of payment transactions",
+            description = "Accepts many payments in one request and reports the outcome of each item")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "202", description = "All transactions accepted for processing"),
+            @ApiResponse(responseCode = "207", description = "Some transactions were rejected or are pending; see per-item results"),
+            @ApiResponse(responseCode = "400", description = "Invalid or oversized batch"),
+            @ApiResponse(responseCode = "429", description = "Rate limit exceeded"),
+            @ApiResponse(responseCode = "500", description = "Internal Server Error")
+    })
+    public ResponseEntity<CreateTransactionBatchResponse> createTransactionBatch(
+            @Valid @RequestBody CreateTransactionBatchRequest request,
+            @RequestHeader(name = API_KEY_HEADER, required = false) String apiKey,
+            HttpServletRequest httpRequest) {
+        var correlationId = correlationIdGenerator.generateCorrelationId();
+        correlationIdGenerator.setCorrelationId(correlationId);
+
+        try {
+            rateLimiter.checkBatchSubmission(apiKey, extractClientIpAddress(httpRequest), request.transactions().stream()
+                    .map(item -> item != null ? item.userId() : null)
+                    .toList());
+            var enrichedRequests = request.transactions().stream()
+                    .map(item -> item != null ? enrichRequestWithMetadata(item, httpRequest) : null)
+                    .toList();
+
+            var response = transactionService.createTransactions(enrichedRequests, correlationId);
+
+            return ResponseEntity
+                    .status(response.isFullyAccepted() ? HttpStatus.ACCEPTED : HttpStatus.MULTI_STATUS)
+                    .body(response);
         } finally {
             correlationIdGenerator.clearCorrelationId();
         }
@@ -0,0 +1,14 @@
+package com.paymentprocessor.transaction.dto;
+
+import com.fasterxml.jackson.annotation.JsonProperty;
+import jakarta.validation.constraints.NotEmpty;
+
+import java.util.List;
+
+// Items are validated one by one by the service so a bad item rejects only itself
+public record CreateTransactionBatchRequest(
+        @NotEmpty(message = "At least one transaction is required")
+        @JsonProperty("transactions")
+        List<CreateTransactionRequest> transactions
+) {
+}
@@ -0,0 +1,33 @@
+package com.paymentprocessor.transaction.dto;
+
+import com.fasterxml.jackson.annotation.JsonProperty;
+
+import java.util.List;
+
+public record CreateTransactionBatchResponse(
+        @JsonProperty("acceptedCount")
+        int acceptedCount,
+
+        @JsonProperty("rejectedCount")
+        int rejectedCount,
+
+        @JsonProperty("pendingCount")
+        int pendingCount,
+
+        @JsonProperty("results")
+        List<TransactionBatchItemResult> results
+) {
+    public static CreateTransactionBatchResponse of(List<TransactionBatchItemResult> results) {
+        int accepted = count(results, TransactionBatchItemResult.Status.ACCEPTED);
+        int pending = count(results, TransactionBatchItemResult.Status.PENDING);
+        return new CreateTransactionBatchResponse(accepted, results.size() - accepted - pending, pending, results);
+    }
+
+    public boolean isFullyAccepted() {
+        return rejectedCount == 0 && pendingCount == 0;
+    }
+
+    private static int count(List<TransactionBatchItemResult> results, TransactionBatchItemResult.Status status) {
+        return (int) results.stream().filter(result -> result.status() == status).count();
+    }
+}
@@ -2,6 +2,7 @@ package com.paymentprocessor.transaction.dto;
 
 import com.fasterxml.jackson.annotation.JsonProperty;
 import com.paymentprocessor.common.model.TransactionStatus;
+import com.paymentprocessor.common.util.ConsistencyToken;
 
 import java.math.BigDecimal;
 import java.time.LocalDateTime;
@@ -20,25 +21,33 @@ public record CreateTransactionResponse(
         LocalDateTime timestamp,
 
         @JsonProperty("webhookUrl")
-        String webhookUrl
+        String webhookUrl,
+
+        @JsonProperty("consistencyToken")
+        String consistencyToken
 ) {
+    // The payment-side aggregate is at version 1 once the creation event has been applied
+    private static final long CREATED_VERSION = 1L;
+
     public CreateTransactionResponse {
         timestamp = timestamp != null ? timestamp : LocalDateTime.now();
     }
 
     // Convenience constructor without timestamp (will use current time)
     public CreateTransactionResponse(String transactionId, TransactionStatus status,
-                                     String message, String webhookUrl) {
-        this(transactionId, status, message, LocalDateTime.now(), webhookUrl);
+                                     String message, String webhookUrl, String consistencyToken) {
+        this(transactionId, status, message, LocalDateTime.now(), webhookUrl, consistencyToken);
     }
 
     // Factory methods for common responses
+    // The token lets the client read its own write from the payment query API
     public static CreateTransactionResponse success(String transactionId, String webhookUrl) {
         return new CreateTransactionResponse(
                 transactionId,
                 TransactionStatus.PENDING,
                 "Transaction created successfully",
-                webhookUrl
+                webhookUrl,
+                new ConsistencyToken(transactionId, CREATED_VERSION).encode()
         );
     }
 
@@ -52,6 +61,7 @@ public record CreateTransactionResponse(
                 transactionId,
                 TransactionStatus.FAILED,
                 message,
+                null,
                 null
         );
     }
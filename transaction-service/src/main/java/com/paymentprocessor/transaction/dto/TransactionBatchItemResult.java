@@ -0,0 +1,46 @@
+package com.paymentprocessor.transaction.dto;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.fasterxml.jackson.annotation.JsonProperty;
+
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public record TransactionBatchItemResult(
+        @JsonProperty("index")
+        int index,
+
+        @JsonProperty("accepted")
+        boolean accepted,
+
+        @JsonProperty("status")
+        Status status,
+
+        @JsonProperty("transactionId")
+        String transactionId,
+
+        @JsonProperty("consistencyToken")
+        String consistencyToken,
+
+        @JsonProperty("error")
+        String error
+) {
+    public enum Status {
+        ACCEPTED,
+        REJECTED,
+        // Sent, but the broker did not acknowledge in time; the transaction may still go through
+        PENDING
+    }
+
+    public static TransactionBatchItemResult accepted(int index, CreateTransactionResponse response) {
+        return new TransactionBatchItemResult(index, true, Status.ACCEPTED, response.transactionId(),
+                response.consistencyToken(), null);
+    }
+
+    public static TransactionBatchItemResult rejected(int index, String transactionId, String error) {
+        return new TransactionBatchItemResult(index, false, Status.REJECTED, transactionId, null, error);
+    }
+
+    public static TransactionBatchItemResult pending(int index, String transactionId) {
+        return new TransactionBatchItemResult(index, false, Status.PENDING, transactionId, null,
+                "Publish was not confirmed in time; check the transaction status before resubmitting");
+    }
+}
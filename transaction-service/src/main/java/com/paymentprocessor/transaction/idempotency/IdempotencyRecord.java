@@ -0,0 +1,21 @@
+package com.paymentprocessor.transaction.idempotency;
+
+import com.paymentprocessor.transaction.dto.CreateTransactionResponse;
+
+import java.time.Instant;
+
+// A reserved key; the response stays null until the original request has finished
+public record IdempotencyRecord(
+        String key,
+        String requestHash,
+        CreateTransactionResponse response,
+        Instant expiresAt
+) {
+    public boolean isCompleted() {
+        return response != null;
+    }
+
+    public boolean isExpired(Instant now) {
+        return !expiresAt.isAfter(now);
+    }
+}
@@ -0,0 +1,230 @@
+package com.paymentprocessor.transaction.idempotency;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.paymentprocessor.common.exception.IdempotencyConflictException;
+import com.paymentprocessor.common.exception.InvalidTransactionException;
+import com.paymentprocessor.transaction.dto.CreateTransactionRequest;
+import com.paymentprocessor.transaction.dto.CreateTransactionResponse;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.HexFormat;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.function.Supplier;
+
+// Two tiers: completed responses are served from a bounded local cache, and concurrent
+// duplicates on this node share the first request's future, so a retry storm reaches the
+// shared store roughly once per key per node.
+@Slf4j
+@Service
+public class IdempotencyService {
+
+    static final int MAX_KEY_LENGTH = 255;
+
+    private final IdempotencyStore store;
+    private final Cache<String, IdempotencyRecord> completed;
+    private final Map<String, InFlight> inFlight = new ConcurrentHashMap<>();
+    private final Duration ttl;
+    private final Duration reservationLease;
+    private final Duration inFlightWait;
+    private final Duration publishTimeout;
+    private final Counter replayCounter;
+    private final Counter conflictCounter;
+
+    public IdempotencyService(IdempotencyStore store,
+                              MeterRegistry meterRegistry,
+                              @Value("${transaction.idempotency.ttl:24h}") Duration ttl,
+                              @Value("${transaction.idempotency.reservation-lease:3m}") Duration reservationLease,
+                              @Value("${transaction.idempotency.local-cache.max-size:100000}") long localMaxSize,
+                              @Value("${transaction.idempotency.local-cache.ttl:10m}") Duration localTtl,
+                              @Value("${transaction.idempotency.in-flight-wait:5s}") Duration inFlightWait,
+                              @Value("${transaction.idempotency.publish-timeout:5s}") Duration publishTimeout) {
+        this.store = store;
+        this.ttl = ttl;
+        this.reservationLease = reservationLease;
+        this.inFlightWait = inFlightWait;
+        this.publishTimeout = publishTimeout;
+        this.completed = Caffeine.newBuilder()
+                .maximumSize(localMaxSize)
+                .expireAfterWrite(localTtl.compareTo(ttl) < 0 ? localTtl : ttl)
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, completed, "transaction.idempotency.cache");
+        this.replayCounter = Counter.builder("transactions.idempotent.replays")
+                .description("Number of requests answered with a stored response")
+                .register(meterRegistry);
+        this.conflictCounter = Counter.builder("transactions.idempotent.conflicts")
+                .description("Number of requests rejected because the same key was still in progress")
+                .register(meterRegistry);
+    }
+
+    // The action must complete only once the transaction is durably submitted: a stored response is
+    // replayed to every retry, so storing one for a payment that was never published would lose it
+    public IdempotentResult execute(String idempotencyKey, CreateTransactionRequest request,
+                                    Supplier<CompletableFuture<CreateTransactionResponse>> action) {
+        validateKey(idempotencyKey);
+        // Keys are chosen by clients, so scope them per user to keep clients from colliding
+        var key = request.userId() + ":" + idempotencyKey;
+        var requestHash = hash(request);
+
+        var cached = completed.getIfPresent(key);
+        if (cached != null) {
+            return replay(cached, requestHash);
+        }
+
+        var own = new InFlight(requestHash, new CompletableFuture<>());
+        var existing = inFlight.putIfAbsent(key, own);
+        if (existing != null) {
+            return awaitInFlight(idempotencyKey, existing, requestHash);
+        }
+
+        try {
+            var stored = store.reserve(key, requestHash, Instant.now().plus(reservationLease));
+            if (stored.isPresent()) {
+                if (!stored.get().isCompleted()) {
+                    conflictCounter.increment();
+                    throw new IdempotencyConflictException(idempotencyKey);
+                }
+                completed.put(key, stored.get());
+                own.future().complete(stored.get().response());
+                return replay(stored.get(), requestHash);
+            }
+
+            var response = awaitSubmission(idempotencyKey, key, action);
+            try {
+                store.complete(key, response, Instant.now().plus(ttl));
+            } catch (RuntimeException e) {
+                // The payment was published, so the client still gets its transaction ID. This node
+                // keeps replaying it; elsewhere the key frees itself once the reservation lease ends.
+                log.error("Failed to store response for published transaction: {}", response.transactionId(), e);
+            }
+            completed.put(key, new IdempotencyRecord(key, requestHash, response, Instant.now().plus(ttl)));
+            own.future().complete(response);
+            return new IdempotentResult(response, false);
+        } catch (RuntimeException e) {
+            own.future().completeExceptionally(e);
+            throw e;
+        } finally {
+            inFlight.remove(key, own);
+        }
+    }
+
+    private CreateTransactionResponse awaitSubmission(String idempotencyKey, String key,
+                                                      Supplier<CompletableFuture<CreateTransactionResponse>> action) {
+        CompletableFuture<CreateTransactionResponse> submission;
+        try {
+            submission = action.get();
+        } catch (RuntimeException e) {
+            store.release(key);
+            throw e;
+        }
+
+        try {
+            return submission.get(publishTimeout.toMillis(), TimeUnit.MILLISECONDS);
+        } catch (ExecutionException e) {
+            store.release(key);
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw new InvalidTransactionException("Failed to initiate transaction processing", e.getCause());
+        } catch (TimeoutException | InterruptedException e) {
+            if (e instanceof InterruptedException) {
+                Thread.currentThread().interrupt();
+            }
+            // Outcome unknown: the send may still succeed, so the key stays reserved until it settles
+            // and retries meanwhile get a conflict rather than a second payment
+            submission.whenComplete((response, failure) -> settle(key, response, failure));
+            conflictCounter.increment();
+            throw new IdempotencyConflictException(idempotencyKey);
+        }
+    }
+
+    private void settle(String key, CreateTransactionResponse response, Throwable failure) {
+        try {
+            if (failure == null) {
+                store.complete(key, response, Instant.now().plus(ttl));
+            } else {
+                store.release(key);
+            }
+        } catch (RuntimeException e) {
+            // The reservation expires on its own; until then retries keep getting a conflict
+            log.error("Failed to settle idempotency key after a late publish outcome", e);
+        }
+    }
+
+    private IdempotentResult awaitInFlight(String idempotencyKey, InFlight existing, String requestHash) {
+        checkSameRequest(existing.requestHash(), requestHash);
+        try {
+            var response = existing.future().get(inFlightWait.toMillis(), TimeUnit.MILLISECONDS);
+            replayCounter.increment();
+            return new IdempotentResult(response, true);
+        } catch (ExecutionException e) {
+            // The duplicate would have met the same fate as the original
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw new IllegalStateException(e.getCause());
+        } catch (TimeoutException e) {
+            conflictCounter.increment();
+            throw new IdempotencyConflictException(idempotencyKey);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IdempotencyConflictException(idempotencyKey);
+        }
+    }
+
+    private IdempotentResult replay(IdempotencyRecord record, String requestHash) {
+        checkSameRequest(record.requestHash(), requestHash);
+        replayCounter.increment();
+        log.info("Replaying stored response for transaction: {}", record.response().transactionId());
+        return new IdempotentResult(record.response(), true);
+    }
+
+    private static void checkSameRequest(String storedHash, String requestHash) {
+        if (!storedHash.equals(requestHash)) {
+            throw new InvalidTransactionException("Idempotency-Key was already used for a different request");
+        }
+    }
+
+    private static void validateKey(String idempotencyKey) {
+        if (idempotencyKey.isBlank() || idempotencyKey.length() > MAX_KEY_LENGTH) {
+            throw new InvalidTransactionException(
+                    "Idempotency-Key must be between 1 and " + MAX_KEY_LENGTH + " characters");
+        }
+    }
+
+    // Client metadata such as IP address and user agent may differ between retries and is left out
+    static String hash(CreateTransactionRequest request) {
+        var canonical = String.join("\u001f",
+                request.userId(),
+                request.amount().stripTrailingZeros().toPlainString(),
+                request.currency().name(),
+                request.paymentMethod().name(),
+                Objects.toString(request.description(), ""),
+                Objects.toString(request.webhookUrl(), ""));
+        try {
+            var digest = MessageDigest.getInstance("SHA-256").digest(canonical.getBytes(StandardCharsets.UTF_8));
+            return HexFormat.of().formatHex(digest);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 is not available", e);
+        }
+    }
+
+    private record InFlight(String requestHash, CompletableFuture<CreateTransactionResponse> future) {}
+}
@@ -0,0 +1,19 @@
+package com.paymentprocessor.transaction.idempotency;
+
+import com.paymentprocessor.transaction.dto.CreateTransactionResponse;
+
+import java.time.Instant;
+import java.util.Optional;
+
+public interface IdempotencyStore {
+
+    // Empty when the caller now owns the key, otherwise the live record that already holds it.
+    // expiresAt is a short lease, so a key whose owner died frees itself.
+    Optional<IdempotencyRecord> reserve(String key, String requestHash, Instant expiresAt);
+
+    // Stores the response and extends the key to the full record lifetime
+    void complete(String key, CreateTransactionResponse response, Instant expiresAt);
+
+    // Frees a reservation whose request failed so the client can retry with the same key
+    void release(String key);
+}
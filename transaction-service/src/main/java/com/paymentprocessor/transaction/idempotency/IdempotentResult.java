@@ -0,0 +1,6 @@
+package com.paymentprocessor.transaction.idempotency;
+
+import com.paymentprocessor.transaction.dto.CreateTransactionResponse;
+
+public record IdempotentResult(CreateTransactionResponse response, boolean replayed) {
+}
@@ -0,0 +1,38 @@
+package com.paymentprocessor.transaction.idempotency;
+
+import com.paymentprocessor.transaction.dto.CreateTransactionResponse;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.time.Instant;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+
+// Single-node stand-in for tests and local runs; keys are not shared between instances
+@Component
+@ConditionalOnProperty(name = "transaction.idempotency.store", havingValue = "memory")
+public class InMemoryIdempotencyStore implements IdempotencyStore {
+
+    private final Map<String, IdempotencyRecord> records = new ConcurrentHashMap<>();
+
+    @Override
+    public Optional<IdempotencyRecord> reserve(String key, String requestHash, Instant expiresAt) {
+        var now = Instant.now();
+        var reservation = new IdempotencyRecord(key, requestHash, null, expiresAt);
+        var current = records.compute(key, (k, existing) ->
+                existing == null || existing.isExpired(now) ? reservation : existing);
+        return current == reservation ? Optional.empty() : Optional.of(current);
+    }
+
+    @Override
+    public void complete(String key, CreateTransactionResponse response, Instant expiresAt) {
+        records.computeIfPresent(key, (k, existing) ->
+                new IdempotencyRecord(k, existing.requestHash(), response, expiresAt));
+    }
+
+    @Override
+    public void release(String key) {
+        records.computeIfPresent(key, (k, existing) -> existing.isCompleted() ? existing : null);
+    }
+}
@@ -0,0 +1,105 @@
+package com.paymentprocessor.transaction.idempotency;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.paymentprocessor.transaction.dto.CreateTransactionResponse;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.time.Instant;
+import java.util.Optional;
+
+// Shared by all instances, so a retry landing on another node still finds the original response.
+// Any PostgreSQL-compatible database works; reservation is a single conditional upsert.
+@Slf4j
+@Repository
+@ConditionalOnProperty(name = "transaction.idempotency.store", havingValue = "jdbc", matchIfMissing = true)
+public class JdbcIdempotencyStore implements IdempotencyStore {
+
+    private static final int RESERVE_ATTEMPTS = 3;
+
+    private final JdbcTemplate jdbcTemplate;
+    private final ObjectMapper objectMapper;
+
+    public JdbcIdempotencyStore(JdbcTemplate jdbcTemplate, ObjectMapper objectMapper) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.objectMapper = objectMapper;
+    }
+
+    @Override
+    public Optional<IdempotencyRecord> reserve(String key, String requestHash, Instant expiresAt) {
+        for (int attempt = 0; attempt < RESERVE_ATTEMPTS; attempt++) {
+            var now = Timestamp.from(Instant.now());
+            // Takes over an expired row in place, so stale keys never need a separate cleanup pass to be reusable
+            int reserved = jdbcTemplate.update("""
+                    INSERT INTO idempotency_keys (idempotency_key, request_hash, response, expires_at)
+                    VALUES (?, ?, NULL, ?)
+                    ON CONFLICT (idempotency_key) DO UPDATE
+                        SET request_hash = EXCLUDED.request_hash,
+                            response = NULL,
+                            expires_at = EXCLUDED.expires_at,
+                            created_at = CURRENT_TIMESTAMP
+                        WHERE idempotency_keys.expires_at <= ?
+                    """, key, requestHash, Timestamp.from(expiresAt), now);
+            if (reserved == 1) {
+                return Optional.empty();
+            }
+
+            var existing = jdbcTemplate.query("""
+                    SELECT idempotency_key, request_hash, response, expires_at
+                    FROM idempotency_keys
+                    WHERE idempotency_key = ?
+                    """, this::mapRow, key);
+            if (!existing.isEmpty()) {
+                return Optional.of(existing.get(0));
+            }
+            // Released between our insert and select; try to claim it again
+        }
+        throw new IllegalStateException("Could not reserve idempotency key: " + key);
+    }
+
+    @Override
+    public void complete(String key, CreateTransactionResponse response, Instant expiresAt) {
+        jdbcTemplate.update("""
+                UPDATE idempotency_keys SET response = ?::jsonb, expires_at = ? WHERE idempotency_key = ?
+                """, toJson(response), Timestamp.from(expiresAt), key);
+    }
+
+    @Override
+    public void release(String key) {
+        jdbcTemplate.update("""
+                DELETE FROM idempotency_keys WHERE idempotency_key = ? AND response IS NULL
+                """, key);
+    }
+
+    private IdempotencyRecord mapRow(ResultSet rs, int rowNum) throws SQLException {
+        var json = rs.getString("response");
+        return new IdempotencyRecord(
+                rs.getString("idempotency_key"),
+                rs.getString("request_hash"),
+                json != null ? fromJson(json) : null,
+                rs.getTimestamp("expires_at").toInstant()
+        );
+    }
+
+    private String toJson(CreateTransactionResponse response) {
+        try {
+            return objectMapper.writeValueAsString(response);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Failed to serialize idempotent response", e);
+        }
+    }
+
+    private CreateTransactionResponse fromJson(String json) {
+        try {
+            return objectMapper.readValue(json, CreateTransactionResponse.class);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Failed to deserialize idempotent response", e);
+        }
+    }
+}
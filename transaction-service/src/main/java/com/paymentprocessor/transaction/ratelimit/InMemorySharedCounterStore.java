@@ -0,0 +1,58 @@
+package com.paymentprocessor.transaction.ratelimit;
+
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+// Stand-in for a shared store when running a single node or in tests
+@Component
+@ConditionalOnProperty(name = "transaction.rate-limit.backend", havingValue = "shared")
+public class InMemorySharedCounterStore implements SharedCounterStore {
+
+    private static final long PURGE_INTERVAL_NANOS = TimeUnit.SECONDS.toNanos(1);
+
+    private record Counter(long value, long expiresAtNanos) {}
+
+    private final Map<String, Counter> counters = new ConcurrentHashMap<>();
+    private final AtomicLong lastPurgeNanos = new AtomicLong(System.nanoTime());
+
+    @Override
+    public long get(String key) {
+        long now = System.nanoTime();
+        var counter = counters.get(key);
+        return counter == null || isExpired(counter, now) ? 0 : counter.value();
+    }
+
+    @Override
+    public boolean compareAndSet(String key, long expected, long update, Duration ttl) {
+        long now = System.nanoTime();
+        purgeExpired(now);
+        var replaced = new boolean[1];
+        counters.compute(key, (k, current) -> {
+            long value = current == null || isExpired(current, now) ? 0 : current.value();
+            if (value != expected) {
+                return current;
+            }
+            replaced[0] = true;
+            return new Counter(update, now + ttl.toNanos());
+        });
+        return replaced[0];
+    }
+
+    // At most one caller per interval pays for the sweep
+    private void purgeExpired(long now) {
+        long last = lastPurgeNanos.get();
+        if (now - last >= PURGE_INTERVAL_NANOS && lastPurgeNanos.compareAndSet(last, now)) {
+            counters.values().removeIf(counter -> isExpired(counter, now));
+        }
+    }
+
+    private static boolean isExpired(Counter counter, long now) {
+        return counter.expiresAtNanos() - now <= 0;
+    }
+}
@@ -0,0 +1,9 @@
+package com.paymentprocessor.transaction.ratelimit;
+
+public interface KeyedRateLimiter {
+
+    RateLimitDecision tryAcquire(String key, RateLimitPolicy policy, int permits);
+
+    // Gives back permits acquired for a request that was then rejected elsewhere
+    void release(String key, RateLimitPolicy policy, int permits);
+}
@@ -0,0 +1,133 @@
+package com.paymentprocessor.transaction.ratelimit;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.LongSupplier;
+
+// Token buckets for this node, spread over independently locked stripes so unrelated callers
+// never contend. Each stripe evicts its least recently used bucket when full; an evicted bucket
+// was idle, so recreating it full gives the same answer a refilled bucket would have.
+@Component
+@ConditionalOnProperty(name = "transaction.rate-limit.backend", havingValue = "local", matchIfMissing = true)
+public class LocalTokenBucketRateLimiter implements KeyedRateLimiter {
+
+    private final Stripe[] stripes;
+    private final LongSupplier nanoClock;
+
+    @Autowired
+    public LocalTokenBucketRateLimiter(@Value("${transaction.rate-limit.stripes:64}") int stripeCount,
+                                       @Value("${transaction.rate-limit.max-keys:100000}") int maxKeys) {
+        this(stripeCount, maxKeys, System::nanoTime);
+    }
+
+    LocalTokenBucketRateLimiter(int stripeCount, int maxKeys, LongSupplier nanoClock) {
+        // Power of two so the stripe index is a mask rather than a modulo
+        int size = Integer.highestOneBit(Math.max(1, stripeCount - 1)) << 1;
+        int keysPerStripe = Math.max(1, maxKeys / size);
+        this.stripes = new Stripe[size];
+        for (int i = 0; i < size; i++) {
+            stripes[i] = new Stripe(keysPerStripe);
+        }
+        this.nanoClock = nanoClock;
+    }
+
+    @Override
+    public RateLimitDecision tryAcquire(String key, RateLimitPolicy policy, int permits) {
+        var stripe = stripes[spread(key.hashCode()) & (stripes.length - 1)];
+        long now = nanoClock.getAsLong();
+
+        stripe.lock.lock();
+        try {
+            var bucket = stripe.buckets.get(key);
+            if (bucket == null) {
+                bucket = new TokenBucket(policy.burstCapacity(), now);
+                stripe.buckets.put(key, bucket);
+            }
+            return bucket.tryAcquire(policy, permits, now);
+        } finally {
+            stripe.lock.unlock();
+        }
+    }
+
+    @Override
+    public void release(String key, RateLimitPolicy policy, int permits) {
+        var stripe = stripes[spread(key.hashCode()) & (stripes.length - 1)];
+
+        stripe.lock.lock();
+        try {
+            // An evicted bucket comes back full, so there is nothing to give back
+            var bucket = stripe.buckets.get(key);
+            if (bucket != null) {
+                bucket.release(policy, permits);
+            }
+        } finally {
+            stripe.lock.unlock();
+        }
+    }
+
+    int trackedKeys() {
+        int count = 0;
+        for (var stripe : stripes) {
+            stripe.lock.lock();
+            try {
+                count += stripe.buckets.size();
+            } finally {
+                stripe.lock.unlock();
+            }
+        }
+        return count;
+    }
+
+    private static int spread(int hash) {
+        return hash ^ (hash >>> 16);
+    }
+
+    private static final class Stripe {
+
+        private final ReentrantLock lock = new ReentrantLock();
+        private final Map<String, TokenBucket> buckets;
+
+        private Stripe(int maxKeys) {
+            this.buckets = new LinkedHashMap<>(16, 0.75f, true) {
+                @Override
+                protected boolean removeEldestEntry(Map.Entry<String, TokenBucket> eldest) {
+                    return size() > maxKeys;
+                }
+            };
+        }
+    }
+
+    // Guarded by its stripe's lock
+    private static final class TokenBucket {
+
+        private double tokens;
+        private long lastRefillNanos;
+
+        private TokenBucket(double tokens, long now) {
+            this.tokens = tokens;
+            this.lastRefillNanos = now;
+        }
+
+        private RateLimitDecision tryAcquire(RateLimitPolicy policy, int permits, long now) {
+            double perNano = policy.permitsPerSecond() / 1_000_000_000d;
+            tokens = Math.min(policy.burstCapacity(), tokens + (now - lastRefillNanos) * perNano);
+            lastRefillNanos = now;
+
+            if (tokens >= permits) {
+                tokens -= permits;
+                return RateLimitDecision.allow();
+            }
+            return RateLimitDecision.reject((long) Math.ceil((permits - tokens) / perNano));
+        }
+
+        private void release(RateLimitPolicy policy, int permits) {
+            tokens = Math.min(policy.burstCapacity(), tokens + permits);
+        }
+    }
+}
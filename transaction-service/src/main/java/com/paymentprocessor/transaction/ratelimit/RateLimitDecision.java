@@ -0,0 +1,14 @@
+package com.paymentprocessor.transaction.ratelimit;
+
+public record RateLimitDecision(boolean allowed, long retryAfterNanos) {
+
+    private static final RateLimitDecision ALLOWED = new RateLimitDecision(true, 0);
+
+    public static RateLimitDecision allow() {
+        return ALLOWED;
+    }
+
+    public static RateLimitDecision reject(long retryAfterNanos) {
+        return new RateLimitDecision(false, retryAfterNanos);
+    }
+}
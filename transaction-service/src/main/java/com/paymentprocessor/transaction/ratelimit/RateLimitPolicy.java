@@ -0,0 +1,11 @@
+package com.paymentprocessor.transaction.ratelimit;
+
+// Sustained rate plus a burst allowance; a caller idle long enough may spend the full burst at once
+public record RateLimitPolicy(double permitsPerSecond, int burstCapacity) {
+
+    public RateLimitPolicy {
+        if (permitsPerSecond <= 0 || burstCapacity < 1) {
+            throw new IllegalArgumentException("Rate limit needs a positive rate and a burst capacity of at least 1");
+        }
+    }
+}
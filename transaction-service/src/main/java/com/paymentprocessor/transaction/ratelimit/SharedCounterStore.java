@@ -0,0 +1,12 @@
+package com.paymentprocessor.transaction.ratelimit;
+
+import java.time.Duration;
+
+// Cluster-wide values in the shape of Redis GET plus a WATCH/MULTI guarded SET with PX.
+// A missing or expired key reads as 0.
+public interface SharedCounterStore {
+
+    long get(String key);
+
+    boolean compareAndSet(String key, long expected, long update, Duration ttl);
+}
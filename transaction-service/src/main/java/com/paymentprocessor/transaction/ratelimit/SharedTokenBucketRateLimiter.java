@@ -0,0 +1,75 @@
+package com.paymentprocessor.transaction.ratelimit;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.time.temporal.ChronoUnit;
+import java.util.concurrent.TimeUnit;
+import java.util.function.LongSupplier;
+
+// Cluster-wide token bucket kept in a shared store as the time the bucket will next be full
+// (GCRA). Each permit pushes that time one emission interval further out and a request is admitted
+// while it stays within the burst, so callers get the burst once and the sustained rate after it.
+@Component
+@ConditionalOnProperty(name = "transaction.rate-limit.backend", havingValue = "shared")
+public class SharedTokenBucketRateLimiter implements KeyedRateLimiter {
+
+    private final SharedCounterStore counterStore;
+    private final LongSupplier clock;
+
+    @Autowired
+    public SharedTokenBucketRateLimiter(SharedCounterStore counterStore) {
+        this(counterStore, System::currentTimeMillis);
+    }
+
+    SharedTokenBucketRateLimiter(SharedCounterStore counterStore, LongSupplier clock) {
+        this.counterStore = counterStore;
+        this.clock = clock;
+    }
+
+    @Override
+    public RateLimitDecision tryAcquire(String key, RateLimitPolicy policy, int permits) {
+        long interval = emissionIntervalMicros(policy);
+        long tolerance = interval * policy.burstCapacity();
+        while (true) {
+            long now = TimeUnit.MILLISECONDS.toMicros(clock.getAsLong());
+            long stored = counterStore.get(key);
+            long fullAt = Math.max(stored, now) + interval * permits;
+            long admitAt = fullAt - tolerance;
+            if (admitAt > now) {
+                return RateLimitDecision.reject(TimeUnit.MICROSECONDS.toNanos(admitAt - now));
+            }
+            // Once the bucket is full again the key carries no information and may expire
+            if (counterStore.compareAndSet(key, stored, fullAt, untilFull(fullAt, now))) {
+                return RateLimitDecision.allow();
+            }
+        }
+    }
+
+    @Override
+    public void release(String key, RateLimitPolicy policy, int permits) {
+        long interval = emissionIntervalMicros(policy);
+        while (true) {
+            long now = TimeUnit.MILLISECONDS.toMicros(clock.getAsLong());
+            long stored = counterStore.get(key);
+            if (stored <= now) {
+                // Already full again by the time the permits come back
+                return;
+            }
+            long fullAt = Math.max(now, stored - interval * permits);
+            if (counterStore.compareAndSet(key, stored, fullAt, untilFull(fullAt, now))) {
+                return;
+            }
+        }
+    }
+
+    private static Duration untilFull(long fullAt, long now) {
+        return Duration.of(Math.max(1000, fullAt - now), ChronoUnit.MICROS);
+    }
+
+    private static long emissionIntervalMicros(RateLimitPolicy policy) {
+        return Math.max(1, Math.round(TimeUnit.SECONDS.toMicros(1) / policy.permitsPerSecond()));
+    }
+}
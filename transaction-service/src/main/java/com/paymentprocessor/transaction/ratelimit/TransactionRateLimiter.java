@@ -0,0 +1,126 @@
+package com.paymentprocessor.transaction.ratelimit;
+
+import com.paymentprocessor.common.exception.InvalidTransactionException;
+import com.paymentprocessor.common.exception.RateLimitExceededException;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.TreeMap;
+import java.util.concurrent.TimeUnit;
+
+// Submissions are charged to the caller's API key when one is sent and always to the paying user,
+// so one noisy integration or user is throttled without affecting anyone else
+@Slf4j
+@Service
+public class TransactionRateLimiter {
+
+    private final KeyedRateLimiter limiter;
+    private final RateLimitPolicy userPolicy;
+    private final RateLimitPolicy apiKeyPolicy;
+    private final RateLimitPolicy batchPolicy;
+    private final Counter userRejections;
+    private final Counter apiKeyRejections;
+    private final Counter batchRejections;
+
+    public TransactionRateLimiter(KeyedRateLimiter limiter,
+                                  MeterRegistry meterRegistry,
+                                  @Value("${transaction.rate-limit.user.permits-per-second:20}") double userRate,
+                                  @Value("${transaction.rate-limit.user.burst:40}") int userBurst,
+                                  @Value("${transaction.rate-limit.api-key.permits-per-second:500}") double apiKeyRate,
+                                  @Value("${transaction.rate-limit.api-key.burst:1000}") int apiKeyBurst,
+                                  @Value("${transaction.rate-limit.batch.permits-per-second:2}") double batchRate,
+                                  @Value("${transaction.rate-limit.batch.burst:5}") int batchBurst) {
+        this.limiter = limiter;
+        this.userPolicy = new RateLimitPolicy(userRate, userBurst);
+        this.apiKeyPolicy = new RateLimitPolicy(apiKeyRate, apiKeyBurst);
+        this.batchPolicy = new RateLimitPolicy(batchRate, batchBurst);
+        this.userRejections = Counter.builder("transactions.rate-limited")
+                .description("Number of submissions rejected by the rate limiter")
+                .tag("scope", "user")
+                .register(meterRegistry);
+        this.apiKeyRejections = Counter.builder("transactions.rate-limited")
+                .description("Number of submissions rejected by the rate limiter")
+                .tag("scope", "api-key")
+                .register(meterRegistry);
+        this.batchRejections = Counter.builder("transactions.rate-limited")
+                .description("Number of submissions rejected by the rate limiter")
+                .tag("scope", "batch")
+                .register(meterRegistry);
+    }
+
+    public void checkSubmission(String userId, String apiKey) {
+        var charges = new ArrayList<Charge>();
+        if (apiKey != null && !apiKey.isBlank()) {
+            // The key itself is a credential and never goes into the error response
+            charges.add(new Charge("api-key:" + apiKey, "api-key", apiKeyPolicy, apiKeyRejections, 1));
+        }
+        charges.add(new Charge("user:" + userId, userId, userPolicy, userRejections, 1));
+        chargeAll(charges);
+    }
+
+    // The batch bucket caps how often the endpoint itself is called, per API key or per client
+    // address. Each item is then charged like the single submission it replaces, to the API key and
+    // to its paying user, so batching is never a way around either limit.
+    public void checkBatchSubmission(String apiKey, String clientAddress, List<String> userIds) {
+        var charges = new ArrayList<Charge>();
+        boolean hasApiKey = apiKey != null && !apiKey.isBlank();
+        if (hasApiKey) {
+            charges.add(new Charge("batch:api-key:" + apiKey, "api-key", batchPolicy, batchRejections, 1));
+            charges.add(new Charge("api-key:" + apiKey, "api-key", apiKeyPolicy, apiKeyRejections, userIds.size()));
+        } else {
+            charges.add(new Charge("batch:address:" + clientAddress, clientAddress, batchPolicy, batchRejections, 1));
+        }
+
+        // Sorted so concurrent batches charge users in the same order
+        Map<String, Integer> itemsPerUser = new TreeMap<>();
+        userIds.stream().filter(Objects::nonNull).forEach(userId -> itemsPerUser.merge(userId, 1, Integer::sum));
+        itemsPerUser.forEach((userId, items) ->
+                charges.add(new Charge("user:" + userId, userId, userPolicy, userRejections, items)));
+        chargeAll(charges);
+    }
+
+    // A rejected submission costs nothing: permits already taken from earlier buckets are given
+    // back, so one throttled user cannot drain the API key's allowance for everyone else
+    private void chargeAll(List<Charge> charges) {
+        charges.forEach(this::checkFits);
+        var acquired = new ArrayList<Charge>(charges.size());
+        try {
+            for (var charge : charges) {
+                acquire(charge);
+                acquired.add(charge);
+            }
+        } catch (RuntimeException e) {
+            acquired.forEach(charge -> limiter.release(charge.key(), charge.policy(), charge.permits()));
+            throw e;
+        }
+    }
+
+    private void checkFits(Charge charge) {
+        if (charge.permits() > charge.policy().burstCapacity()) {
+            // Could never be admitted, so waiting for Retry-After would not help
+            charge.rejections().increment();
+            throw new InvalidTransactionException("Batch needs " + charge.permits() + " permits for " + charge.clientId()
+                    + ", more than its limit of " + charge.policy().burstCapacity() + " at once");
+        }
+    }
+
+    private void acquire(Charge charge) {
+        var decision = limiter.tryAcquire(charge.key(), charge.policy(), charge.permits());
+        if (!decision.allowed()) {
+            charge.rejections().increment();
+            log.debug("Rate limit exceeded for {}", charge.clientId());
+            long retryAfterSeconds = Math.max(1, TimeUnit.NANOSECONDS.toSeconds(decision.retryAfterNanos() + 999_999_999));
+            // Token buckets hold no request count, so the error only says the limit was hit
+            throw new RateLimitExceededException(charge.clientId(), retryAfterSeconds);
+        }
+    }
+
+    private record Charge(String key, String clientId, RateLimitPolicy policy, Counter rejections, int permits) {}
+}
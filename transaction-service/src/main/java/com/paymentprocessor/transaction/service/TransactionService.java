@@ -3,17 +3,33 @@ package com.paymentprocessor.transaction.service;
 import com.paymentprocessor.common.event.TransactionCreatedEvent;
 import com.paymentprocessor.common.exception.InvalidTransactionException;
 import com.paymentprocessor.common.util.TransactionIdGenerator;
+import com.paymentprocessor.transaction.admission.KafkaAdmissionController;
+import com.paymentprocessor.transaction.dto.CreateTransactionBatchResponse;
 import com.paymentprocessor.transaction.dto.CreateTransactionRequest;
 import com.paymentprocessor.transaction.dto.CreateTransactionResponse;
+import com.paymentprocessor.transaction.dto.TransactionBatchItemResult;
 import io.micrometer.core.instrument.Counter;
 import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.kafka.core.KafkaTemplate;
+import org.springframework.kafka.support.SendResult;
 import org.springframework.stereotype.Service;
 
 import java.math.BigDecimal;
 import java.net.URL;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
 import java.util.Objects;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.stream.Collectors;
 
 @Slf4j
 @Service
@@ -24,14 +40,26 @@ public class TransactionService {
 
     private final KafkaTemplate<String, Object> kafkaTemplate;
     private final TransactionIdGenerator transactionIdGenerator;
+    private final Validator validator;
+    private final KafkaAdmissionController admissionController;
+    private final int maxBatchSize;
+    private final Duration batchPublishTimeout;
     private final Counter transactionCreatedCounter;
     private final Counter transactionRejectedCounter;
 
     public TransactionService(KafkaTemplate<String, Object> kafkaTemplate,
                               TransactionIdGenerator transactionIdGenerator,
+                              Validator validator,
+                              KafkaAdmissionController admissionController,
+                              @Value("${transaction.batch.max-size:1000}") int maxBatchSize,
+                              @Value("${transaction.batch.publish-timeout:30s}") Duration batchPublishTimeout,
                               MeterRegistry meterRegistry) {
         this.kafkaTemplate = kafkaTemplate;
         this.transactionIdGenerator = transactionIdGenerator;
+        this.validator = validator;
+        this.admissionController = admissionController;
+        this.maxBatchSize = maxBatchSize;
+        this.batchPublishTimeout = batchPublishTimeout;
         this.transactionCreatedCounter = Counter.builder("transactions.created")
                 .description("Number of transactions created")
                 .register(meterRegistry);
@@ -40,27 +68,35 @@ public class TransactionService {
                 .register(meterRegistry);
     }
 
+    // Returns as soon as the event is handed to the producer; delivery failures are only logged
     public CreateTransactionResponse createTransaction(CreateTransactionRequest request, String correlationId) {
+        return submitTransaction(request, correlationId).response();
+    }
+
+    // Completes once the broker has acknowledged the event, or exceptionally if it never will. For
+    // callers that record the outcome, such as idempotency keys, and must not record an unsent payment.
+    public CompletableFuture<CreateTransactionResponse> createTransactionAcknowledged(CreateTransactionRequest request,
+                                                                                      String correlationId) {
+        var submission = submitTransaction(request, correlationId);
+        return submission.acknowledgement().thenApply(result -> submission.response());
+    }
+
+    private Submission submitTransaction(CreateTransactionRequest request, String correlationId) {
         log.info("Processing transaction creation request for user: {}", request.userId());
 
         try {
             // Validate transaction request
             validateTransactionRequest(request);
 
+            // Shed before touching the producer if it is already backed up
+            admissionController.admit(1);
+
             // Generate unique transaction ID
             var transactionId = transactionIdGenerator.generateTransactionId();
 
             // Create and publish transaction created event
-            var event = new TransactionCreatedEvent(
-                    transactionId,
-                    request.userId(),
-                    request.amount(),
-                    request.currency(),
-                    request.paymentMethod(),
-                    request.description()
-            );
-
-            publishTransactionCreatedEvent(transactionId, event, correlationId);
+            var acknowledgement = publishTransactionCreatedEvent(transactionId,
+                    toCreatedEvent(transactionId, request), correlationId);
 
             // Increment success counter
             transactionCreatedCounter.increment();
@@ -71,7 +107,7 @@ public class TransactionService {
             log.info("Transaction {} created successfully for user: {}",
                     transactionId, request.userId());
 
-            return response;
+            return new Submission(response, acknowledgement);
 
         } catch (Exception e) {
             transactionRejectedCounter.increment();
@@ -80,6 +116,107 @@ public class TransactionService {
         }
     }
 
+    // Each item succeeds or fails on its own. All valid items are sent before any acknowledgement is
+    // awaited, so the producer batches them instead of paying a broker round trip per payment.
+    public CreateTransactionBatchResponse createTransactions(List<CreateTransactionRequest> requests,
+                                                             String correlationId) {
+        if (requests.size() > maxBatchSize) {
+            throw new InvalidTransactionException(
+                    "Batch contains " + requests.size() + " transactions, the maximum is " + maxBatchSize);
+        }
+        admissionController.admit(requests.size());
+        log.info("Processing batch of {} transactions with correlation ID: {}", requests.size(), correlationId);
+
+        var results = new TransactionBatchItemResult[requests.size()];
+        var pending = new ArrayList<PendingSend>(requests.size());
+
+        for (int i = 0; i < requests.size(); i++) {
+            var request = requests.get(i);
+            try {
+                validateBatchItem(request);
+                var transactionId = transactionIdGenerator.generateTransactionId();
+                var future = admissionController.track(() -> kafkaTemplate.send(TRANSACTION_CREATED_TOPIC,
+                        transactionId, toCreatedEvent(transactionId, request)));
+                pending.add(new PendingSend(i, transactionId, request.webhookUrl(), future));
+            } catch (InvalidTransactionException e) {
+                results[i] = TransactionBatchItemResult.rejected(i, null, e.getMessage());
+            } catch (Exception e) {
+                log.error("Failed to enqueue batch item {} for user: {}", i, request != null ? request.userId() : null, e);
+                results[i] = TransactionBatchItemResult.rejected(i, null, "Failed to initiate transaction processing");
+            }
+        }
+
+        awaitAcknowledgements(pending, results);
+
+        var response = CreateTransactionBatchResponse.of(Arrays.asList(results));
+        transactionCreatedCounter.increment(response.acceptedCount());
+        transactionRejectedCounter.increment(response.rejectedCount());
+
+        log.info("Batch with correlation ID: {} accepted {}, rejected {} and left {} transactions pending",
+                correlationId, response.acceptedCount(), response.rejectedCount(), response.pendingCount());
+        return response;
+    }
+
+    // One shared deadline for the whole batch rather than a timeout per send. A send that has not
+    // been acknowledged by then may still succeed, so it is reported as pending rather than rejected:
+    // a client resubmitting it could otherwise create the payment twice.
+    private void awaitAcknowledgements(List<PendingSend> pending, TransactionBatchItemResult[] results) {
+        long deadline = System.nanoTime() + batchPublishTimeout.toNanos();
+        for (var send : pending) {
+            try {
+                send.future().get(Math.max(0, deadline - System.nanoTime()), TimeUnit.NANOSECONDS);
+                results[send.index()] = TransactionBatchItemResult.accepted(send.index(),
+                        CreateTransactionResponse.success(send.transactionId(), send.webhookUrl()));
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                results[send.index()] = TransactionBatchItemResult.pending(send.index(), send.transactionId());
+            } catch (TimeoutException e) {
+                log.warn("TransactionCreatedEvent for transaction: {} not acknowledged before the batch deadline",
+                        send.transactionId());
+                results[send.index()] = TransactionBatchItemResult.pending(send.index(), send.transactionId());
+            } catch (ExecutionException e) {
+                log.error("Failed to publish TransactionCreatedEvent for transaction: {}", send.transactionId(), e);
+                results[send.index()] = unpublished(send);
+            }
+        }
+    }
+
+    private static TransactionBatchItemResult unpublished(PendingSend send) {
+        return TransactionBatchItemResult.rejected(send.index(), send.transactionId(),
+                "Failed to initiate transaction processing");
+    }
+
+    private void validateBatchItem(CreateTransactionRequest request) {
+        if (request == null) {
+            throw new InvalidTransactionException("Transaction is required");
+        }
+        var violations = validator.validate(request);
+        if (!violations.isEmpty()) {
+            throw new InvalidTransactionException(violations.stream()
+                    .map(ConstraintViolation::getMessage)
+                    .sorted()
+                    .collect(Collectors.joining(", ")));
+        }
+        validateTransactionRequest(request);
+    }
+
+    private static TransactionCreatedEvent toCreatedEvent(String transactionId, CreateTransactionRequest request) {
+        return new TransactionCreatedEvent(
+                transactionId,
+                request.userId(),
+                request.amount(),
+                request.currency(),
+                request.paymentMethod(),
+                request.description()
+        );
+    }
+
+    private record Submission(CreateTransactionResponse response,
+                              CompletableFuture<SendResult<String, Object>> acknowledgement) {}
+
+    private record PendingSend(int index, String transactionId, String webhookUrl,
+                               CompletableFuture<SendResult<String, Object>> future) {}
+
     private void validateTransactionRequest(CreateTransactionRequest request) {
         Objects.requireNonNull(request.amount(), "Transaction amount is required");
         Objects.requireNonNull(request.userId(), "User ID is required");
@@ -105,12 +242,12 @@ public class TransactionService {
         }
     }
 
-    private void publishTransactionCreatedEvent(String transactionId, TransactionCreatedEvent event,
-                                                String correlationId) {
+    private CompletableFuture<SendResult<String, Object>> publishTransactionCreatedEvent(
+            String transactionId, TransactionCreatedEvent event, String correlationId) {
         try {
             log.info("Publishing TransactionCreatedEvent for transaction: {}", transactionId);
 
-            kafkaTemplate.send(TRANSACTION_CREATED_TOPIC, transactionId, event)
+            return admissionController.track(() -> kafkaTemplate.send(TRANSACTION_CREATED_TOPIC, transactionId, event))
                     .whenComplete((result, failure) -> {
                         if (failure != null) {
                             log.error("Failed to publish TransactionCreatedEvent for transaction: {}",
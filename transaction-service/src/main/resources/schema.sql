@@ -0,0 +1,10 @@
+-- Idempotency keys for transaction submission; expired rows are reclaimed on the next reservation
+CREATE TABLE IF NOT EXISTS idempotency_keys (
+    idempotency_key VARCHAR(512) PRIMARY KEY,
+    request_hash CHAR(64) NOT NULL,
+    response JSONB,
+    expires_at TIMESTAMP WITH TIME ZONE NOT NULL,
+    created_at TIMESTAMP WITH TIME ZONE NOT NULL DEFAULT CURRENT_TIMESTAMP
+);
+
+CREATE INDEX IF NOT EXISTS idx_idempotency_keys_expires_at ON idempotency_keys(expires_at);
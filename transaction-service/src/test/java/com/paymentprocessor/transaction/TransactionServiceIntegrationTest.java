@@ -11,14 +11,18 @@ import org.springframework.boot.test.context.SpringBootTest;
 import org.springframework.boot.test.mock.mockito.MockBean;
 import org.springframework.http.MediaType;
 import org.springframework.kafka.core.KafkaTemplate;
+import org.springframework.kafka.support.SendResult;
 import org.springframework.test.context.TestPropertySource;
 import org.springframework.test.web.servlet.MockMvc;
 
 import java.math.BigDecimal;
+import java.util.concurrent.CompletableFuture;
 
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
 import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
 
@@ -49,6 +53,8 @@ public class TransactionServiceIntegrationTest {
                 "127.0.0.1",
                 "Test-User-Agent"
         );
+        when(kafkaTemplate.send(eq("transaction-created"), any(String.class), any()))
+                .thenReturn(CompletableFuture.completedFuture(mock(SendResult.class)));
 
         // When & Then
         mockMvc.perform(post("/api/v1/transactions")
@@ -57,7 +63,7 @@ public class TransactionServiceIntegrationTest {
                 .andExpect(status().isAccepted())
                 .andExpect(content().contentType(MediaType.APPLICATION_JSON))
                 .andExpect(jsonPath("$.transactionId").isString())
-                .andExpect(jsonPath("$.status").value("SUCCESS"));
+                .andExpect(jsonPath("$.status").value("PENDING"));
 
         // Verify kafka interaction
         verify(kafkaTemplate).send(eq("transaction-created"), any(String.class), any());
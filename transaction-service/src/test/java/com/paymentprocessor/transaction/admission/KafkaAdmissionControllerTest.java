@@ -0,0 +1,77 @@
+package com.paymentprocessor.transaction.admission;
+
+import com.paymentprocessor.common.exception.ServiceOverloadedException;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.apache.kafka.common.Metric;
+import org.apache.kafka.common.MetricName;
+import org.junit.jupiter.api.Test;
+import org.springframework.kafka.core.KafkaTemplate;
+
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class KafkaAdmissionControllerTest {
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void shouldShedWhenTooManySendsAreUnacknowledged() {
+        var controller = new KafkaAdmissionController(mock(KafkaTemplate.class), new SimpleMeterRegistry(),
+                2, 0.8, Duration.ofMillis(100), Duration.ofSeconds(2));
+        var first = new CompletableFuture<String>();
+        var second = new CompletableFuture<String>();
+        controller.track(() -> first);
+        controller.track(() -> second);
+
+        assertThatThrownBy(() -> controller.admit(1))
+                .isInstanceOf(ServiceOverloadedException.class)
+                .extracting(e -> ((ServiceOverloadedException) e).getRetryAfterSeconds())
+                .isEqualTo(2L);
+
+        first.complete("ack");
+        controller.admit(1);
+        assertThat(controller.inFlight()).isEqualTo(1);
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void shouldShedWhenProducerBufferIsNearlyFull() {
+        KafkaTemplate<String, Object> kafkaTemplate = mock(KafkaTemplate.class);
+        Map<MetricName, Metric> metrics = new HashMap<>();
+        metrics.put(name("buffer-total-bytes"), metric(1000));
+        metrics.put(name("buffer-available-bytes"), metric(100));
+        metrics.put(name("waiting-threads"), metric(0));
+        when(kafkaTemplate.metrics()).thenAnswer(invocation -> metrics);
+        var controller = new KafkaAdmissionController(kafkaTemplate, new SimpleMeterRegistry(),
+                100, 0.8, Duration.ZERO, Duration.ofSeconds(1));
+
+        assertThatThrownBy(() -> controller.admit(1)).isInstanceOf(ServiceOverloadedException.class);
+
+        metrics.put(name("buffer-available-bytes"), metric(900));
+        controller.admit(1);
+    }
+
+    @Test
+    void shouldIgnoreMetricsFromOtherGroups() {
+        var pressure = KafkaAdmissionController.readPressure(Map.of(
+                new MetricName("waiting-threads", "consumer-metrics", "", Map.of()), metric(5)));
+
+        assertThat(pressure).isEqualTo(new KafkaAdmissionController.ProducerPressure(0, 0));
+    }
+
+    private static MetricName name(String name) {
+        return new MetricName(name, "producer-metrics", "", Map.of());
+    }
+
+    private static Metric metric(double value) {
+        var metric = mock(Metric.class);
+        when(metric.metricValue()).thenReturn(value);
+        return metric;
+    }
+}
@@ -0,0 +1,208 @@
+package com.paymentprocessor.transaction.idempotency;
+
+import com.paymentprocessor.common.exception.IdempotencyConflictException;
+import com.paymentprocessor.common.exception.InvalidTransactionException;
+import com.paymentprocessor.common.model.Currency;
+import com.paymentprocessor.common.model.PaymentMethod;
+import com.paymentprocessor.transaction.dto.CreateTransactionRequest;
+import com.paymentprocessor.transaction.dto.CreateTransactionResponse;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.assertj.core.api.Assertions.within;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.spy;
+import static org.mockito.Mockito.verify;
+
+class IdempotencyServiceTest {
+
+    private InMemoryIdempotencyStore store;
+    private IdempotencyService idempotencyService;
+    private AtomicInteger executions;
+
+    @BeforeEach
+    void setUp() {
+        store = new InMemoryIdempotencyStore();
+        idempotencyService = service(store);
+        executions = new AtomicInteger();
+    }
+
+    private static IdempotencyService service(IdempotencyStore store) {
+        return new IdempotencyService(store, new SimpleMeterRegistry(), Duration.ofHours(1), Duration.ofMinutes(3),
+                100, Duration.ofMinutes(1), Duration.ofSeconds(5), Duration.ofMillis(200));
+    }
+
+    @Test
+    void shouldReplayOriginalResponseWithoutExecutingAgain() {
+        var first = idempotencyService.execute("key-1", request("10.00"), this::create);
+        var second = idempotencyService.execute("key-1", request("10.0"), this::create);
+
+        assertThat(first.replayed()).isFalse();
+        assertThat(second.replayed()).isTrue();
+        assertThat(second.response()).isEqualTo(first.response());
+        assertThat(executions).hasValue(1);
+    }
+
+    @Test
+    void shouldRejectKeyReusedForDifferentRequest() {
+        idempotencyService.execute("key-1", request("10.00"), this::create);
+
+        assertThatThrownBy(() -> idempotencyService.execute("key-1", request("20.00"), this::create))
+                .isInstanceOf(InvalidTransactionException.class);
+    }
+
+    @Test
+    void shouldReleaseKeyWhenOriginalRequestFails() {
+        assertThatThrownBy(() -> idempotencyService.execute("key-1", request("10.00"), () -> {
+            throw new InvalidTransactionException("broker unavailable");
+        })).isInstanceOf(InvalidTransactionException.class);
+
+        var retry = idempotencyService.execute("key-1", request("10.00"), this::create);
+
+        assertThat(retry.replayed()).isFalse();
+    }
+
+    @Test
+    void shouldReleaseKeyWhenPublishIsNotAcknowledged() {
+        assertThatThrownBy(() -> idempotencyService.execute("key-1", request("10.00"), () ->
+                CompletableFuture.failedFuture(new InvalidTransactionException("broker unavailable"))))
+                .isInstanceOf(InvalidTransactionException.class);
+
+        var retry = idempotencyService.execute("key-1", request("10.00"), this::create);
+
+        assertThat(retry.replayed()).isFalse();
+        assertThat(executions).hasValue(1);
+    }
+
+    @Test
+    void shouldHoldKeyUntilLateAcknowledgementFails() {
+        var acknowledgement = new CompletableFuture<CreateTransactionResponse>();
+
+        assertThatThrownBy(() -> idempotencyService.execute("key-1", request("10.00"), () -> acknowledgement))
+                .isInstanceOf(IdempotencyConflictException.class);
+        // Still unknown: a retry must not create a second payment
+        assertThatThrownBy(() -> idempotencyService.execute("key-1", request("10.00"), this::create))
+                .isInstanceOf(IdempotencyConflictException.class);
+
+        acknowledgement.completeExceptionally(new IllegalStateException("broker unavailable"));
+        var retry = idempotencyService.execute("key-1", request("10.00"), this::create);
+
+        assertThat(retry.replayed()).isFalse();
+        assertThat(executions).hasValue(1);
+    }
+
+    @Test
+    void shouldReplayLateAcknowledgedResponse() {
+        var acknowledgement = new CompletableFuture<CreateTransactionResponse>();
+        assertThatThrownBy(() -> idempotencyService.execute("key-1", request("10.00"), () -> acknowledgement))
+                .isInstanceOf(IdempotencyConflictException.class);
+
+        acknowledgement.complete(CreateTransactionResponse.success("TX-late"));
+        var retry = idempotencyService.execute("key-1", request("10.00"), this::create);
+
+        assertThat(retry.replayed()).isTrue();
+        assertThat(retry.response().transactionId()).isEqualTo("TX-late");
+        assertThat(executions).hasValue(0);
+    }
+
+    @Test
+    void shouldReserveWithShortLeaseAndExtendOnCompletion() {
+        store = spy(new InMemoryIdempotencyStore());
+        idempotencyService = service(store);
+        var reservedUntil = ArgumentCaptor.forClass(Instant.class);
+        var completedUntil = ArgumentCaptor.forClass(Instant.class);
+
+        idempotencyService.execute("key-1", request("10.00"), this::create);
+
+        verify(store).reserve(anyString(), anyString(), reservedUntil.capture());
+        verify(store).complete(anyString(), any(), completedUntil.capture());
+        assertThat(reservedUntil.getValue()).isCloseTo(Instant.now().plus(Duration.ofMinutes(3)), within(10, ChronoUnit.SECONDS));
+        assertThat(completedUntil.getValue()).isCloseTo(Instant.now().plus(Duration.ofHours(1)), within(10, ChronoUnit.SECONDS));
+    }
+
+    @Test
+    void shouldReturnPublishedResponseWhenStoringItFails() {
+        store = spy(new InMemoryIdempotencyStore());
+        doThrow(new IllegalStateException("database unavailable")).when(store).complete(eq("user123:key-1"), any(), any());
+        idempotencyService = service(store);
+
+        var result = idempotencyService.execute("key-1", request("10.00"), this::create);
+        var retry = idempotencyService.execute("key-1", request("10.00"), this::create);
+
+        assertThat(result.response().transactionId()).isEqualTo("TX-1");
+        assertThat(retry.replayed()).isTrue();
+        assertThat(retry.response().transactionId()).isEqualTo("TX-1");
+        assertThat(executions).hasValue(1);
+    }
+
+    @Test
+    void shouldReportConflictWhileAnotherNodeHoldsTheKey() {
+        store.reserve("user123:key-1", IdempotencyService.hash(request("10.00")), Instant.now().plusSeconds(60));
+
+        assertThatThrownBy(() -> idempotencyService.execute("key-1", request("10.00"), this::create))
+                .isInstanceOf(IdempotencyConflictException.class);
+        assertThat(executions).hasValue(0);
+    }
+
+    @Test
+    void shouldExecuteOnceForConcurrentDuplicates() throws Exception {
+        var release = new CountDownLatch(1);
+        var executor = Executors.newFixedThreadPool(8);
+        try {
+            var results = new ArrayList<Future<IdempotentResult>>();
+            for (int i = 0; i < 8; i++) {
+                results.add(executor.submit(() -> idempotencyService.execute("key-1", request("10.00"), () -> {
+                    awaitQuietly(release);
+                    return create();
+                })));
+            }
+            Thread.sleep(100);
+            release.countDown();
+
+            var transactionIds = new ArrayList<String>();
+            for (var result : results) {
+                transactionIds.add(result.get(5, TimeUnit.SECONDS).response().transactionId());
+            }
+            assertThat(transactionIds).containsOnly("TX-1");
+            assertThat(executions).hasValue(1);
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    private CompletableFuture<CreateTransactionResponse> create() {
+        return CompletableFuture.completedFuture(CreateTransactionResponse.success("TX-" + executions.incrementAndGet()));
+    }
+
+    private static void awaitQuietly(CountDownLatch latch) {
+        try {
+            latch.await(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private static CreateTransactionRequest request(String amount) {
+        return new CreateTransactionRequest("user123", new BigDecimal(amount), Currency.USD,
+                PaymentMethod.CREDIT_CARD, "Idempotent payment");
+    }
+}
@@ -0,0 +1,77 @@
+package com.paymentprocessor.transaction.ratelimit;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class LocalTokenBucketRateLimiterTest {
+
+    private static final RateLimitPolicy POLICY = new RateLimitPolicy(10, 5);
+
+    private final AtomicLong clock = new AtomicLong();
+    private final LocalTokenBucketRateLimiter limiter = new LocalTokenBucketRateLimiter(4, 1000, clock::get);
+
+    @Test
+    void shouldAllowBurstThenRejectWithRetryHint() {
+        for (int i = 0; i < 5; i++) {
+            assertThat(limiter.tryAcquire("user:1", POLICY, 1).allowed()).isTrue();
+        }
+
+        var rejected = limiter.tryAcquire("user:1", POLICY, 1);
+
+        assertThat(rejected.allowed()).isFalse();
+        assertThat(rejected.retryAfterNanos()).isEqualTo(TimeUnit.MILLISECONDS.toNanos(100));
+    }
+
+    @Test
+    void shouldRefillAtSustainedRateUpToBurst() {
+        for (int i = 0; i < 5; i++) {
+            limiter.tryAcquire("user:1", POLICY, 1);
+        }
+
+        clock.addAndGet(TimeUnit.MILLISECONDS.toNanos(200));
+        assertThat(limiter.tryAcquire("user:1", POLICY, 1).allowed()).isTrue();
+        assertThat(limiter.tryAcquire("user:1", POLICY, 1).allowed()).isTrue();
+        assertThat(limiter.tryAcquire("user:1", POLICY, 1).allowed()).isFalse();
+
+        clock.addAndGet(TimeUnit.SECONDS.toNanos(60));
+        int allowed = 0;
+        while (limiter.tryAcquire("user:1", POLICY, 1).allowed()) {
+            allowed++;
+        }
+        assertThat(allowed).isEqualTo(5);
+    }
+
+    @Test
+    void shouldReturnReleasedPermitsUpToBurst() {
+        assertThat(limiter.tryAcquire("user:1", POLICY, 5).allowed()).isTrue();
+
+        limiter.release("user:1", POLICY, 2);
+        limiter.release("user:1", POLICY, 10);
+
+        assertThat(limiter.tryAcquire("user:1", POLICY, 5).allowed()).isTrue();
+        assertThat(limiter.tryAcquire("user:1", POLICY, 1).allowed()).isFalse();
+    }
+
+    @Test
+    void shouldKeepCallersIndependent() {
+        for (int i = 0; i < 5; i++) {
+            limiter.tryAcquire("user:noisy", POLICY, 1);
+        }
+
+        assertThat(limiter.tryAcquire("user:noisy", POLICY, 1).allowed()).isFalse();
+        assertThat(limiter.tryAcquire("user:quiet", POLICY, 1).allowed()).isTrue();
+    }
+
+    @Test
+    void shouldEvictIdleBucketsWhenFull() {
+        for (int i = 0; i < 5_000; i++) {
+            limiter.tryAcquire("user:" + i, POLICY, 1);
+        }
+
+        assertThat(limiter.trackedKeys()).isLessThanOrEqualTo(1000);
+    }
+}
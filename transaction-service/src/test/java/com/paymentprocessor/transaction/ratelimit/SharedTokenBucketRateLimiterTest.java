@@ -0,0 +1,52 @@
+package com.paymentprocessor.transaction.ratelimit;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class SharedTokenBucketRateLimiterTest {
+
+    private final InMemorySharedCounterStore store = new InMemorySharedCounterStore();
+    private final AtomicLong clock = new AtomicLong(1_000_000);
+    private final RateLimitPolicy policy = new RateLimitPolicy(2, 4);
+
+    @Test
+    void shouldShareLimitAcrossNodesUsingTheSameStore() {
+        var nodeA = new SharedTokenBucketRateLimiter(store, clock::get);
+        var nodeB = new SharedTokenBucketRateLimiter(store, clock::get);
+
+        assertThat(nodeA.tryAcquire("user:1", policy, 2).allowed()).isTrue();
+        assertThat(nodeB.tryAcquire("user:1", policy, 2).allowed()).isTrue();
+        assertThat(nodeA.tryAcquire("user:1", policy, 1).allowed()).isFalse();
+
+        clock.addAndGet(500);
+        assertThat(nodeB.tryAcquire("user:1", policy, 1).allowed()).isTrue();
+    }
+
+    @Test
+    void shouldAdmitOnlySustainedRateOnceBurstIsSpent() {
+        var limiter = new SharedTokenBucketRateLimiter(store, clock::get);
+        assertThat(limiter.tryAcquire("user:1", policy, 4).allowed()).isTrue();
+
+        for (int second = 0; second < 3; second++) {
+            clock.addAndGet(1000);
+            assertThat(limiter.tryAcquire("user:1", policy, 2).allowed()).isTrue();
+            var rejected = limiter.tryAcquire("user:1", policy, 1);
+            assertThat(rejected.allowed()).isFalse();
+            assertThat(rejected.retryAfterNanos()).isEqualTo(500_000_000L);
+        }
+    }
+
+    @Test
+    void shouldReturnReleasedPermits() {
+        var limiter = new SharedTokenBucketRateLimiter(store, clock::get);
+        assertThat(limiter.tryAcquire("user:1", policy, 4).allowed()).isTrue();
+
+        limiter.release("user:1", policy, 3);
+
+        assertThat(limiter.tryAcquire("user:1", policy, 3).allowed()).isTrue();
+        assertThat(limiter.tryAcquire("user:1", policy, 1).allowed()).isFalse();
+    }
+}
@@ -0,0 +1,70 @@
+package com.paymentprocessor.transaction.ratelimit;
+
+import com.paymentprocessor.common.exception.InvalidTransactionException;
+import com.paymentprocessor.common.exception.RateLimitExceededException;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.assertj.core.api.Assertions.assertThatCode;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class TransactionRateLimiterTest {
+
+    private final AtomicLong clock = new AtomicLong();
+    // User: burst 3, API key: burst 10, batch: burst 100 so the endpoint bucket never gets in the way
+    private final TransactionRateLimiter rateLimiter = new TransactionRateLimiter(
+            new LocalTokenBucketRateLimiter(4, 1000, clock::get), new SimpleMeterRegistry(),
+            1, 3, 1, 10, 1, 100);
+
+    @Test
+    void shouldChargeEachBatchItemToItsUser() {
+        rateLimiter.checkBatchSubmission(null, "10.0.0.1", List.of("user-1", "user-2"));
+        rateLimiter.checkBatchSubmission(null, "10.0.0.1", List.of("user-1", "user-2"));
+        rateLimiter.checkBatchSubmission(null, "10.0.0.1", List.of("user-1"));
+
+        assertThatThrownBy(() -> rateLimiter.checkBatchSubmission(null, "10.0.0.1", List.of("user-1")))
+                .isInstanceOf(RateLimitExceededException.class);
+        assertThatCode(() -> rateLimiter.checkSubmission("user-2", null)).doesNotThrowAnyException();
+    }
+
+    @Test
+    void shouldChargeBatchItemsToApiKey() {
+        rateLimiter.checkBatchSubmission("key-1", "10.0.0.1", List.of("a", "b", "c", "d", "e", "f"));
+
+        assertThatThrownBy(() -> rateLimiter.checkBatchSubmission("key-1", "10.0.0.1", List.of("g", "h", "i", "j", "k")))
+                .isInstanceOf(RateLimitExceededException.class);
+    }
+
+    @Test
+    void shouldRefundApiKeyWhenUserBucketRejects() {
+        rateLimiter.checkBatchSubmission(null, "10.0.0.1", List.of("user-1", "user-1", "user-1"));
+
+        for (int attempt = 0; attempt < 5; attempt++) {
+            assertThatThrownBy(() -> rateLimiter.checkBatchSubmission("key-1", "10.0.0.1", List.of("user-1", "user-1")))
+                    .isInstanceOf(RateLimitExceededException.class);
+        }
+        assertThatCode(() -> rateLimiter.checkBatchSubmission("key-1", "10.0.0.1",
+                List.of("a", "b", "c", "d", "e", "f", "g", "h", "i", "j"))).doesNotThrowAnyException();
+    }
+
+    @Test
+    void shouldNotChargeAnyBucketForBatchLargerThanBurst() {
+        assertThatThrownBy(() -> rateLimiter.checkBatchSubmission("key-1", "10.0.0.1", Collections.nCopies(4, "user-1")))
+                .isInstanceOf(InvalidTransactionException.class);
+
+        assertThatCode(() -> rateLimiter.checkBatchSubmission("key-1", "10.0.0.1",
+                List.of("a", "b", "c", "d", "e", "f", "g", "h", "i", "j"))).doesNotThrowAnyException();
+    }
+
+    @Test
+    void shouldRejectBatchLargerThanBurstAsInvalid() {
+        var items = Collections.nCopies(4, "user-1");
+
+        assertThatThrownBy(() -> rateLimiter.checkBatchSubmission(null, "10.0.0.1", items))
+                .isInstanceOf(InvalidTransactionException.class);
+    }
+}
@@ -0,0 +1,107 @@
+package com.paymentprocessor.transaction.service;
+
+import com.paymentprocessor.common.exception.InvalidTransactionException;
+import com.paymentprocessor.common.model.Currency;
+import com.paymentprocessor.common.model.PaymentMethod;
+import com.paymentprocessor.common.util.TransactionIdGenerator;
+import com.paymentprocessor.transaction.admission.KafkaAdmissionController;
+import com.paymentprocessor.transaction.dto.CreateTransactionRequest;
+import com.paymentprocessor.transaction.dto.TransactionBatchItemResult;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.validation.Validator;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.kafka.core.KafkaTemplate;
+import org.springframework.kafka.support.SendResult;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class TransactionServiceTest {
+
+    private KafkaTemplate<String, Object> kafkaTemplate;
+    private TransactionIdGenerator idGenerator;
+    private TransactionService transactionService;
+
+    @BeforeEach
+    @SuppressWarnings("unchecked")
+    void setUp() {
+        kafkaTemplate = mock(KafkaTemplate.class);
+        idGenerator = mock(TransactionIdGenerator.class);
+        var validator = mock(Validator.class);
+        when(validator.validate(any())).thenReturn(Collections.emptySet());
+        var admissionController = new KafkaAdmissionController(kafkaTemplate, new SimpleMeterRegistry(),
+                100, 0.8, Duration.ofMillis(100), Duration.ofSeconds(1));
+        transactionService = new TransactionService(kafkaTemplate, idGenerator, validator, admissionController,
+                3, Duration.ofSeconds(1), new SimpleMeterRegistry());
+    }
+
+    @Test
+    void shouldReportPerItemResultsForPartiallyInvalidBatch() {
+        when(idGenerator.generateTransactionId()).thenReturn("TX-1", "TX-2");
+        when(kafkaTemplate.send(anyString(), eq("TX-1"), any()))
+                .thenReturn(CompletableFuture.completedFuture(mock(SendResult.class)));
+        when(kafkaTemplate.send(anyString(), eq("TX-2"), any()))
+                .thenReturn(CompletableFuture.failedFuture(new IllegalStateException("broker unavailable")));
+
+        var response = transactionService.createTransactions(List.of(
+                request("user-1", "10.00"),
+                request("user-2", "0.00"),
+                request("user-3", "20.00")), "correlation-1");
+
+        assertThat(response.acceptedCount()).isEqualTo(1);
+        assertThat(response.rejectedCount()).isEqualTo(2);
+        assertThat(response.results()).extracting(TransactionBatchItemResult::index).containsExactly(0, 1, 2);
+        assertThat(response.results()).extracting(TransactionBatchItemResult::accepted)
+                .containsExactly(true, false, false);
+        assertThat(response.results().get(0).consistencyToken()).isNotNull();
+        assertThat(response.results().get(2).transactionId()).isEqualTo("TX-2");
+    }
+
+    @Test
+    void shouldReportUnacknowledgedSendAsPendingNotRejected() {
+        when(idGenerator.generateTransactionId()).thenReturn("TX-1", "TX-2");
+        when(kafkaTemplate.send(anyString(), eq("TX-1"), any()))
+                .thenReturn(CompletableFuture.completedFuture(mock(SendResult.class)));
+        when(kafkaTemplate.send(anyString(), eq("TX-2"), any())).thenReturn(new CompletableFuture<>());
+
+        var response = transactionService.createTransactions(List.of(
+                request("user-1", "10.00"),
+                request("user-2", "20.00")), "correlation-1");
+
+        assertThat(response.acceptedCount()).isEqualTo(1);
+        assertThat(response.rejectedCount()).isZero();
+        assertThat(response.pendingCount()).isEqualTo(1);
+        assertThat(response.isFullyAccepted()).isFalse();
+        assertThat(response.results().get(1))
+                .extracting(TransactionBatchItemResult::status, TransactionBatchItemResult::transactionId)
+                .containsExactly(TransactionBatchItemResult.Status.PENDING, "TX-2");
+    }
+
+    @Test
+    void shouldRejectOversizedBatchWithoutPublishing() {
+        var requests = List.of(request("u", "1.00"), request("u", "1.00"), request("u", "1.00"), request("u", "1.00"));
+
+        assertThatThrownBy(() -> transactionService.createTransactions(requests, "correlation-1"))
+                .isInstanceOf(InvalidTransactionException.class);
+        verify(kafkaTemplate, never()).send(anyString(), anyString(), any());
+    }
+
+    private static CreateTransactionRequest request(String userId, String amount) {
+        return new CreateTransactionRequest(userId, new BigDecimal(amount), Currency.USD,
+                PaymentMethod.CREDIT_CARD, "Batch item");
+    }
+}